@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.adapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the ring-based DataBuffer with the ArrayList/wait/notify hand-off it
+ * replaced. Each invocation pushes a burst of chunks from the benchmark thread
+ * and waits until the consumer thread has seen all of them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataBufferBenchmark {
+
+  private static final int BURST = 10_000;
+
+  private final Object chunk = new Object();
+  private final Object endOfBurst = new Object();
+  private volatile long ringBursts = 0;
+  private volatile long legacyBursts = 0;
+
+  private DataBuffer<Object> ring;
+  private LegacyDataBuffer<Object> legacy;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    ring = new DataBuffer<>("ring", o -> {
+      if (o == endOfBurst)
+        ringBursts++;
+    });
+    legacy = new LegacyDataBuffer<>(o -> {
+      if (o == endOfBurst)
+        legacyBursts++;
+    });
+    ring.startThread();
+    legacy.startThread();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    ring.stopThread();
+    legacy.stopThread();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BURST)
+  public long ringBuffer() {
+    final long target = ringBursts + 1;
+    for (int i = 1; i < BURST; i++)
+      ring.addObject(chunk);
+    ring.addObject(endOfBurst);
+    while (ringBursts < target)
+      Thread.yield();
+    return target;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BURST)
+  public long arrayList() {
+    final long target = legacyBursts + 1;
+    for (int i = 1; i < BURST; i++)
+      legacy.addObject(chunk);
+    legacy.addObject(endOfBurst);
+    while (legacyBursts < target)
+      Thread.yield();
+    return target;
+  }
+
+  /** Copy of the previous DataBuffer hand-off, kept here as the baseline. */
+  private static class LegacyDataBuffer<T> implements Runnable {
+    private final List<T> buffer = new ArrayList<>(1000);
+    private final Consumer<T> listener;
+    private Thread fetchThread;
+    private boolean stopThread;
+
+    LegacyDataBuffer(final Consumer<T> listener) {
+      this.listener = listener;
+    }
+
+    void startThread() {
+      fetchThread = new Thread(this, "legacy");
+      fetchThread.start();
+    }
+
+    void stopThread() {
+      synchronized (buffer) {
+        stopThread = true;
+        buffer.notifyAll();
+      }
+      try {
+        fetchThread.join();
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    void addObject(final T object) {
+      synchronized (buffer) {
+        buffer.add(object);
+        buffer.notify();
+      }
+    }
+
+    private T fetchObject() throws InterruptedException {
+      synchronized (buffer) {
+        while (true) {
+          if (buffer.size() > 0)
+            return buffer.remove(0);
+          if (stopThread)
+            return null;
+          buffer.wait();
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        T o;
+        while ((o = fetchObject()) != null)
+          listener.accept(o);
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
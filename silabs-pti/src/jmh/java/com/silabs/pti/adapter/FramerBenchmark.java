@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.adapter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Deframing throughput of the debug channel framer, per byte versus bulk.
+ *
+ * The input is a DUMP capture, which is exactly the raw debug channel stream as
+ * it came off the socket. Pass one with -p dumpFile=capture.dump, otherwise a
+ * synthetic capture with realistic frame sizes is used. The capture is fed in
+ * reads of readSize bytes, like a socket would deliver it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FramerBenchmark {
+
+  @Param({ "" })
+  public String dumpFile;
+
+  @Param({ "65536" })
+  public int readSize;
+
+  private byte[] capture;
+  private DebugChannelFramer framer;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    if (dumpFile.isEmpty()) {
+      capture = syntheticCapture(new Random(1), 8 * 1024 * 1024);
+    } else {
+      capture = Files.readAllBytes(Paths.get(dumpFile));
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void newFramer() {
+    framer = new DebugChannelFramer(true);
+  }
+
+  @Benchmark
+  public void perByte(final Blackhole bh) {
+    for (int off = 0; off < capture.length; off += readSize) {
+      final int end = Math.min(capture.length, off + readSize);
+      for (int i = off; i < end; i++) {
+        final byte[] m = framer.assembleMessage(capture[i]);
+        if (m != null)
+          bh.consume(m);
+      }
+    }
+  }
+
+  @Benchmark
+  public void bulk(final Blackhole bh) {
+    for (int off = 0; off < capture.length; off += readSize) {
+      framer.assembleMessages(capture, off, Math.min(readSize, capture.length - off), bh::consume);
+    }
+  }
+
+  // Mix of short radio events and larger packet frames, similar to a busy
+  // 802.15.4 capture.
+  private static byte[] syntheticCapture(final Random r, final int size) {
+    final DebugChannelFramer f = new DebugChannelFramer(true);
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream(size + 1024);
+    while (bos.size() < size) {
+      final byte[] payload = new byte[r.nextInt(4) == 0 ? 20 + r.nextInt(20) : 40 + r.nextInt(160)];
+      r.nextBytes(payload);
+      bos.writeBytes(f.frame(payload));
+    }
+    return bos.toByteArray();
+  }
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.adapter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link TimeSynchronizer} with 256 established originators,
+ * called from 32 threads, by originator id and by resolved originator.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class TimeSynchronizerBenchmark {
+
+  private static final int ORIGINATORS = 256;
+
+  private TimeSynchronizer sync;
+  private String[] ids;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    sync = new TimeSynchronizer(TimeSynchronizer.DEFAULT_PC_TIME_SUPPLIER, true, 1_000_000_000L, 1_000_000);
+    ids = new String[ORIGINATORS];
+    for (int i = 0; i < ORIGINATORS; i++) {
+      ids[i] = "adapter-" + i;
+      sync.synchronizedTime(ids[i], 0);
+    }
+  }
+
+  /** Originators of a single benchmark thread. */
+  @State(Scope.Thread)
+  public static class Caller {
+    private static final AtomicInteger threads = new AtomicInteger();
+    private final int first = threads.getAndIncrement() * 8;
+    private String[] ids;
+    private TimeSynchronizer.Originator[] originators;
+    private int next = 0;
+    // Stays well within the drift threshold, so no correction takes the lock.
+    private final long time = 0;
+
+    @Setup(Level.Trial)
+    public void setup(final TimeSynchronizerBenchmark b) {
+      ids = new String[8];
+      originators = new TimeSynchronizer.Originator[8];
+      for (int i = 0; i < 8; i++) {
+        ids[i] = b.ids[(first + i) % ORIGINATORS];
+        originators[i] = b.sync.originator(ids[i]);
+      }
+    }
+  }
+
+  @Benchmark
+  public long byId(final Caller c) {
+    c.next = (c.next + 1) & 7;
+    return sync.synchronizedTime(c.ids[c.next], c.time);
+  }
+
+  @Benchmark
+  public long byOriginator(final Caller c) {
+    c.next = (c.next + 1) & 7;
+    return c.originators[c.next].synchronizedTime(c.time);
+  }
+}
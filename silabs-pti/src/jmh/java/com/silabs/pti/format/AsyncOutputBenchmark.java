@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time for one of four formatting threads to print a LOG style line into a
+ * shared PrintStream, when the file under it is written on the calling thread
+ * versus by an {@link AsyncOutputStream}. The disk takes a 2 ms pause after
+ * every MB, as writeback does, so the tail latencies show what a formatting
+ * thread, and the socket reads behind it, wait for.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AsyncOutputBenchmark {
+
+  private static final String LINE = "[1234567 890 Packet 41 88 5B CD AB FF FF 00 00 09 12 FC FF 00 00 01 4E 9F "
+      + "1C 2D 3E 4F 50 61 72 83 94]";
+
+  @Param({ "sync", "async" })
+  public String writer;
+
+  private PrintStream out;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    final OutputStream disk = new StallingDisk(1024 * 1024, 2_000_000L);
+    if (writer.equals("async"))
+      out = new PrintStream(new AsyncOutputStream(disk, "bench", OutputOptions.DEFAULT_ASYNC_QUEUE, 1000));
+    else
+      out = new PrintStream(new BufferedOutputStream(disk, AsyncOutputStream.CHUNK_SIZE));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    out.close();
+  }
+
+  @Benchmark
+  public void println() {
+    out.println(LINE);
+  }
+
+  // Discards the data, pausing after every so many bytes.
+  private static final class StallingDisk extends OutputStream {
+    private final long stallEvery;
+    private final long stallNanos;
+    private long written = 0;
+
+    StallingDisk(final long stallEvery, final long stallNanos) {
+      this.stallEvery = stallEvery;
+      this.stallNanos = stallNanos;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      final long before = written / stallEvery;
+      written += len;
+      if (written / stallEvery != before)
+        LockSupport.parkNanos(stallNanos);
+    }
+  }
+}
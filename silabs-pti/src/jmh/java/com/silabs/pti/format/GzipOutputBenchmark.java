@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to gzip 16 MB of LOG style text, by a single GZIPOutputStream versus
+ * {@link ParallelGzipOutputStream}. The compressed output is discarded, so
+ * only compression is measured. Differences show with more than one core.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GzipOutputBenchmark {
+
+  private byte[] text;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    final Random r = new Random(1);
+    final StringBuilder sb = new StringBuilder();
+    while (sb.length() < 16 * 1024 * 1024) {
+      sb.append("[").append(r.nextInt(1000000)).append(" ").append(r.nextInt(100000)).append(" Packet ");
+      for (int i = 0; i < 20 + r.nextInt(40); i++)
+        sb.append(String.format("%02X ", r.nextInt(256)));
+      sb.append("]\n");
+    }
+    text = sb.toString().getBytes(StandardCharsets.US_ASCII);
+  }
+
+  @Benchmark
+  public void gzipOutputStream() throws IOException {
+    try (OutputStream out = new GZIPOutputStream(OutputStream.nullOutputStream(), 64 * 1024)) {
+      writeLines(out);
+    }
+  }
+
+  @Benchmark
+  public void parallelGzip() throws IOException {
+    try (OutputStream out = new ParallelGzipOutputStream(OutputStream.nullOutputStream(), 0)) {
+      writeLines(out);
+    }
+  }
+
+  // In writes of a line or so, as the text formats do.
+  private void writeLines(final OutputStream out) throws IOException {
+    for (int off = 0; off < text.length; off += 100)
+      out.write(text, off, Math.min(100, text.length - off));
+  }
+}
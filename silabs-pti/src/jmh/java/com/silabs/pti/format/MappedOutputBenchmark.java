@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.silabs.na.pcap.LinkType;
+import com.silabs.na.pcap.Pcap;
+
+/**
+ * Time to write a fixed number of frames into a new file, through the buffered
+ * file channel versus memory mapped.
+ *
+ * Each measurement writes a fresh file of the given number of frames, so the
+ * disk space used stays bounded. The dump benchmarks write the frames as they
+ * are, the pcapng ones as enhanced packet blocks.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class MappedOutputBenchmark {
+
+  @Param({ "500000" })
+  public int frames;
+
+  @Param({ "64" })
+  public int mmapChunkMb;
+
+  private byte[][] data;
+  private File file;
+  private OutputStream stream;
+  private PcapngWriter pcapng;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    final Random r = new Random(1);
+    data = new byte[1024][];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = new byte[20 + r.nextInt(180)];
+      r.nextBytes(data[i]);
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void createFile() throws IOException {
+    file = File.createTempFile("bench", ".out");
+  }
+
+  @TearDown(Level.Iteration)
+  public void deleteFile() throws IOException {
+    if (stream != null)
+      stream.close();
+    if (pcapng != null)
+      pcapng.close();
+    stream = null;
+    pcapng = null;
+    file.delete();
+  }
+
+  @Benchmark
+  public void dumpChannel() throws IOException {
+    stream = new ChannelOutputStream(file, false, OutputOptions.defaults());
+    writeDump();
+  }
+
+  @Benchmark
+  public void dumpMapped() throws IOException {
+    stream = new MappedFileOutputStream(file, false, mappedOptions());
+    writeDump();
+  }
+
+  @Benchmark
+  public void pcapngChannel() throws IOException {
+    pcapng = new PcapngWriter(file, OutputOptions.defaults());
+    writePcapng();
+  }
+
+  @Benchmark
+  public void pcapngMapped() throws IOException {
+    pcapng = new PcapngWriter(file, mappedOptions());
+    writePcapng();
+  }
+
+  private OutputOptions mappedOptions() {
+    return OutputOptions.defaults().mmapChunk(mmapChunkMb * 1024L * 1024L);
+  }
+
+  private void writeDump() throws IOException {
+    for (int i = 0; i < frames; i++) {
+      final byte[] d = data[i & 1023];
+      stream.write(d, 0, d.length);
+    }
+    stream.close();
+    stream = null;
+  }
+
+  private void writePcapng() throws IOException {
+    pcapng.writeInterfaceDescriptionBlock(LinkType.USER12, Pcap.RESOLUTION_MICROSECONDS);
+    for (int i = 0; i < frames; i++) {
+      final byte[] d = data[i & 1023];
+      pcapng.writeEnhancedPacketBlock(0, i, d, 0, d.length);
+    }
+    pcapng.close();
+    pcapng = null;
+  }
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.silabs.na.pcap.IPcapOutput;
+import com.silabs.na.pcap.LinkType;
+import com.silabs.na.pcap.Pcap;
+
+/**
+ * Packets per second written to a PCAPNG file, by the java-pcap writer versus
+ * {@link PcapngWriter}.
+ *
+ * Packets are taken from the middle of larger frames, the way the 802.15.4 and
+ * Bluetooth modes trim debug message payloads. The java-pcap writer needs a
+ * copy of each packet, the native writer takes the range.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PcapngWriterBenchmark {
+
+  private static final int PACKETS = 1024;
+
+  @Param({ "127" })
+  public int maxPacketLength;
+
+  private byte[][] frames;
+  private int[] lengths;
+  private File file;
+  private IPcapOutput javaPcap;
+  private PcapngWriter nativeWriter;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    final Random r = new Random(1);
+    frames = new byte[PACKETS][];
+    lengths = new int[PACKETS];
+    for (int i = 0; i < PACKETS; i++) {
+      lengths[i] = 5 + r.nextInt(maxPacketLength - 4);
+      // Debug channel header in front, radio info behind.
+      frames[i] = new byte[lengths[i] + 20];
+      r.nextBytes(frames[i]);
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void open() throws IOException {
+    file = File.createTempFile("bench", ".pcapng");
+    javaPcap = Pcap.openForWriting(file);
+    javaPcap.writeInterfaceDescriptionBlock(LinkType.IEEE802_15_4_NOFCS, Pcap.RESOLUTION_MICROSECONDS);
+    nativeWriter = new PcapngWriter(new File(file.getPath() + ".native"), OutputOptions.defaults());
+    nativeWriter.writeInterfaceDescriptionBlock(LinkType.IEEE802_15_4_NOFCS, Pcap.RESOLUTION_MICROSECONDS);
+  }
+
+  @TearDown(Level.Iteration)
+  public void close() throws IOException {
+    javaPcap.close();
+    nativeWriter.close();
+    file.delete();
+    new File(file.getPath() + ".native").delete();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PACKETS)
+  public void javaPcap() throws IOException {
+    for (int i = 0; i < PACKETS; i++)
+      javaPcap.writeEnhancedPacketBlock(0, i, Arrays.copyOfRange(frames[i], 12, 12 + lengths[i]));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PACKETS)
+  public void pcapngWriter() throws IOException {
+    for (int i = 0; i < PACKETS; i++)
+      nativeWriter.writeEnhancedPacketBlock(0, i, frames[i], 12, lengths[i]);
+  }
+}
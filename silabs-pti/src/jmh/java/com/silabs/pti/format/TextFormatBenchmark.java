@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.silabs.na.pcap.util.ByteArrayUtil;
+import com.silabs.pti.debugchannel.DebugMessage;
+import com.silabs.pti.debugchannel.DebugMessageType;
+import com.silabs.pti.debugchannel.EventType;
+import com.silabs.pti.debugchannel.RadioConfiguration;
+import com.silabs.pti.util.WiresharkUtil;
+
+/**
+ * Cost of writing one message in the LOG, TEXT and RAW formats, against the
+ * String based formatting they used before. Run with -prof gc to see the
+ * bytes allocated per message, gc.alloc.rate.norm, which is zero for the
+ * formats.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TextFormatBenchmark {
+
+  private final PrintStream out = new PrintStream(OutputStream.nullOutputStream());
+  private final LogFileFormat log = new LogFileFormat();
+  private final TextFileFormat text = new TextFileFormat();
+  private final RawFileFormat raw = new RawFileFormat();
+  private byte[] frame;
+  private DebugMessage dm;
+  private EventType type;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    // A 40 byte EFR packet in a version 2 frame.
+    frame = new byte[11 + 40];
+    new Random(1).nextBytes(frame);
+    frame[0] = 2;
+    frame[1] = 0;
+    final int t = DebugMessageType.PACKET_TRACE_EFR_RX.value();
+    frame[8] = (byte) t;
+    frame[9] = (byte) (t >> 8);
+    dm = DebugMessage.make("", frame, 0);
+    type = EventType.fromDebugMessageCode(dm.debugType());
+  }
+
+  @Benchmark
+  public boolean log() throws IOException {
+    return log.formatDebugMessage(out, "10.0.0.1", dm, type);
+  }
+
+  @Benchmark
+  public void logStrings() {
+    final int length = dm.contentLength();
+    out.println("[" + dm.networkTime() + " " + RadioConfiguration.FIFTEENFOUR.microsecondDuration(length) + " "
+        + type.value() + " " + type.name() + "] [10.0.0.1] ["
+        + ByteArrayUtil.formatByteArray(dm.payloadArray(), dm.payloadOffset(), length, true, true) + "]");
+  }
+
+  @Benchmark
+  public boolean text() throws IOException {
+    return text.formatDebugMessage(out, "10.0.0.1", dm, type);
+  }
+
+  @Benchmark
+  public void textStrings() {
+    final int[] drops = WiresharkUtil.dropBytesFromBeginningEnd(type);
+    out.println(WiresharkUtil.printText2Pcap(dm.networkTime(), dm.payloadArray(), dm.payloadOffset() + drops[0],
+                                             dm.contentLength() - drops[0] - drops[1]));
+  }
+
+  @Benchmark
+  public boolean raw() throws IOException {
+    return raw.formatRawBytes(out, 0, frame, 0, frame.length);
+  }
+
+  @Benchmark
+  public void rawStrings() {
+    out.println(RawFileFormat.RAW_PREFIX + ByteArrayUtil.formatByteArray(frame, 0, frame.length, true, true)
+        + RawFileFormat.RAW_SUFFIX);
+  }
+}
@@ -28,8 +28,11 @@ import java.util.stream.Collectors;
 
 import com.silabs.pti.adapter.AdapterPort;
 import com.silabs.pti.adapter.IConnectivityLogger;
+import com.silabs.pti.debugchannel.EnergyCorrelator;
+import com.silabs.pti.debugchannel.TimeOrderedMerger;
 import com.silabs.pti.filter.CliDebugMessageFilter;
 import com.silabs.pti.format.FileFormat;
+import com.silabs.pti.format.OutputOptions;
 import com.silabs.pti.log.PtiSeverity;
 import com.silabs.pti.util.MiscUtil;
 
@@ -62,6 +65,21 @@ public class CommandLine implements IConnectivityLogger {
   private static final String FILTER = "-filter=";
   private static final String FILTER_OR = "-orFilter=";
   private static final String FILTER_AND = "-andFilter=";
+  private static final String IO_PROCESSORS = "-ioProcessors=";
+  private static final String FLUSH_MS = "-flushMs=";
+  private static final String ASYNC_QUEUE = "-asyncQueue=";
+  private static final String MMAP = "-mmap";
+  private static final String MMAP_CHUNK_MB = "-mmapChunkMb=";
+  private static final String ROTATE_SIZE = "-rotateSize=";
+  private static final String ROTATE_TIME = "-rotateTime=";
+  private static final String KEEP_FILES = "-keepFiles=";
+  private static final String COMPRESS = "-compress=";
+  private static final String ENERGY_CSV = "-energyCsv=";
+  private static final String ENERGY_LOOK_BACK = "-energyLookBackMs=";
+  private static final String TIME_ORDER = "-timeOrder";
+  private static final String MAX_LATENESS = "-maxLatenessMs=";
+  private static final String SEQUENCE_MARKERS = "-sequenceMarkers";
+  private static final String METRICS = "-metricsMs=";
 
   private List<String> hostnames = new ArrayList<>();
   private String output = null;
@@ -83,6 +101,14 @@ public class CommandLine implements IConnectivityLogger {
   private List<Integer> testPort = new ArrayList<>();
   private boolean testMode = false;
   private CliDebugMessageFilter filter = null;
+  private int ioProcessors = -1;
+  private final OutputOptions outputOptions = OutputOptions.defaults();
+  private String energyCsv = null;
+  private long energyLookBackUs = EnergyCorrelator.DEFAULT_LOOK_BACK_US;
+  private boolean timeOrder = false;
+  private long maxLatenessUs = TimeOrderedMerger.DEFAULT_MAX_LATENESS_US;
+  private boolean sequenceMarkers = false;
+  private int metricsMs = 0;
 
   private boolean shouldExit = false;
   private int exitCode = -1;
@@ -172,6 +198,105 @@ public class CommandLine implements IConnectivityLogger {
         } catch (final Exception e) {
           usage(1);
         }
+      } else if (arg.startsWith(IO_PROCESSORS)) {
+        try {
+          ioProcessors = MiscUtil.parseInt(arg.substring(IO_PROCESSORS.length()));
+          if (ioProcessors < 1)
+            throw new NumberFormatException();
+        } catch (final NumberFormatException pe) {
+          usage(1);
+          return;
+        }
+      } else if (arg.startsWith(FLUSH_MS)) {
+        try {
+          outputOptions.flushMs(MiscUtil.parseInt(arg.substring(FLUSH_MS.length())));
+        } catch (final IllegalArgumentException iae) {
+          usage(1);
+          return;
+        }
+      } else if (arg.startsWith(ASYNC_QUEUE)) {
+        try {
+          outputOptions.asyncQueue(MiscUtil.parseInt(arg.substring(ASYNC_QUEUE.length())));
+        } catch (final IllegalArgumentException iae) {
+          usage(1);
+          return;
+        }
+      } else if (arg.equals(MMAP)) {
+        if (outputOptions.mmapChunk() == 0)
+          outputOptions.mmapChunk(OutputOptions.DEFAULT_MMAP_CHUNK);
+      } else if (arg.startsWith(MMAP_CHUNK_MB)) {
+        try {
+          final int mb = MiscUtil.parseInt(arg.substring(MMAP_CHUNK_MB.length()));
+          if (mb < 1)
+            throw new NumberFormatException();
+          outputOptions.mmapChunk(mb * 1024L * 1024L);
+        } catch (final IllegalArgumentException iae) {
+          usage(1);
+          return;
+        }
+      } else if (arg.startsWith(ROTATE_SIZE)) {
+        try {
+          outputOptions.rotateBytes(MiscUtil.parseInt(arg.substring(ROTATE_SIZE.length())) * 1024L * 1024L);
+        } catch (final IllegalArgumentException iae) {
+          usage(1);
+          return;
+        }
+      } else if (arg.startsWith(ROTATE_TIME)) {
+        try {
+          outputOptions.rotateMs(MiscUtil.parseInt(arg.substring(ROTATE_TIME.length())) * 1000L);
+        } catch (final IllegalArgumentException iae) {
+          usage(1);
+          return;
+        }
+      } else if (arg.startsWith(KEEP_FILES)) {
+        try {
+          outputOptions.keepFiles(MiscUtil.parseInt(arg.substring(KEEP_FILES.length())));
+        } catch (final IllegalArgumentException iae) {
+          usage(1);
+          return;
+        }
+      } else if (arg.startsWith(COMPRESS)) {
+        try {
+          outputOptions.compression(OutputOptions.Compression.fromName(arg.substring(COMPRESS.length())));
+        } catch (final IllegalArgumentException iae) {
+          usage(1);
+          return;
+        }
+      } else if (arg.startsWith(ENERGY_CSV)) {
+        energyCsv = arg.substring(ENERGY_CSV.length());
+      } else if (arg.startsWith(ENERGY_LOOK_BACK)) {
+        try {
+          final int ms = MiscUtil.parseInt(arg.substring(ENERGY_LOOK_BACK.length()));
+          if (ms < 1)
+            throw new NumberFormatException();
+          energyLookBackUs = ms * 1000L;
+        } catch (final IllegalArgumentException iae) {
+          usage(1);
+          return;
+        }
+      } else if (arg.equals(TIME_ORDER)) {
+        timeOrder = true;
+      } else if (arg.equals(SEQUENCE_MARKERS)) {
+        sequenceMarkers = true;
+      } else if (arg.startsWith(METRICS)) {
+        try {
+          metricsMs = MiscUtil.parseInt(arg.substring(METRICS.length()));
+          if (metricsMs < 1)
+            throw new NumberFormatException();
+        } catch (final IllegalArgumentException iae) {
+          usage(1);
+          return;
+        }
+      } else if (arg.startsWith(MAX_LATENESS)) {
+        try {
+          final int ms = MiscUtil.parseInt(arg.substring(MAX_LATENESS.length()));
+          if (ms < 1)
+            throw new NumberFormatException();
+          maxLatenessUs = ms * 1000L;
+        } catch (final IllegalArgumentException iae) {
+          usage(1);
+          return;
+        }
       } else if (arg.startsWith(FILTER)) {
         try {
           if (filter == null)
@@ -362,6 +487,37 @@ public class CommandLine implements IConnectivityLogger {
     System.out.println("  " + ZERO_TIME_THRESHOLD + " - zero time threshold (micro-sec).");
     System.out.println("  " + DISCRETE_NODE_CAPTURE
         + " - each node stream gets its own log file. Each filename is \"-out\" option combined with \"_$ip\" suffix. Time Sync is disabled. ");
+    System.out.println("  " + IO_PROCESSORS
+        + "<COUNT> - number of I/O processor threads shared by all adapter connections. Default is number of CPUs + 1.");
+    System.out.println("  " + FLUSH_MS + "<MS> - write buffered output to files at least every MS milliseconds. 0 writes through. Default is "
+        + OutputOptions.DEFAULT_FLUSH_MS + ".");
+    System.out.println("  " + ASYNC_QUEUE
+        + "<CHUNKS> - number of 64k chunks that may wait for the writer thread of each output file. 0 writes on the capturing thread. Default is "
+        + OutputOptions.DEFAULT_ASYNC_QUEUE + ".");
+    System.out.println("  " + MMAP
+        + " - write output files through memory mapping, growing them in large chunks. Meant for very long captures.");
+    System.out.println("  " + MMAP_CHUNK_MB + "<MB> - size of the chunks memory mapped files grow by. Implies " + MMAP
+        + ". Default is " + OutputOptions.DEFAULT_MMAP_CHUNK / (1024 * 1024) + ".");
+    System.out.println("  " + ROTATE_SIZE
+        + "<MB> - start a new output file when the current one reaches MB megabytes. Files get a sequence number added to their name.");
+    System.out.println("  " + ROTATE_TIME + "<SECONDS> - start a new output file every SECONDS seconds.");
+    System.out.println("  " + KEEP_FILES + "<COUNT> - with " + ROTATE_SIZE + " or " + ROTATE_TIME
+        + ", keep only the COUNT most recent files. Default keeps all.");
+    System.out.println("  " + COMPRESS
+        + "gzip - gzip compress output files, using all cores, and add .gz to their names. Standard tools read them as usual.");
+    System.out.println("  " + ENERGY_CSV
+        + "<FILE> - write a CSV line for each radio packet, with the AEM charge and energy of the adapter during the packet.");
+    System.out.println("  " + ENERGY_LOOK_BACK + "<MS> - how long AEM samples are kept, and packets wait for them, for "
+        + ENERGY_CSV + ". Default is " + EnergyCorrelator.DEFAULT_LOOK_BACK_US / 1000 + ".");
+    System.out.println("  " + TIME_ORDER
+        + " - write the messages of all adapters in network time order, rather than in the order they arrive.");
+    System.out.println("  " + MAX_LATENESS + "<MS> - with " + TIME_ORDER
+        + ", how long messages may wait for slower adapters. Later ones are written out of order. Default is "
+        + TimeOrderedMerger.DEFAULT_MAX_LATENESS_US / 1000 + ".");
+    System.out.println("  " + SEQUENCE_MARKERS
+        + " - write an out of sequence marker ahead of each message that follows lost ones. Not for raw byte formats.");
+    System.out.println("  " + METRICS
+        + "<MS> - every MS milliseconds, log rates, stage latencies and queue depths of each adapter and output.");
     System.out.println("  " + Main.PROPERTIES
         + "<FILE> - specify path to file, where each line in file has a single entry in format of argument=value. "
         + "On Windows, path separators need to be escaped.");
@@ -451,4 +607,44 @@ public class CommandLine implements IConnectivityLogger {
     return testMode;
   }
 
+  /** Returns number of shared I/O processors, or -1 if not specified. */
+  public int ioProcessors() {
+    return ioProcessors;
+  }
+
+  /** Returns the file to write packet energies into, or null. */
+  public String energyCsv() {
+    return energyCsv;
+  }
+
+  /** Returns how long AEM samples are kept for energy correlation, in us. */
+  public long energyLookBackUs() {
+    return energyLookBackUs;
+  }
+
+  /** Returns true if messages are merged into time order. */
+  public boolean timeOrder() {
+    return timeOrder;
+  }
+
+  /** Returns how long messages may wait to be merged into time order, in us. */
+  public long maxLatenessUs() {
+    return maxLatenessUs;
+  }
+
+  /** Returns true if gaps in sequence numbers are marked in the output. */
+  public boolean sequenceMarkers() {
+    return sequenceMarkers;
+  }
+
+  /** Returns the period of the metrics summary in ms, or 0 if there is none. */
+  public int metricsMs() {
+    return metricsMs;
+  }
+
+  /** Returns the options for file outputs. */
+  public OutputOptions outputOptions() {
+    return outputOptions;
+  }
+
 }
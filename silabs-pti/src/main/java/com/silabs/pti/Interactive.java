@@ -317,7 +317,7 @@ public class Interactive {
       try {
         cliPort = MiscUtil.parseInt(port[0]);
         if (cliConnection != null) {
-          cliConnection.close();
+          cliConnection.dispose();
           cliConnection = null;
         }
       } catch (final NumberFormatException nfe) {
@@ -376,7 +376,7 @@ public class Interactive {
   @Cli(help = "Reconnects to the same host as previous connect command.")
   public void reconnect() {
     if (debugConnection != null) {
-      debugConnection.close();
+      debugConnection.dispose();
       debugConnection = null;
     }
     if (host == null) {
@@ -395,7 +395,7 @@ public class Interactive {
   @Cli(help = "Connects to a specified hostname or IP address.", args = "HOSTNAME")
   public void connect(final String... s) {
     if (debugConnection != null) {
-      debugConnection.close();
+      debugConnection.dispose();
       debugConnection = null;
     }
 
@@ -419,18 +419,19 @@ public class Interactive {
     if (debugConnection != null) {
       if (connectionListener != null) {
         debugConnection.removeConnectionListener(connectionListener);
+        connectionListener.close();
         connectionListener = null;
       }
       if (captureOutputMap != null) {
         captureOutputMap.closeAndClear();
         captureOutputMap = null;
       }
-      debugConnection.close();
+      debugConnection.dispose();
       debugConnection = null;
     }
 
     if (cliConnection != null) {
-      cliConnection.close();
+      cliConnection.dispose();
       cliConnection = null;
     }
 
@@ -481,6 +482,7 @@ public class Interactive {
         captureOutputMap.closeAndClear();
         captureOutputMap = null;
         debugConnection.removeConnectionListener(connectionListener);
+        connectionListener.close();
         connectionListener = null;
       } catch (final NullPointerException e) {
         System.err.println("Stream already closed");
@@ -22,7 +22,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import com.silabs.pti.adapter.Adapter;
@@ -33,17 +35,23 @@ import com.silabs.pti.adapter.CharacterCollector;
 import com.silabs.pti.adapter.DebugChannelFramer;
 import com.silabs.pti.adapter.IConnection;
 import com.silabs.pti.adapter.IFramer;
+import com.silabs.pti.adapter.MetricsRegistry;
+import com.silabs.pti.adapter.MinaConnectorRegistry;
 import com.silabs.pti.adapter.TimeSync;
 import com.silabs.pti.adapter.TimeSynchronizer;
 import com.silabs.pti.adapter.UnframedConnectionListener;
 import com.silabs.pti.debugchannel.DebugMessageConnectionListener;
+import com.silabs.pti.debugchannel.EnergyCorrelator;
 import com.silabs.pti.debugchannel.TextConnectionListener;
+import com.silabs.pti.debugchannel.TimeOrderedMerger;
 import com.silabs.pti.discovery.DiscoveryUtil;
 import com.silabs.pti.discovery.PrintingDiscoveryListener;
 import com.silabs.pti.extcap.Extcap;
 import com.silabs.pti.format.IDebugChannelExportFormat;
 import com.silabs.pti.format.IDebugChannelExportOutput;
+import com.silabs.pti.format.RotatingOutput;
 import com.silabs.pti.log.PtiLog;
+import com.silabs.pti.log.PtiSeverity;
 import com.silabs.pti.util.LineTerminator;
 
 /**
@@ -91,6 +99,8 @@ public class Main {
                                     cli.driftCorrection(),
                                     cli.driftCorrectionThreshold(),
                                     cli.zeroTimeThreshold());
+    if (cli.ioProcessors() > 0)
+      MinaConnectorRegistry.setProcessorCount(cli.ioProcessors());
     adapterConnector = new AdapterSocketConnector();
   }
 
@@ -149,8 +159,11 @@ public class Main {
     final String outputFilename = cli.output();
     UnframedConnectionListener<T> dl = null;
     final HashMap<String, List<IConnection>> connections = new HashMap<>();
+    final Map<String, DebugMessageConnectionListener<T>> listeners = new LinkedHashMap<>();
 
     OutputMap<T> output = null;
+    EnergyCorrelator energyCorrelator = null;
+    TimeOrderedMerger<T> merger = null;
 
     // connections / attaching listeners
     if (!cli.fileFormat().format().isUsingDebugMessages()) {
@@ -158,7 +171,10 @@ public class Main {
         throw new IOException("Need to specify a file with DUMP file format.");
       }
 
-      dl = new UnframedConnectionListener(new File(outputFilename), cli.fileFormat().format());
+      dl = new UnframedConnectionListener(RotatingOutput.open(cli.fileFormat().format(),
+                                                              new File(outputFilename),
+                                                              cli.outputOptions()),
+                                          cli.fileFormat().format());
 
       for (final String host : cli.hostnames()) {
         final IConnection c = adapterConnector.createConnection(host, AdapterPort.DEBUG.defaultPort(), cli);
@@ -167,6 +183,15 @@ public class Main {
       }
     } else {
       output = configOutputFiles(format, outputFilename);
+      if (cli.energyCsv() != null)
+        energyCorrelator = EnergyCorrelator.open(new File(cli.energyCsv()),
+                                                 cli.energyLookBackUs(),
+                                                 cli.outputOptions());
+      if (cli.timeOrder()) {
+        merger = new TimeOrderedMerger<>(format, cli.maxLatenessUs());
+        for (final String host : cli.hostnames())
+          merger.register(host);
+      }
 
       String timeServer = null;
       List<IConnection> adminConnections = new ArrayList<>();
@@ -203,6 +228,10 @@ public class Main {
           if (cli.filter() != null) {
             dml.setFilter(cli.filter());
           }
+          dml.setEnergyCorrelator(energyCorrelator);
+          dml.setMerger(merger);
+          dml.setSequenceMarkers(cli.sequenceMarkers());
+          listeners.put(ip, dml);
           debug.addConnectionListener(dml);
           debug.connect();
           debugConnections.add(debug);
@@ -232,12 +261,20 @@ public class Main {
 
       // do not maintain open ADMIN port connections.
       for (final IConnection c : adminConnections) {
-        c.close();
+        c.dispose();
       }
       adminConnections.clear();
       adminConnections = null;
     }
 
+    if (cli.metricsMs() > 0)
+      MetricsRegistry.get().startReporting(cli, cli.metricsMs());
+
+    cli.log(PtiSeverity.INFO,
+            "Live I/O threads: " + MinaConnectorRegistry.liveIoThreads() + " (" + MinaConnectorRegistry.processorCount()
+                + " shared processors)",
+            null);
+
     // sleep
     try {
       if (cli.hasTimeLimit()) {
@@ -253,11 +290,38 @@ public class Main {
     if (dl != null) {
       dl.close();
     }
-
+    MetricsRegistry.get().stopReporting();
+
+    if (merger != null) {
+      merger.close();
+      if (merger.lateMessages() > 0)
+        cli.log(PtiSeverity.INFO,
+                merger.lateMessages() + " messages came later than " + cli.maxLatenessUs() / 1000
+                    + " ms and were written out of time order.",
+                null);
+    }
     if (output != null) {
       output.closeAndClear();
     }
+    for (final Map.Entry<String, DebugMessageConnectionListener<T>> e : listeners.entrySet()) {
+      final DebugMessageConnectionListener<T> l = e.getValue();
+      if (l.sequenceGaps() > 0)
+        cli.log(PtiSeverity.WARNING,
+                e.getKey() + ": " + l.lostMessages() + " messages lost in " + l.sequenceGaps() + " sequence gaps.",
+                null);
+    }
     closeConnections(connections);
+    // Only now that nothing arrives anymore.
+    for (final DebugMessageConnectionListener<T> l : listeners.values()) {
+      l.close();
+    }
+    if (energyCorrelator != null) {
+      energyCorrelator.close();
+      if (energyCorrelator.unknownPhyPackets() > 0)
+        cli.log(PtiSeverity.INFO,
+                energyCorrelator.unknownPhyPackets() + " packets on an unknown PHY were left out of the energy CSV.",
+                null);
+    }
     return 0;
   }
 
@@ -301,15 +365,17 @@ public class Main {
       if (cli.testMode()) {
         for (final Integer port : cli.testPort()) {
           final String f = makeCaptureFilenames(outFilename, port.toString());
-          output.put("localhost:" + port, format.createOutput(new File(f), false));
+          output.put("localhost:" + port, RotatingOutput.open(format, new File(f), cli.outputOptions()));
         }
       } else if (cli.discreteNodeCapture()) {
         for (final String ip : cli.hostnames()) {
           final String f = makeCaptureFilenames(outFilename, ip.toString());
-          output.put(ip, format.createOutput(new File(f), false));
+          output.put(ip, RotatingOutput.open(format, new File(f), cli.outputOptions()));
         }
       } else { // capture all node traffic into 1 file.
-        final IDebugChannelExportOutput<T> printStream = format.createOutput(new File(cli.output()), false);
+        final IDebugChannelExportOutput<T> printStream = RotatingOutput.open(format,
+                                                                             new File(cli.output()),
+                                                                             cli.outputOptions());
         for (final String ip : cli.hostnames()) {
           output.put(ip, printStream);
         }
@@ -340,7 +406,7 @@ public class Main {
       for (final String ip : connections.keySet()) {
         final List<IConnection> list = connections.get(ip);
         for (final IConnection c : list) {
-          c.close();
+          c.dispose();
         }
         list.clear();
       }
@@ -368,7 +434,7 @@ public class Main {
       System.out.println(cc.textAndClean());
     }
 
-    c.close();
+    c.dispose();
     return 0;
   }
 
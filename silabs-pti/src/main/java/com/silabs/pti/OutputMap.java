@@ -14,10 +14,12 @@
 package com.silabs.pti;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.silabs.pti.debugchannel.OriginatorRegistry;
 import com.silabs.pti.format.IDebugChannelExportOutput;
 import com.silabs.pti.log.PtiLog;
 
@@ -30,6 +32,8 @@ import com.silabs.pti.log.PtiLog;
 public class OutputMap<T> {
 
   private final Map<String, IDebugChannelExportOutput<T>> outputMap;
+  // Same outputs, indexed by originator id, for the per message lookup.
+  private volatile IDebugChannelExportOutput<?>[] byId = new IDebugChannelExportOutput<?>[0];
 
   public OutputMap() {
     this.outputMap = new HashMap<>();
@@ -42,7 +46,19 @@ public class OutputMap<T> {
    * @return
    */
   public IDebugChannelExportOutput<T> output(final String originator) {
-    return outputMap.get(originator);
+    return output(OriginatorRegistry.find(originator));
+  }
+
+  /**
+   * Retrieves the output from the map by {@link OriginatorRegistry} id.
+   *
+   * @param originator
+   * @return output, or null if there is none for the originator.
+   */
+  @SuppressWarnings("unchecked")
+  public IDebugChannelExportOutput<T> output(final int originator) {
+    final IDebugChannelExportOutput<?>[] a = byId;
+    return originator >= 0 && originator < a.length ? (IDebugChannelExportOutput<T>) a[originator] : null;
   }
 
   /**
@@ -52,8 +68,12 @@ public class OutputMap<T> {
    * @param output
    */
   @SuppressWarnings("resource")
-  public void put(final String originator, final IDebugChannelExportOutput<T> output) {
+  public synchronized void put(final String originator, final IDebugChannelExportOutput<T> output) {
     this.outputMap.put(originator, output);
+    final int id = OriginatorRegistry.id(originator);
+    final IDebugChannelExportOutput<?>[] a = id < byId.length ? byId.clone() : Arrays.copyOf(byId, id + 1);
+    a[id] = output;
+    byId = a;
   }
 
   /**
@@ -77,5 +97,6 @@ public class OutputMap<T> {
       }
     }
     outputMap.clear();
+    byId = new IDebugChannelExportOutput<?>[0];
   }
 }
@@ -47,11 +47,24 @@ public class Adapter {
       return new BufferedNioConnection(host, port, logger);
     case DUAL_THREAD_BUFFERED:
       return new DualThreadBufferedConnection(host, port, logger);
+    case MULTIPLEXED_NIO:
+      return new MultiplexedNioConnection(host, port, logger);
     default:
       throw new IllegalArgumentException("Must provide valid connection type.");
     }
   }
 
+  /**
+   * Sets the number of shared selector threads used by
+   * {@link ConnectionType#MULTIPLEXED_NIO} connections. Default is 1. Must be
+   * called before the first such connection is connected.
+   *
+   * @param count number of selector threads
+   */
+  public static void setMultiplexedSelectorCount(final int count) {
+    NioSelectorGroup.setLoopCount(count);
+  }
+
   /**
    * Creates instanceof the IBackchannel.
    *
@@ -70,4 +83,26 @@ public class Adapter {
     return new Backchannel(originatorId, host, portmapper, enabler, logger, debugConnectionType);
   }
 
+  /**
+   * Creates instanceof the IBackchannel, with the connection type of the
+   * non-debug ports also specified.
+   *
+   * @param originatorId
+   * @param host
+   * @param portmapper
+   * @param enabler
+   * @param debugConnectionType connection type for the debug port
+   * @param connectionType      connection type for all other ports
+   * @return IBackchannel
+   */
+  public static IBackchannel createBackchannel(final String originatorId,
+                                               final String host,
+                                               final IBackchannelPortMapper portmapper,
+                                               final IConnectionEnabler enabler,
+                                               final IConnectivityLogger logger,
+                                               final ConnectionType debugConnectionType,
+                                               final ConnectionType connectionType) {
+    return new Backchannel(originatorId, host, portmapper, enabler, logger, debugConnectionType, connectionType);
+  }
+
 }
@@ -13,11 +13,7 @@
  ******************************************************************************/
 package com.silabs.pti.adapter;
 
-import java.nio.charset.Charset;
-
 import org.apache.mina.core.service.IoConnector;
-import org.apache.mina.filter.codec.ProtocolCodecFilter;
-import org.apache.mina.transport.socket.nio.NioSocketConnector;
 
 /**
  * A wrapper class that wraps an apache mina IO connector into
@@ -27,28 +23,35 @@ import org.apache.mina.transport.socket.nio.NioSocketConnector;
  */
 public class AdapterSocketConnector {
 
+  private IoConnector connector = null;
+  private boolean disposed = false;
+
   /**
-   * The <code>timeout</code> field is used for timing out socket connection
-   * requests and waiting for message responses. Units are milliseconds. Default
-   * is 2000.
+   * Attaches to the process-wide connector from {@link MinaConnectorRegistry}
+   * once the first connection is made. Call {@link #dispose()} when done.
    */
-  private static final int framingTimeout = 2000;
-
-  private final IoConnector connector;
-
   public AdapterSocketConnector() {
-    this.connector = new NioSocketConnector();
-    connector.setConnectTimeoutMillis(framingTimeout);
-    connector.getFilterChain().addLast("codec", new ProtocolCodecFilter(new PtiCodecFactory(Charset.forName("UTF-8"))));
-    connector.setHandler(new ConnectionSessionHandler());
   }
 
-  public IoConnector ioConnector() {
+  public synchronized IoConnector ioConnector() {
+    if (connector == null) {
+      if (disposed)
+        throw new IllegalStateException("Connector already disposed.");
+      connector = MinaConnectorRegistry.acquire();
+    }
     return connector;
   }
 
-  public void dispose() {
-    connector.dispose();
+  /**
+   * Detaches from the shared connector. The connector itself is disposed once
+   * nobody uses it any more.
+   */
+  public synchronized void dispose() {
+    if (disposed)
+      return;
+    disposed = true;
+    if (connector != null)
+      MinaConnectorRegistry.release();
   }
 
   /**
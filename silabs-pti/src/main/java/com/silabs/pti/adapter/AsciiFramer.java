@@ -15,8 +15,8 @@
 package com.silabs.pti.adapter;
 
 import java.nio.charset.Charset;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.function.Consumer;
 
 import com.silabs.pti.util.LineTerminator;
 
@@ -31,7 +31,8 @@ public class AsciiFramer implements ILineTerminatingFramer {
   private LineTerminator lineTerminator;
   private static final String CHARSET = "US-ASCII";
 
-  private final List<Byte> message = new ArrayList<>();
+  private byte[] message = new byte[256];
+  private int messageLength = 0;
 
   private boolean ignoreNewline = false;
   private Charset cs;
@@ -59,27 +60,66 @@ public class AsciiFramer implements ILineTerminatingFramer {
     // The right thing to do here is to check nextByte against toBytes(NEWLINE)
     // but that seems like an excessive amount of extra work.
     if (nextByte == '\r' || nextByte == '\n') {
-      byte[] ints = new byte[message.size()];
-      for (int i = 0; i < ints.length; i++)
-        ints[i] = message.get(i);
-      message.clear();
-      return ints;
+      return takeMessage();
     }
-    message.add(nextByte);
+    append(nextByte);
     return null;
   }
 
+  /**
+   * Bulk version: scans for line terminators and copies the text between them
+   * in one go.
+   */
+  @Override
+  public void assembleMessages(final byte[] buf, final int offset, final int len, final Consumer<byte[]> consumer) {
+    final int end = offset + len;
+    int i = offset;
+    while (i < end) {
+      if (ignoreNewline) {
+        ignoreNewline = false;
+        if (buf[i] == '\n') {
+          i++;
+          continue;
+        }
+      }
+      int j = i;
+      while (j < end && buf[j] != '\r' && buf[j] != '\n')
+        j++;
+      append(buf, i, j - i);
+      if (j == end)
+        return;
+      ignoreNewline = (buf[j] == '\r');
+      consumer.accept(takeMessage());
+      i = j + 1;
+    }
+  }
+
   @Override
   public byte[] flushMessage() {
-    if (message.size() == 0) {
+    if (messageLength == 0) {
       // Don't return an empty message when flushing.
       return null;
     }
-    byte[] ints = new byte[message.size()];
-    for (int i = 0; i < ints.length; i++)
-      ints[i] = message.get(i);
-    message.clear();
-    return ints;
+    return takeMessage();
+  }
+
+  private void append(final byte b) {
+    if (messageLength == message.length)
+      message = Arrays.copyOf(message, message.length * 2);
+    message[messageLength++] = b;
+  }
+
+  private void append(final byte[] buf, final int offset, final int len) {
+    if (messageLength + len > message.length)
+      message = Arrays.copyOf(message, Math.max(message.length * 2, messageLength + len));
+    System.arraycopy(buf, offset, message, messageLength, len);
+    messageLength += len;
+  }
+
+  private byte[] takeMessage() {
+    final byte[] result = Arrays.copyOf(message, messageLength);
+    messageLength = 0;
+    return result;
   }
 
   @Override
@@ -66,6 +66,23 @@ public class Backchannel implements IBackchannel {
               final IConnectionEnabler enabler,
               final IConnectivityLogger logger,
               final ConnectionType debugConnectionType) {
+    this(originatorId, host, portmapper, enabler, logger, debugConnectionType, ConnectionType.CLASSIC);
+  }
+
+  /**
+   * Constructs a BackChannel object with the given connection types, but does
+   * not attempt to connect the sockets.
+   *
+   * @param debugConnectionType connection type used for the debug port.
+   * @param connectionType      connection type used for all other ports.
+   */
+  Backchannel(final String originatorId,
+              final String host,
+              final IBackchannelPortMapper portmapper,
+              final IConnectionEnabler enabler,
+              final IConnectivityLogger logger,
+              final ConnectionType debugConnectionType,
+              final ConnectionType connectionType) {
     this.portMapper = portmapper;
     this.enabler = enabler;
     this.logger = logger;
@@ -80,7 +97,7 @@ public class Backchannel implements IBackchannel {
         if (p == AdapterPort.DEBUG) {
           con = Adapter.createConnection(debugConnectionType, host, port, logger);
         } else {
-          con = Adapter.createConnection(host, port, logger);
+          con = Adapter.createConnection(connectionType, host, port, logger);
         }
 
         connections[p.ordinal()] = con;
@@ -15,8 +15,11 @@
 package com.silabs.pti.adapter;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.silabs.pti.log.PtiLog;
 import com.silabs.pti.log.PtiSeverity;
@@ -50,12 +53,35 @@ abstract class BaseConnection implements IDebugConnection {
   private long resumeTime = -1;
 
   private final ConnectivityStats stats;
+  // Registered for the life of the connection, removed in dispose.
+  private final LongAdder bytesMetric;
+  private final LongAdder framesMetric;
+  private final Histogram deframeMetric;
+  // Time spent in listeners during the current read, so that it can be taken
+  // out of the deframe time.
+  private long listenerNanos = 0;
+
+  // Used to bring data out of direct buffers.
+  private byte[] scratch = new byte[0];
 
   protected BaseConnection(final String host, final int port, final IConnectivityLogger logger) {
     this.host = host;
     this.port = port;
     this.logger = logger;
     this.stats = new ConnectivityStats(logger, host + ":" + port);
+    final MetricsRegistry metrics = MetricsRegistry.get();
+    this.bytesMetric = metrics.counter(host + ":" + port + ".bytes");
+    this.framesMetric = metrics.counter(host + ":" + port + ".frames");
+    this.deframeMetric = metrics.histogram(host + ":" + port + ".deframe");
+  }
+
+  @Override
+  public void dispose() {
+    close();
+    final MetricsRegistry metrics = MetricsRegistry.get();
+    metrics.removeCounter(host + ":" + port + ".bytes", bytesMetric);
+    metrics.removeCounter(host + ":" + port + ".frames", framesMetric);
+    metrics.removeHistogram(host + ":" + port + ".deframe", deframeMetric);
   }
 
   @Override
@@ -162,6 +188,8 @@ abstract class BaseConnection implements IDebugConnection {
       }
     }
 
+    framesMetric.increment();
+    final long start = System.nanoTime();
     synchronized (connectionListeners) {
       for (IConnectionListener l : connectionListeners) {
         try {
@@ -171,6 +199,7 @@ abstract class BaseConnection implements IDebugConnection {
         }
       }
     }
+    listenerNanos += System.nanoTime() - start;
   }
 
   protected final void reportProblem(final String msg, final Exception e) {
@@ -180,23 +209,57 @@ abstract class BaseConnection implements IDebugConnection {
   }
 
   protected final void processIncomingData(final long readTime, final int readCount, final byte[] readBytes) {
+    processIncomingData(readTime, readBytes, 0, readCount);
+  }
+
+  /**
+   * Processes the remaining bytes of the buffer, without consuming them. Heap
+   * buffers are processed in place. Anything else is copied into a scratch
+   * array that is reused between reads.
+   */
+  protected final void processIncomingData(final long readTime, final ByteBuffer data) {
+    final int count = data.remaining();
+    if (data.hasArray()) {
+      processIncomingData(readTime, data.array(), data.arrayOffset() + data.position(), count);
+    } else {
+      if (scratch.length < count)
+        scratch = new byte[Math.max(count, 2 * scratch.length)];
+      data.duplicate().get(scratch, 0, count);
+      processIncomingData(readTime, scratch, 0, count);
+    }
+  }
+
+  /**
+   * Processes a range of bytes. The array is only used for the duration of the
+   * call, so callers are free to reuse it afterwards.
+   */
+  protected final void processIncomingData(final long readTime,
+                                           final byte[] readBytes,
+                                           final int offset,
+                                           final int readCount) {
 
     stats.recordData(readTime, readCount);
+    bytesMetric.add(readCount);
     synchronized (characterListeners) {
       for (ICharacterListener l : characterListeners) {
-        l.received(readBytes, 0, readCount);
+        if (l.requiresCopy())
+          l.received(Arrays.copyOfRange(readBytes, offset, offset + readCount), 0, readCount);
+        else
+          l.received(readBytes, offset, readCount);
       }
     }
+    listenerNanos = 0;
+    final long start = System.nanoTime();
     try {
-      for (int i = 0; i < readCount; i++) {
-        byte[] messageBytes = incomingFramer.assembleMessage(readBytes[i]);
-        if (messageBytes != null)
-          processMessage(readTime, messageBytes);
-      }
+      incomingFramer.assembleMessages(readBytes,
+                                      offset,
+                                      readCount,
+                                      messageBytes -> processMessage(readTime, messageBytes));
     } catch (Exception e) {
       logError("Framing error.", e);
       reportProblem("Error assembling data.", e);
     }
+    deframeMetric.record(System.nanoTime() - start - listenerNanos);
   }
 
   /**
@@ -64,17 +64,15 @@ public class BufferedNioConnection extends BaseConnection {
             if (ret > 0) {
               if (selector.selectedKeys().contains(readKey)) {
                 // We can read:
-                buffer.rewind();
+                buffer.clear();
                 final int readCount = channel.read(buffer);
                 final long readTime = System.currentTimeMillis();
                 if (readCount == -1) {
                   // End of stream
                   break readLoop;
                 } else if (readCount > 0) {
-                  final byte[] data = new byte[readCount];
-                  buffer.rewind();
-                  buffer.get(data);
-                  processIncomingData(readTime, readCount, data);
+                  buffer.flip();
+                  processIncomingData(readTime, buffer);
                 }
               }
             }
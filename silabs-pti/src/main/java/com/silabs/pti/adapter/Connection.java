@@ -21,10 +21,7 @@ import java.nio.charset.Charset;
 import org.apache.mina.core.buffer.IoBuffer;
 import org.apache.mina.core.future.ConnectFuture;
 import org.apache.mina.core.service.IoConnector;
-import org.apache.mina.core.service.IoHandler;
 import org.apache.mina.core.session.IoSession;
-import org.apache.mina.filter.codec.ProtocolCodecFilter;
-import org.apache.mina.transport.socket.nio.NioSocketConnector;
 
 /**
  * The connection that wraps a basic socket connection, using a standard
@@ -42,18 +39,13 @@ public class Connection extends BaseConnection {
   private static final String CONNECTION = "connection";
   private static final String CHARSET = "charset";
 
-  /**
-   * The <code>timeout</code> field is used for timing out socket connection
-   * requests and waiting for message responses. Units are milliseconds. Default
-   * is 2000.
-   */
-  private final int framingTimeout = 2000;
-
   // MINA
   private final Charset defaultCharset = Charset.forName("UTF-8");
   private IoConnector connector;
   private IoSession session;
-  private IoHandler handler;
+  // True if this connection attached to the shared connector itself, rather
+  // than being handed one by an AdapterSocketConnector.
+  private boolean ownsConnectorReference = false;
 
   /**
    * Constructs a Connection object that will use a socket. Does not open the
@@ -68,7 +60,6 @@ public class Connection extends BaseConnection {
              final IConnectivityLogger logger) {
     super(host, port, logger);
     this.connector = connector.ioConnector();
-    this.handler = connector.ioConnector().getHandler();
   }
 
   Connection(final String host, final int port, final IConnectivityLogger logger) {
@@ -91,22 +82,30 @@ public class Connection extends BaseConnection {
       connectionEnabler.prepareConnection(host + ":" + port);
     }
 
-    if (connector == null) {
-      connector = new NioSocketConnector();
-      connector.setConnectTimeoutMillis(framingTimeout);
-      connector.getFilterChain().addLast("codec", new ProtocolCodecFilter(new PtiCodecFactory(defaultCharset)));
-      // connector.getFilterChain().addLast("logger", new LoggingFilter());
-      if (handler == null) {
-        handler = new ConnectionSessionHandler();
+    boolean connected = false;
+    try {
+      if (connector == null) {
+        connector = MinaConnectorRegistry.acquire();
+        ownsConnectorReference = true;
       }
-      connector.setHandler(handler);
-    }
 
-    final ConnectFuture future = connector.connect(new InetSocketAddress(this.host, this.port));
-    future.awaitUninterruptibly();
-    session = future.getSession();
-    session.setAttribute(CONNECTION, this);
-    session.setAttribute(CHARSET, defaultCharset);
+      final ConnectFuture future = connector.connect(new InetSocketAddress(this.host, this.port));
+      future.awaitUninterruptibly();
+      if (!future.isConnected())
+        throw new IOException("Could not connect to " + host + ":" + port, future.getException());
+      session = future.getSession();
+      session.setAttribute(CONNECTION, this);
+      session.setAttribute(CHARSET, defaultCharset);
+      connected = true;
+    } finally {
+      // A failed connect gives back what it reserved, as close would.
+      if (!connected) {
+        session = null;
+        releaseConnector();
+        if (connectionEnabler != null)
+          connectionEnabler.releaseConnection(host + ":" + port);
+      }
+    }
 
     logInfo("Connect.");
     initFramers();
@@ -130,12 +129,21 @@ public class Connection extends BaseConnection {
 
     // clean up
     session = null;
+    releaseConnector();
 
     if (connectionEnabler != null)
       connectionEnabler.releaseConnection(host + ":" + port);
     informListenersOfState(false);
   }
 
+  private void releaseConnector() {
+    if (ownsConnectorReference) {
+      ownsConnectorReference = false;
+      connector = null;
+      MinaConnectorRegistry.release();
+    }
+  }
+
   /**
    * Sends a message to the device. Uses the {@link IFramer#frame(byte[])} method
    * of the current <code>IFramer</code> to add framing, unless it has been turned
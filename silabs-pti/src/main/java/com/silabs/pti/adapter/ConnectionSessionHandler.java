@@ -13,6 +13,8 @@
  ******************************************************************************/
 package com.silabs.pti.adapter;
 
+import java.nio.ByteBuffer;
+
 import org.apache.mina.core.service.IoHandlerAdapter;
 import org.apache.mina.core.session.IoSession;
 
@@ -28,7 +30,11 @@ public class ConnectionSessionHandler extends IoHandlerAdapter {
     Connection c = (Connection) session.getAttribute("connection");
 
     if (c != null) {
-      c.processIncomingData(System.currentTimeMillis(), ((byte[]) msg).length, (byte[]) msg);
+      if (msg instanceof ByteBuffer) {
+        c.processIncomingData(System.currentTimeMillis(), (ByteBuffer) msg);
+      } else if (msg instanceof byte[]) {
+        c.processIncomingData(System.currentTimeMillis(), ((byte[]) msg).length, (byte[]) msg);
+      }
     }
   }
 }
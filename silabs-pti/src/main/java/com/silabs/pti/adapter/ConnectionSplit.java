@@ -92,6 +92,11 @@ public class ConnectionSplit {
       connection.close();
     }
 
+    @Override
+    public void dispose() {
+      connection.dispose();
+    }
+
     @Override
     public void connect() throws IOException {
       connection.connect();
@@ -20,5 +20,7 @@ package com.silabs.pti.adapter;
  * @author Timotej Created on Mar 28, 2018
  */
 public enum ConnectionType {
-  CLASSIC, BUFFERED_NIO, DUAL_THREAD_BUFFERED;
+  CLASSIC, BUFFERED_NIO, DUAL_THREAD_BUFFERED,
+  /** Many connections share a small number of selector threads. */
+  MULTIPLEXED_NIO;
 }
@@ -14,11 +14,12 @@
 
 package com.silabs.pti.adapter;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 
 import com.silabs.pti.log.PtiLog;
+import com.silabs.pti.util.SpscRingBuffer;
 
 /**
  * This is a producer/consumer class that is used by the peek data source to
@@ -33,17 +34,43 @@ import com.silabs.pti.log.PtiLog;
  * messages into this buffer, then goes back to reading from the socket. A
  * separate thread is used to push the messages from here into the data source.
  *
+ * The hand-off is a single-producer/single-consumer lock-free ring, so there
+ * must be exactly one thread calling addObject(). The consumer drains it in
+ * batches and parks when it is empty.
+ *
  * Created on Mar 13, 2012
  * 
  * @author timotej
  */
 class DataBuffer<T> implements Runnable {
 
-  private final List<T> buffer = new ArrayList<>(1000);
-  private Thread fetchThread = null;
+  // Default number of slots in the ring. Must be a power of two.
+  static final int DEFAULT_CAPACITY = 4096;
+
+  // Maximum number of objects handed to the listener per drain pass.
+  private static final int DRAIN_BATCH = 256;
+
+  // Upper bound for a single park. Wakeups are not lost, this only bounds how
+  // long a stop request can go unnoticed.
+  private static final long PARK_NANOS = 1_000_000L;
+
+  // Number of empty polls before the consumer parks. Spinning on a single CPU
+  // only steals time from the producer, so it is disabled there.
+  private static final int SPIN_LIMIT = Runtime.getRuntime().availableProcessors() > 1 ? 1000 : 0;
+
+  // How long the producer backs off when the ring is full.
+  private static final long FULL_BACKOFF_NANOS = 50_000L;
+
+  // How long the producer waits for room in a full ring before dropping.
+  private static final long FULL_TIMEOUT_NANOS = 5_000_000_000L;
+
+  private final SpscRingBuffer<T> buffer;
+  private volatile Thread fetchThread = null;
   private ThreadGroup threadGroup = null;
 
-  private boolean stopThread;
+  private volatile boolean stopThread;
+  private volatile boolean consumerParked = false;
+  private volatile long dropped = 0;
   private final Consumer<T> listener;
   private final String consumerThreadName;
 
@@ -52,11 +79,19 @@ class DataBuffer<T> implements Runnable {
   }
 
   public DataBuffer(final ThreadGroup tg, final String consumerThreadName, final Consumer<T> listener) {
+    this(tg, consumerThreadName, DEFAULT_CAPACITY, listener);
+  }
+
+  public DataBuffer(final ThreadGroup tg,
+                    final String consumerThreadName,
+                    final int capacity,
+                    final Consumer<T> listener) {
     this.threadGroup = tg;
     this.consumerThreadName = consumerThreadName;
     if (listener == null)
       throw new IllegalArgumentException("Listener can't be null");
     this.listener = listener;
+    this.buffer = new SpscRingBuffer<>(capacity);
   }
 
   /** Starts the fetch thread */
@@ -70,17 +105,12 @@ class DataBuffer<T> implements Runnable {
 
   /** Stops the fetch thread */
   public void stopThread() {
-    if (fetchThread != null && fetchThread.isAlive()) {
+    final Thread t = fetchThread;
+    if (t != null && t.isAlive()) {
       stopThread = true;
-      synchronized (buffer) {
-        buffer.notifyAll();
-      }
+      LockSupport.unpark(t);
       try {
-        if (fetchThread != null)
-          fetchThread.join();
-      } catch (NullPointerException npe) {
-        // It is possible for fetchThread to become null before join() is called
-        // If it happens, no big deal, because the thread is dead anyway.
+        t.join();
       } catch (InterruptedException ie) {
         PtiLog.warning("Could not wait for thread to die.", ie);
       }
@@ -88,48 +118,90 @@ class DataBuffer<T> implements Runnable {
   }
 
   /**
-   * This is the entry point for the listening threads. Here we simply quickly
-   * dump message into the queue and get out.
+   * This is the entry point for the listening thread. Here we simply quickly
+   * dump message into the queue and get out. There must be only one thread
+   * calling this method. If the queue is full, the caller backs off until the
+   * consumer catches up. If the consumer is not running, or doesn't make room
+   * within a few seconds, the object is dropped.
+   *
+   * @return true if the object was queued, false if it was dropped.
    */
-  public void addObject(final T object) {
-    synchronized (buffer) {
-      buffer.add(object);
-      buffer.notify();
+  public boolean addObject(final T object) {
+    long deadline = 0;
+    while (!buffer.offer(object)) {
+      final Thread t = fetchThread;
+      if (stopThread || t == null || !t.isAlive()) {
+        drop("Data buffer is stopped, dropping data.");
+        return false;
+      }
+      if (deadline == 0) {
+        deadline = System.nanoTime() + FULL_TIMEOUT_NANOS;
+      } else if (System.nanoTime() - deadline > 0) {
+        drop("Data buffer is full and not draining, dropping data.");
+        return false;
+      }
+      LockSupport.unpark(t);
+      LockSupport.parkNanos(FULL_BACKOFF_NANOS);
+    }
+    // Pairs with the fence in run(): either the consumer sees the new tail
+    // before parking, or we see it parked.
+    VarHandle.fullFence();
+    if (consumerParked) {
+      // One unpark per park is enough, the consumer drains everything anyway.
+      consumerParked = false;
+      wakeConsumer();
     }
+    return true;
   }
 
-  // Returns null if thread was to be stopped and no data is there any more.
-  private T fetchObject() throws InterruptedException {
-    synchronized (buffer) {
-      while (true) {
-        // If there is stuff in the buffer, keep working
-        if (buffer.size() > 0) {
-          return buffer.remove(0);
-        }
+  private void drop(final String message) {
+    if (dropped++ == 0)
+      PtiLog.warning(message);
+  }
 
-        if (stopThread)
-          return null;
+  /** Returns the number of objects dropped because the consumer fell away. */
+  public long dropped() {
+    return dropped;
+  }
 
-        buffer.wait();
-      }
-    }
+  /** Returns approximate number of objects waiting to be consumed. */
+  public int size() {
+    return buffer.size();
+  }
+
+  private void wakeConsumer() {
+    final Thread t = fetchThread;
+    if (t != null)
+      LockSupport.unpark(t);
   }
 
   @Override
   public void run() {
-    try {
-      while (true) {
-        T dm = fetchObject();
-        if (dm == null) {
-          // No more data and stop thread, so we're done
-          fetchThread = null;
-          return;
-        } else {
-          listener.accept(dm);
-        }
+    int idle = 0;
+    while (true) {
+      if (buffer.drain(listener, DRAIN_BATCH) > 0) {
+        idle = 0;
+        continue;
+      }
+      // Spin a little before parking: a burst usually continues within
+      // microseconds and unpark is far more expensive than a few empty polls.
+      if (idle++ < SPIN_LIMIT && !stopThread) {
+        Thread.onSpinWait();
+        continue;
+      }
+      idle = 0;
+      if (stopThread) {
+        // Producer is gone, pick up whatever arrived after the last drain.
+        while (buffer.drain(listener, DRAIN_BATCH) > 0)
+          ;
+        fetchThread = null;
+        return;
       }
-    } catch (InterruptedException ie) {
-      PtiLog.warning("Data buffer thread is interrupted", ie);
+      consumerParked = true;
+      VarHandle.fullFence();
+      if (buffer.isEmpty() && !stopThread)
+        LockSupport.parkNanos(this, PARK_NANOS);
+      consumerParked = false;
     }
   }
 }
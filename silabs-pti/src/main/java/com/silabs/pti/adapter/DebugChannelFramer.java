@@ -14,6 +14,8 @@
 
 package com.silabs.pti.adapter;
 
+import java.util.function.Consumer;
+
 /**
  * An IFramer for Debug Channel.
  *
@@ -63,15 +65,11 @@ public class DebugChannelFramer extends BinaryFramer {
         lengthLSB = nextByte & 0xFF;
         state = READING_LENGTH_MSB;
       } else {
-        message = new byte[(nextByte & 0xFF) + sizeError];
-        index = 0;
-        state = READING_MESSAGE;
+        startMessage((nextByte & 0xFF) + sizeError);
       }
       break;
     case READING_LENGTH_MSB:
-      message = new byte[((nextByte & 0xFF) << 8) + lengthLSB + sizeError];
-      index = 0;
-      state = READING_MESSAGE;
+      startMessage(((nextByte & 0xFF) << 8) + lengthLSB + sizeError);
       break;
     case READING_MESSAGE:
       message[index] = nextByte;
@@ -91,6 +89,57 @@ public class DebugChannelFramer extends BinaryFramer {
     return null;
   }
 
+  /**
+   * Bulk version of the state machine. Scans for the start bracket and copies
+   * the whole payload with a single arraycopy, rather than going byte by byte.
+   */
+  @Override
+  public void assembleMessages(final byte[] buf, final int offset, final int len, final Consumer<byte[]> consumer) {
+    final int end = offset + len;
+    int i = offset;
+    while (i < end) {
+      switch (state) {
+      case READING_START:
+        while (i < end && buf[i] != OPEN_BRACKET)
+          i++;
+        if (i < end) {
+          state = READING_LENGTH_LSB;
+          i++;
+        }
+        break;
+      case READING_MESSAGE:
+        final int n = Math.min(message.length - index, end - i);
+        System.arraycopy(buf, i, message, index, n);
+        index += n;
+        i += n;
+        if (index == message.length)
+          state = READING_END;
+        break;
+      case READING_END:
+        state = READING_START;
+        if (buf[i++] == CLOSE_BRACKET)
+          consumer.accept(message);
+        break;
+      default:
+        // Length bytes.
+        assembleMessage(buf[i++]);
+        break;
+      }
+    }
+  }
+
+  // Allocates the message once the length is known. Lengths that can't be
+  // valid drop us back into hunting for the start bracket.
+  private void startMessage(final int length) {
+    if (length < 0) {
+      state = READING_START;
+      return;
+    }
+    message = new byte[length];
+    index = 0;
+    state = (length == 0 ? READING_END : READING_MESSAGE);
+  }
+
   @Override
   public byte[] flushMessage() {
     switch (state) {
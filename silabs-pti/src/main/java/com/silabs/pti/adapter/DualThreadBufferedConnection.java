@@ -21,6 +21,7 @@ import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketException;
+import java.util.concurrent.TimeUnit;
 
 import com.silabs.pti.log.PtiLog;
 
@@ -47,39 +48,24 @@ public class DualThreadBufferedConnection extends BaseConnection {
   // A ThreadGroup for all the listen threads.
   private static ThreadGroup listenGroup = new ThreadGroup("Connection Listeners");
 
-  // Size of incoming buffer
-  private static final int INCOMING_BUFFER = 1024 * 128; // 128k buffer
+  // Size of a single read slab
+  private static final int SLAB_SIZE = 1024 * 16; // 16k per read
 
-  private static class DataChunk {
-    private final long t;
-    private final int count;
-    private final byte[] data;
+  // Number of slabs per connection. Once they are all queued, reading waits.
+  private static final int MAX_SLABS = 64;
 
-    public DataChunk(final long t, final int count, final byte[] data) {
-      this.t = t;
-      this.count = count;
-      this.data = new byte[count];
-      System.arraycopy(data, 0, this.data, 0, count);
-    }
-
-    public long time() {
-      return t;
-    }
+  // How long reading waits for a slab before checking for a stop request
+  private static final int SLAB_WAIT_MS = 100;
 
-    public int count() {
-      return count;
-    }
+  private final ReadBufferPool pool = new ReadBufferPool(SLAB_SIZE, MAX_SLABS);
 
-    public byte[] data() {
-      return data;
+  private final DataBuffer<ReadBufferPool.Slab> buffer = new DataBuffer<>(listenGroup, "Deframer", slab -> {
+    try {
+      processIncomingData(slab.time(), slab.count(), slab.data());
+    } finally {
+      pool.release(slab);
     }
-  }
-
-  private final DataBuffer<DataChunk> buffer = new DataBuffer<>(listenGroup,
-                                                                "Deframer",
-                                                                t -> processIncomingData(t.time(),
-                                                                                         t.count(),
-                                                                                         t.data()));
+  });
 
   /**
    * Constructs a Connection object that will use a socket. Does not open the
@@ -160,12 +146,17 @@ public class DualThreadBufferedConnection extends BaseConnection {
     threadRunning = true;
     boolean socketClosedByPeer = false;
     long lastReadTime = System.currentTimeMillis();
-    byte[] readBytes = new byte[INCOMING_BUFFER];
+    // The slab is kept across read timeouts and only handed off once filled.
+    ReadBufferPool.Slab slab = null;
     while (!threadStopRequest) {
       int readCount = -1;
+      if (slab == null)
+        slab = pool.acquire(SLAB_WAIT_MS, TimeUnit.MILLISECONDS);
+      if (slab == null)
+        continue; // All slabs queued: leave the data in the socket for now.
       // Read off the InputStream
       try {
-        readCount = in.read(readBytes);
+        readCount = in.read(slab.data());
       } catch (InterruptedIOException e) {
         if (timedOut(lastReadTime)) {
           incomingFramer.flushMessage();
@@ -177,8 +168,12 @@ public class DualThreadBufferedConnection extends BaseConnection {
       }
 
       lastReadTime = System.currentTimeMillis();
-      if (readCount > -1) {
-        buffer.addObject(new DataChunk(lastReadTime, readCount, readBytes));
+      if (readCount > 0) {
+        slab.filled(lastReadTime, readCount);
+        buffer.addObject(slab);
+        slab = null;
+      } else if (readCount == 0) {
+        continue;
       } else if (readCount == -1) {
         socketClosedByPeer = true;
         threadStopRequest = true;
@@ -189,7 +184,8 @@ public class DualThreadBufferedConnection extends BaseConnection {
       this.close();
 
     buffer.stopThread();
-    logInfo("Reading thread stop.");
+    logInfo("Reading thread stop. Read buffer pool hits: " + pool.hits() + ", misses: " + pool.misses()
+        + ", waits: " + pool.waits() + ", dropped: " + buffer.dropped());
   }
 
   /**
@@ -292,6 +288,16 @@ public class DualThreadBufferedConnection extends BaseConnection {
     }
   }
 
+  /** Number of socket reads that reused a pooled read buffer. */
+  public long readBufferPoolHits() {
+    return pool.hits();
+  }
+
+  /** Number of socket reads that had to allocate a new read buffer. */
+  public long readBufferPoolMisses() {
+    return pool.misses();
+  }
+
   private boolean timedOut(final long startTime) {
     return (System.currentTimeMillis() - startTime > framingTimeout);
   }
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.adapter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of non-negative long values, typically durations in nanoseconds,
+ * with fixed log-linear buckets.
+ *
+ * Values below {@link #SUB_BUCKETS} have a bucket each. Above, every power of
+ * two is split into {@link #SUB_BUCKETS} equal buckets, so a value is known to
+ * within 1/8th of itself, over the whole range of long. Recording is a few
+ * atomic increments and allocates nothing, so any number of threads can record
+ * on a hot path.
+ */
+public final class Histogram {
+
+  /** Number of buckets each power of two is split into. */
+  public static final int SUB_BUCKETS = 8;
+  private static final int SUB_BITS = 3;
+
+  /** Total number of buckets. */
+  public static final int BUCKETS = (63 - SUB_BITS + 1) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  /** Records a value. Negative values are recorded as 0. */
+  public void record(final long value) {
+    final long v = Math.max(0, value);
+    counts.incrementAndGet(bucket(v));
+    count.increment();
+    sum.add(v);
+    long m;
+    while (v > (m = max.get()) && !max.compareAndSet(m, v)) {
+      // Lost a race with a larger value, try again.
+    }
+  }
+
+  /** Records the time elapsed since the given {@link System#nanoTime()}. */
+  public void recordSince(final long startNanos) {
+    record(System.nanoTime() - startNanos);
+  }
+
+  /** Returns the number of values recorded. */
+  public long count() {
+    return count.sum();
+  }
+
+  /** Returns the sum of the values recorded. */
+  public long sum() {
+    return sum.sum();
+  }
+
+  /** Returns the largest value recorded. */
+  public long max() {
+    return max.get();
+  }
+
+  /**
+   * Copies the bucket counts into the array, which must hold
+   * {@link #BUCKETS} entries. Lets a reader work out the values of an
+   * interval from two snapshots, without allocating.
+   */
+  public void snapshot(final long[] into) {
+    for (int i = 0; i < BUCKETS; i++)
+      into[i] = counts.get(i);
+  }
+
+  /** Returns the bucket of a non-negative value. */
+  public static int bucket(final long value) {
+    if (value < SUB_BUCKETS)
+      return (int) value;
+    final int exponent = 63 - Long.numberOfLeadingZeros(value);
+    final int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+  }
+
+  /** Returns the largest value that falls into the bucket. */
+  public static long highestValue(final int bucket) {
+    if (bucket < SUB_BUCKETS)
+      return bucket;
+    if (bucket == BUCKETS - 1)
+      return Long.MAX_VALUE;
+    return lowestValue(bucket + 1) - 1;
+  }
+
+  private static long lowestValue(final int bucket) {
+    if (bucket < SUB_BUCKETS)
+      return bucket;
+    final int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+    return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BITS);
+  }
+
+  /**
+   * Returns the value at the quantile of the bucket counts, as the highest
+   * value of its bucket, or 0 if the counts are all 0.
+   *
+   * @param counts   Bucket counts, as from {@link #snapshot(long[])}.
+   * @param quantile Between 0 and 1.
+   */
+  public static long valueAt(final long[] counts, final double quantile) {
+    long total = 0;
+    for (final long c : counts)
+      total += c;
+    if (total == 0)
+      return 0;
+    final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank)
+        return highestValue(i);
+    }
+    return highestValue(counts.length - 1);
+  }
+}
@@ -72,6 +72,15 @@ public interface IConnection {
   /** Closes this connection */
   public void close();
 
+  /**
+   * Closes this connection for good and releases what it keeps across
+   * reconnects, such as its metrics. A closed connection may be connected
+   * again, a disposed one may not.
+   */
+  public default void dispose() {
+    close();
+  }
+
   /**
    * If this connection knows how to repair itself, this will attempt to repair
    * it. Might do nothing.
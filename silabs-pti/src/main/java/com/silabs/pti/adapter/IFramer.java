@@ -14,6 +14,8 @@
 
 package com.silabs.pti.adapter;
 
+import java.util.function.Consumer;
+
 /**
  * Interface for framing and unframing messages.
  *
@@ -31,6 +33,32 @@ public interface IFramer {
    */
   byte[] assembleMessage(byte nextByte);
 
+  /**
+   * Assembles messages from a range of bytes, passing each completed message to
+   * the consumer, in order. The state of an incomplete message at the end of
+   * the range carries over to the next call, same as with
+   * {@link #assembleMessage(byte)}.
+   *
+   * The default implementation simply calls assembleMessage for each byte.
+   * Framers that can do better should override it.
+   *
+   * @param buf      incoming data
+   * @param offset   index of the first byte in buf
+   * @param len      number of bytes to process
+   * @param consumer receives the complete messages (with framing stripped)
+   */
+  default void assembleMessages(final byte[] buf,
+                                final int offset,
+                                final int len,
+                                final Consumer<byte[]> consumer) {
+    final int end = offset + len;
+    for (int i = offset; i < end; i++) {
+      final byte[] message = assembleMessage(buf[i]);
+      if (message != null)
+        consumer.accept(message);
+    }
+  }
+
   /**
    * Returns the incomplete message that is currently being assembled from the
    * bytes supplied to the assembleMessage method.
@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.adapter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import com.silabs.pti.log.PtiSeverity;
+
+/**
+ * Named metrics of the capture pipeline: counters, histograms of stage
+ * latencies and gauges of queue depths.
+ *
+ * Metrics are looked up by name once, when a connection, listener or output is
+ * set up, and the returned object is kept. Counters are {@link LongAdder}s and
+ * histograms are {@link Histogram}s, so recording on the hot path takes no lock
+ * and allocates nothing. Names are dotted, with the adapter or output first and
+ * the stage last, such as "10.4.1.17:4905.deframe". Whatever registers metrics
+ * removes them when it is closed, so that a long capture that reconnects or
+ * rotates files doesn't pile up the metrics of what is gone.
+ *
+ * A periodic summary of the last interval can be printed through a
+ * {@link IConnectivityLogger}. Histograms are expected to hold nanoseconds and
+ * are printed in microseconds.
+ */
+public final class MetricsRegistry {
+
+  private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+  private final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+  private final Map<String, Histogram> histograms = new ConcurrentSkipListMap<>();
+  private final Map<String, LongSupplier> gauges = new ConcurrentSkipListMap<>();
+
+  private ScheduledExecutorService reporter = null;
+  private ScheduledFuture<?> reportTask = null;
+  private IConnectivityLogger reportLogger = null;
+  // Values at the end of the last reported interval.
+  private final Map<String, Long> lastCounts = new HashMap<>();
+  private final Map<String, long[]> lastBuckets = new HashMap<>();
+  private final long[] buckets = new long[Histogram.BUCKETS];
+  private long lastReportNanos;
+
+  /** Creates an empty registry. The capture uses the one from {@link #get()}. */
+  public MetricsRegistry() {
+  }
+
+  /** Returns the registry shared by the whole capture. */
+  public static MetricsRegistry get() {
+    return DEFAULT;
+  }
+
+  /** Returns the counter of the given name, creating it if needed. */
+  public LongAdder counter(final String name) {
+    return counters.computeIfAbsent(name, n -> new LongAdder());
+  }
+
+  /** Returns the histogram of the given name, creating it if needed. */
+  public Histogram histogram(final String name) {
+    return histograms.computeIfAbsent(name, n -> new Histogram());
+  }
+
+  /**
+   * Removes a counter, if it is still the one registered under the name. Its
+   * next interval starts from scratch.
+   */
+  public synchronized void removeCounter(final String name, final LongAdder counter) {
+    if (counters.remove(name, counter))
+      lastCounts.remove(name);
+  }
+
+  /**
+   * Removes a histogram, if it is still the one registered under the name. Its
+   * next interval starts from scratch.
+   */
+  public synchronized void removeHistogram(final String name, final Histogram histogram) {
+    if (histograms.remove(name, histogram))
+      lastBuckets.remove(name);
+  }
+
+  /** Registers a gauge, replacing any of the same name. */
+  public void gauge(final String name, final LongSupplier value) {
+    gauges.put(name, value);
+  }
+
+  /** Removes a gauge, once what it reads is gone. */
+  public void removeGauge(final String name) {
+    gauges.remove(name);
+  }
+
+  /**
+   * Starts printing a summary of every interval through the logger.
+   *
+   * @param logger   Logger the summary lines go to.
+   * @param periodMs Length of an interval.
+   */
+  public synchronized void startReporting(final IConnectivityLogger logger, final int periodMs) {
+    stopReporting();
+    if (reporter == null) {
+      reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread t = new Thread(r, "Metrics report");
+        t.setDaemon(true);
+        return t;
+      });
+    }
+    reportLogger = logger;
+    lastCounts.clear();
+    lastBuckets.clear();
+    lastReportNanos = System.nanoTime();
+    reportTask = reporter.scheduleAtFixedRate(this::report, periodMs, periodMs, TimeUnit.MILLISECONDS);
+  }
+
+  /** Stops the periodic summary, after a final one for the partial interval. */
+  public synchronized void stopReporting() {
+    if (reportTask == null)
+      return;
+    reportTask.cancel(false);
+    reportTask = null;
+    report();
+    reportLogger = null;
+  }
+
+  /**
+   * Returns the summary lines of the interval since the previous call, and
+   * starts a new interval.
+   */
+  public synchronized List<String> summary() {
+    final long now = System.nanoTime();
+    final double seconds = Math.max(1, now - lastReportNanos) / 1e9;
+    lastReportNanos = now;
+    final List<String> lines = new ArrayList<>();
+    for (final Map.Entry<String, LongAdder> e : counters.entrySet()) {
+      final long total = e.getValue().sum();
+      final Long last = lastCounts.put(e.getKey(), total);
+      final long delta = total - (last == null ? 0 : last);
+      lines.add(String.format("%s: %d (%.1f/s)", e.getKey(), total, delta / seconds));
+    }
+    for (final Map.Entry<String, Histogram> e : histograms.entrySet()) {
+      final long[] last = lastBuckets.computeIfAbsent(e.getKey(), k -> new long[Histogram.BUCKETS]);
+      e.getValue().snapshot(buckets);
+      long n = 0;
+      for (int i = 0; i < Histogram.BUCKETS; i++) {
+        final long b = buckets[i];
+        buckets[i] -= last[i];
+        last[i] = b;
+        n += buckets[i];
+      }
+      if (n == 0)
+        continue;
+      lines.add(String.format("%s: %d, p50 %.1f us, p99 %.1f us, max %.1f us",
+                              e.getKey(),
+                              n,
+                              Histogram.valueAt(buckets, 0.5) / 1000.0,
+                              Histogram.valueAt(buckets, 0.99) / 1000.0,
+                              Histogram.valueAt(buckets, 1) / 1000.0));
+    }
+    for (final Map.Entry<String, LongSupplier> e : gauges.entrySet())
+      lines.add(e.getKey() + ": " + e.getValue().getAsLong());
+    return lines;
+  }
+
+  private synchronized void report() {
+    final IConnectivityLogger logger = reportLogger;
+    if (logger == null)
+      return;
+    for (final String line : summary())
+      logger.log(PtiSeverity.INFO, "metrics " + line, null);
+  }
+}
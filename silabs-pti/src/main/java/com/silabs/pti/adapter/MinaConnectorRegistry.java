@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.adapter;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.mina.core.service.IoConnector;
+import org.apache.mina.core.service.SimpleIoProcessorPool;
+import org.apache.mina.filter.codec.ProtocolCodecFilter;
+import org.apache.mina.transport.socket.nio.NioProcessor;
+import org.apache.mina.transport.socket.nio.NioSession;
+import org.apache.mina.transport.socket.nio.NioSocketConnector;
+
+/**
+ * Process-wide holder of the apache mina connector used by all
+ * {@link Connection} instances.
+ *
+ * There is a single connector with a single pool of I/O processors, no matter
+ * how many adapters and ports are connected. The connector is reference
+ * counted: it is created on the first acquire and disposed, together with all
+ * of its threads, when the last user releases it.
+ */
+public final class MinaConnectorRegistry {
+
+  /**
+   * The <code>timeout</code> field is used for timing out socket connection
+   * requests. Units are milliseconds. Default is 2000.
+   */
+  private static final int framingTimeout = 2000;
+
+  private static final AtomicInteger threadCounter = new AtomicInteger();
+
+  private static int processorCount = Runtime.getRuntime().availableProcessors() + 1;
+  private static int users = 0;
+  private static ThreadPoolExecutor executor = null;
+  private static SimpleIoProcessorPool<NioSession> processors = null;
+  private static NioSocketConnector connector = null;
+
+  private MinaConnectorRegistry() {
+  }
+
+  /**
+   * Sets the number of I/O processors in the shared pool. Takes effect the next
+   * time the connector is created.
+   *
+   * @param count number of processors, must be at least 1.
+   */
+  public static synchronized void setProcessorCount(final int count) {
+    if (count < 1)
+      throw new IllegalArgumentException("Need at least one I/O processor.");
+    processorCount = count;
+  }
+
+  /** Returns the configured number of I/O processors. */
+  public static synchronized int processorCount() {
+    return processorCount;
+  }
+
+  /**
+   * Returns the number of I/O threads of the shared connector that are busy,
+   * the connector thread while it connects and a processor thread for every
+   * processor with sessions. Idle threads that the pool keeps around for a
+   * while don't count.
+   */
+  public static synchronized int liveIoThreads() {
+    return executor == null ? 0 : executor.getActiveCount();
+  }
+
+  /** Returns the number of current users of the shared connector. */
+  public static synchronized int users() {
+    return users;
+  }
+
+  /**
+   * Returns the shared connector, creating it if needed. Every call must be
+   * paired with {@link #release()}.
+   */
+  static synchronized IoConnector acquire() {
+    if (connector == null) {
+      executor = (ThreadPoolExecutor) Executors.newCachedThreadPool(namingThreadFactory());
+      processors = new SimpleIoProcessorPool<>(NioProcessor.class, executor, processorCount, null);
+      connector = new NioSocketConnector(executor, processors);
+      connector.setConnectTimeoutMillis(framingTimeout);
+      connector.getFilterChain().addLast("codec",
+                                         new ProtocolCodecFilter(new PtiCodecFactory(Charset.forName("UTF-8"))));
+      connector.setHandler(new ConnectionSessionHandler());
+    }
+    users++;
+    return connector;
+  }
+
+  /** Releases the shared connector, disposing it when nobody uses it. */
+  static synchronized void release() {
+    if (users == 0)
+      return;
+    users--;
+    if (users == 0) {
+      connector.dispose();
+      processors.dispose();
+      executor.shutdown();
+      connector = null;
+      processors = null;
+      executor = null;
+    }
+  }
+
+  private static ThreadFactory namingThreadFactory() {
+    return r -> new Thread(r, "Mina I/O " + threadCounter.incrementAndGet());
+  }
+}
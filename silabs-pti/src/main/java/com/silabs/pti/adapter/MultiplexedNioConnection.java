@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.adapter;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Connection that does not own a thread. Its channel is registered with one of
+ * the shared selector loops in {@link NioSelectorGroup}, which performs the
+ * reads and runs the framer, so a single thread can serve hundreds of adapters.
+ *
+ * Since the reads happen on a shared thread, connection and character listeners
+ * should return quickly. Sends are queued and written by the selector loop as
+ * the channel takes them, so send doesn't wait for the peer to read.
+ */
+public class MultiplexedNioConnection extends BaseConnection {
+
+  private volatile SocketChannel channel = null;
+  private volatile NioSelectorGroup.Registration registration = null;
+  // Written on the selector loop, in order.
+  private final Queue<ByteBuffer> sendQueue = new ConcurrentLinkedQueue<>();
+
+  public MultiplexedNioConnection(final String host, final int port, final IConnectivityLogger logger) {
+    super(host, port, logger);
+  }
+
+  @Override
+  public void connect() throws IOException {
+    if (isConnected())
+      return;
+    final InetSocketAddress address = new InetSocketAddress(host, port);
+    if (connectionEnabler != null)
+      connectionEnabler.prepareConnection(host + ":" + port);
+    final SocketChannel ch;
+    try {
+      ch = SocketChannel.open(address);
+      ch.configureBlocking(false);
+    } catch (final IOException ioe) {
+      if (connectionEnabler != null)
+        connectionEnabler.releaseConnection(host + ":" + port);
+      throw ioe;
+    }
+    channel = ch;
+    logInfo("Connect.");
+    // Registered before the listeners hear of it, so what they send goes out.
+    registration = NioSelectorGroup.instance().register(ch, this);
+    informListenersOfState(true);
+  }
+
+  /** Returns true if sent data waits for the channel. */
+  boolean hasPendingSends() {
+    return !sendQueue.isEmpty();
+  }
+
+  /**
+   * Called by the selector loop when the channel is readable.
+   *
+   * @return false if the channel reached the end of stream or failed and should
+   *         no longer be selected.
+   */
+  boolean readReady(final SocketChannel ch, final ByteBuffer buffer) {
+    try {
+      buffer.clear();
+      final int readCount = ch.read(buffer);
+      if (readCount == -1) {
+        logInfo("Closed by peer.");
+        close();
+        return false;
+      } else if (readCount > 0) {
+        processIncomingData(System.currentTimeMillis(), readCount, buffer.array());
+      }
+      return true;
+    } catch (final IOException ioe) {
+      reportProblem("Error reading data", ioe);
+      logError("Read error.", ioe);
+      close();
+      return false;
+    }
+  }
+
+  /**
+   * Called by the selector loop when the channel is writable.
+   *
+   * @return true if queued data is left for the next time the channel is
+   *         writable.
+   */
+  boolean writeReady(final SocketChannel ch) {
+    try {
+      ByteBuffer bb;
+      while ((bb = sendQueue.peek()) != null) {
+        ch.write(bb);
+        if (bb.hasRemaining())
+          return true;
+        sendQueue.poll();
+      }
+      return false;
+    } catch (final IOException ioe) {
+      reportProblem("Error writing data", ioe);
+      logError("Write error.", ioe);
+      close();
+      return false;
+    }
+  }
+
+  @Override
+  public void close() {
+    final SocketChannel ch = channel;
+    if (ch == null)
+      return;
+    channel = null;
+    try {
+      logInfo("Disconnect.");
+      ch.close();
+    } catch (final IOException ioe) {
+      reportProblem("Close socket.", ioe);
+      logError("Disconnect error.", ioe);
+    }
+    final NioSelectorGroup.Registration r = registration;
+    registration = null;
+    if (r != null)
+      r.release();
+    sendQueue.clear();
+    if (connectionEnabler != null)
+      connectionEnabler.releaseConnection(host + ":" + port);
+    informListenersOfState(false);
+  }
+
+  @Override
+  public void send(final byte[] message) throws IOException {
+    final SocketChannel ch = channel;
+    if (ch == null) {
+      logError("Attempting to write, but socket is not connected.", null);
+      return;
+    }
+    final byte[] outgoing = (frameOutgoing ? outgoingFramer.frame(message) : message);
+    if (outgoing == null)
+      return;
+
+    logInfo("Write " + outgoing.length + " bytes.");
+    sendQueue.add(ByteBuffer.wrap(outgoing));
+    final NioSelectorGroup.Registration r = registration;
+    if (r != null)
+      r.requestWrite();
+  }
+
+  @Override
+  public boolean isConnected() {
+    final SocketChannel ch = channel;
+    return ch != null && ch.isOpen();
+  }
+
+}
@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.adapter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.silabs.pti.log.PtiLog;
+
+/**
+ * Shared set of selector threads used by {@link MultiplexedNioConnection}.
+ *
+ * Each loop owns one selector and one read buffer, and services any number of
+ * channels. A new channel is assigned to the loop with the fewest channels.
+ * Reads, deframing and listener callbacks all happen on the loop thread, so
+ * listeners must not block. Writes the kernel can't take at once are finished
+ * by the loop too, when the channel becomes writable.
+ *
+ * The number of loops is fixed when the group is first used. Change it with
+ * {@link Adapter#setMultiplexedSelectorCount(int)} before creating the first
+ * multiplexed connection.
+ */
+class NioSelectorGroup {
+
+  // Size of the read buffer that each loop shares between its channels
+  private static final int READ_BUFFER = 1024 * 128;
+
+  private static int loopCount = 1;
+  private static NioSelectorGroup instance = null;
+
+  private final Loop[] loops;
+
+  private NioSelectorGroup(final int n) throws IOException {
+    loops = new Loop[n];
+    for (int i = 0; i < n; i++) {
+      loops[i] = new Loop("Multiplexed NIO selector " + i);
+    }
+  }
+
+  /** Sets the number of selector loops. Only effective before first use. */
+  static synchronized void setLoopCount(final int n) {
+    if (n < 1)
+      throw new IllegalArgumentException("Need at least one selector loop.");
+    if (instance != null && instance.loops.length != n)
+      PtiLog.warning("Selector loops already running, keeping " + instance.loops.length + " loops.");
+    loopCount = n;
+  }
+
+  /** Returns the shared group, starting the loops if needed. */
+  static synchronized NioSelectorGroup instance() throws IOException {
+    if (instance == null)
+      instance = new NioSelectorGroup(loopCount);
+    return instance;
+  }
+
+  /**
+   * Registers the channel for reading with the least loaded loop. The
+   * registration is performed asynchronously on the loop thread.
+   *
+   * @return registration, which must be released once the channel is closed,
+   *         so that the loop is no longer charged for it.
+   */
+  Registration register(final SocketChannel channel, final MultiplexedNioConnection connection) {
+    Loop best = loops[0];
+    for (int i = 1; i < loops.length; i++) {
+      if (loops[i].channels.get() < best.channels.get())
+        best = loops[i];
+    }
+    return best.register(channel, connection);
+  }
+
+  /** Registration of a channel with a loop. */
+  static final class Registration {
+    private final Loop loop;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+    // Set on the loop thread.
+    private volatile SelectionKey key = null;
+
+    private Registration(final Loop loop) {
+      this.loop = loop;
+    }
+
+    /**
+     * Asks the loop to call {@link MultiplexedNioConnection#writeReady} once the
+     * channel is writable.
+     */
+    void requestWrite() {
+      loop.pending.add(() -> {
+        final SelectionKey k = key;
+        if (k != null && k.isValid())
+          k.interestOps(k.interestOps() | SelectionKey.OP_WRITE);
+      });
+      loop.selector.wakeup();
+    }
+
+    /** Stops charging the loop for the channel. Runs once. */
+    void release() {
+      if (released.compareAndSet(false, true))
+        loop.channels.decrementAndGet();
+    }
+  }
+
+  private static final class Loop implements Runnable {
+    private final Selector selector;
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger channels = new AtomicInteger();
+    private final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER);
+
+    Loop(final String name) throws IOException {
+      this.selector = Selector.open();
+      final Thread t = new Thread(this, name);
+      t.setDaemon(true);
+      t.start();
+    }
+
+    Registration register(final SocketChannel channel, final MultiplexedNioConnection connection) {
+      channels.incrementAndGet();
+      final Registration registration = new Registration(this);
+      pending.add(() -> {
+        try {
+          final int ops = connection.hasPendingSends()
+              ? SelectionKey.OP_READ | SelectionKey.OP_WRITE
+              : SelectionKey.OP_READ;
+          registration.key = channel.register(selector, ops, connection);
+        } catch (ClosedChannelException cce) {
+          // Closed before we got to it, nothing to do.
+        }
+      });
+      selector.wakeup();
+      return registration;
+    }
+
+    @Override
+    public void run() {
+      while (true) {
+        try {
+          selector.select();
+          Runnable r;
+          while ((r = pending.poll()) != null)
+            r.run();
+          final Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+          while (it.hasNext()) {
+            final SelectionKey key = it.next();
+            it.remove();
+            service(key);
+          }
+        } catch (ClosedSelectorException cse) {
+          return;
+        } catch (Exception e) {
+          PtiLog.error("Selector loop error.", e);
+        }
+      }
+    }
+
+    // A failure of one channel, or of its listeners, must not keep the other
+    // selected channels from being served.
+    private void service(final SelectionKey key) {
+      try {
+        if (!key.isValid())
+          return;
+        final MultiplexedNioConnection c = (MultiplexedNioConnection) key.attachment();
+        final SocketChannel ch = (SocketChannel) key.channel();
+        if (key.isWritable() && !c.writeReady(ch))
+          key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        if (key.isValid() && key.isReadable() && !c.readReady(ch, buffer))
+          key.cancel();
+      } catch (CancelledKeyException cke) {
+        // Closed meanwhile by another thread.
+      } catch (Exception e) {
+        PtiLog.error("Selector loop error.", e);
+      }
+    }
+  }
+}
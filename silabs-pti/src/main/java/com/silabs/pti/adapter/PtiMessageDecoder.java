@@ -31,12 +31,15 @@ public class PtiMessageDecoder extends MessageDecoderAdapter {
     return MessageDecoderResult.OK;
   }
 
+  /**
+   * Same as {@link PtiProtocolDecoder}: passes on a view of the incoming data
+   * rather than a copy.
+   */
   @Override
   public MessageDecoderResult
          decode(final IoSession session, final IoBuffer in, final ProtocolDecoderOutput out) throws Exception {
-    final byte[] array = new byte[in.remaining()];
-    in.get(array);
-    out.write(array);
+    out.write(in.buf().slice());
+    in.position(in.limit());
     return MessageDecoderResult.OK;
   }
 }
@@ -24,10 +24,14 @@ import org.apache.mina.filter.codec.ProtocolDecoderOutput;
  * @author Jing
  */
 public class PtiProtocolDecoder extends ProtocolDecoderAdapter {
+  /**
+   * Passes on a {@link java.nio.ByteBuffer} view of the incoming data rather
+   * than a copy. The view shares content with the read buffer and must be
+   * treated as read-only and consumed before the handler returns.
+   */
   @Override
   public void decode(final IoSession session, final IoBuffer in, final ProtocolDecoderOutput out) throws Exception {
-    final byte[] array = new byte[in.remaining()];
-    in.get(array);
-    out.write(array);
+    out.write(in.buf().slice());
+    in.position(in.limit());
   }
 }
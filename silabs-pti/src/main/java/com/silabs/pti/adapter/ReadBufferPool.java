@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.adapter;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.silabs.pti.util.SpscRingBuffer;
+
+/**
+ * Pool of recycled read slabs for a single connection.
+ *
+ * The reading thread acquires a slab, reads straight into it and hands it over
+ * to the deframing thread, which releases it back after processing. Since there
+ * is exactly one thread on each side, the free list is a single-producer/
+ * single-consumer ring going the opposite direction of the data.
+ *
+ * At most a fixed number of slabs exist. Until then, an empty pool allocates a
+ * new slab (a miss). Once they all are queued, the reading thread waits for the
+ * deframing thread to release one, and stops reading meanwhile, so a backlog
+ * pushes back on the sender through TCP instead of costing memory. Nothing is
+ * allocated once the pool is warm.
+ */
+class ReadBufferPool {
+
+  /** A reusable chunk of incoming data. */
+  static final class Slab {
+    private final byte[] data;
+    private long time;
+    private int count;
+
+    private Slab(final int size) {
+      this.data = new byte[size];
+    }
+
+    /** Array to read into. */
+    byte[] data() {
+      return data;
+    }
+
+    /** PC time of the read. */
+    long time() {
+      return time;
+    }
+
+    /** Number of valid bytes in data(). */
+    int count() {
+      return count;
+    }
+
+    void filled(final long time, final int count) {
+      this.time = time;
+      this.count = count;
+    }
+  }
+
+  private final int slabSize;
+  private final int maxSlabs;
+  private final SpscRingBuffer<Slab> free;
+  // Slabs acquired and not released yet.
+  private final AtomicInteger inFlight = new AtomicInteger();
+  // Reading thread while it waits for a slab.
+  private volatile Thread waiter = null;
+
+  // Written by the acquiring thread only.
+  private int allocated = 0;
+  private volatile long hits = 0, misses = 0, waits = 0;
+
+  /**
+   * Creates a pool.
+   *
+   * @param slabSize size of each slab in bytes.
+   * @param maxSlabs maximum number of slabs, in use or idle.
+   */
+  ReadBufferPool(final int slabSize, final int maxSlabs) {
+    this.slabSize = slabSize;
+    this.maxSlabs = maxSlabs;
+    this.free = new SpscRingBuffer<>(maxSlabs);
+  }
+
+  /**
+   * Returns a slab, recycled if possible. If all slabs are in use, waits up to
+   * the timeout for one to be released. Reading thread only.
+   *
+   * @return slab, or null if none was released in time.
+   */
+  Slab acquire(final long timeout, final TimeUnit unit) {
+    Slab s = free.poll();
+    if (s == null && allocated < maxSlabs) {
+      allocated++;
+      misses++;
+      s = new Slab(slabSize);
+    } else if (s == null) {
+      waits++;
+      s = await(System.nanoTime() + unit.toNanos(timeout));
+      if (s == null)
+        return null;
+      hits++;
+    } else {
+      hits++;
+    }
+    inFlight.incrementAndGet();
+    return s;
+  }
+
+  private Slab await(final long deadline) {
+    waiter = Thread.currentThread();
+    try {
+      Slab s;
+      while ((s = free.poll()) == null) {
+        final long left = deadline - System.nanoTime();
+        if (left <= 0)
+          return null;
+        LockSupport.parkNanos(this, left);
+      }
+      return s;
+    } finally {
+      waiter = null;
+    }
+  }
+
+  /** Returns the slab to the pool. Deframing thread only. */
+  void release(final Slab s) {
+    s.count = 0;
+    inFlight.decrementAndGet();
+    free.offer(s);
+    // The slab must be visible before the waiter is read, or a reader that
+    // just found the pool empty could miss the unpark.
+    VarHandle.fullFence();
+    final Thread w = waiter;
+    if (w != null)
+      LockSupport.unpark(w);
+  }
+
+  /** Number of acquisitions served from the pool. */
+  long hits() {
+    return hits;
+  }
+
+  /** Number of acquisitions that had to allocate a new slab. */
+  long misses() {
+    return misses;
+  }
+
+  /** Number of acquisitions that had to wait for a slab to be released. */
+  long waits() {
+    return waits;
+  }
+
+  /** Number of slabs acquired and not yet released. */
+  int inFlight() {
+    return inFlight.get();
+  }
+}
@@ -14,17 +14,24 @@
 
 package com.silabs.pti.adapter;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.TreeMap;
 import java.util.function.LongSupplier;
 
+import com.silabs.pti.debugchannel.OriginatorRegistry;
+
 /**
  * Time synchronizer will be receiving input events tracking microsecond times
  * from multiple, potentially unsynchronized sources, and will use drift and PC
  * clock to correct those times.
  *
- * This class is NOT THREAD SAFE. TimeShift method should always be called
- * either from a single thread, or synchronized externally.
+ * This class is thread safe. Each originator has a state object of its own,
+ * indexed by its {@link OriginatorRegistry} id, which callers on a hot path
+ * resolve once with {@link #originator(int)}.
+ * Events of an originator that already has its time zero take no lock: the
+ * time zero is read, and only replaced under the lock if drift correction
+ * kicks in. The first event of an originator takes the lock, to agree on a
+ * time zero with the others.
  *
  * @author Timotej Created on Dec 5, 2017 (This logic exists since 2006, but in
  *         2017 it has been moved out of the LiveDataSource into this separate
@@ -60,11 +67,17 @@ public class TimeSynchronizer {
   private final long driftThreshold;
   private final long zeroTimeDifferenceThreshold;
 
-  private Long masterPcTimeZero = null;
-  private final Map<String, Long> tZeroMap;
+  private static final long NOT_SET = Long.MIN_VALUE;
+
+  // Indexed by originator id. Grown under this.
+  private volatile Originator[] originators = new Originator[0];
+  // Time zeros in use, with the number of originators using each. Guarded by
+  // this.
+  private final TreeMap<Long, Integer> timeZeros = new TreeMap<>();
+  private volatile long masterPcTimeZero;
 
-  private Op lastOp = Op.NONE;
-  private Long lastCorrection = null;
+  private final ThreadLocal<Op> lastOp = ThreadLocal.withInitial(() -> Op.NONE);
+  private volatile Long lastCorrection = null;
 
   public TimeSynchronizer(final LongSupplier millisecondTimeSupplier,
                           final boolean performDriftCorrection,
@@ -74,7 +87,42 @@ public class TimeSynchronizer {
     this.millisecondTimeSupplier = millisecondTimeSupplier;
     this.driftThreshold = driftThresholdMicroseconds;
     this.zeroTimeDifferenceThreshold = zeroTimeDifferenceThreshold;
-    this.tZeroMap = new HashMap<>();
+  }
+
+  /**
+   * Returns the state of the given originator, creating it if needed. The
+   * returned object stays valid, so callers can keep it instead of looking it
+   * up on every event.
+   *
+   * @param originatorId
+   * @return Originator
+   */
+  public Originator originator(final String originatorId) {
+    return originator(OriginatorRegistry.id(originatorId));
+  }
+
+  /**
+   * Same as {@link #originator(String)}, by {@link OriginatorRegistry} id.
+   *
+   * @param id
+   * @return Originator
+   */
+  public Originator originator(final int id) {
+    final Originator[] a = originators;
+    final Originator o = id >= 0 && id < a.length ? a[id] : null;
+    return o != null ? o : createOriginator(id);
+  }
+
+  private synchronized Originator createOriginator(final int id) {
+    if (id < 0)
+      throw new IllegalArgumentException("Invalid originator id: " + id);
+    Originator[] a = originators;
+    if (id < a.length && a[id] != null)
+      return a[id];
+    a = id < a.length ? a.clone() : Arrays.copyOf(a, Math.max(id + 1, 2 * a.length));
+    a[id] = new Originator(id);
+    originators = a;
+    return a[id];
   }
 
   /**
@@ -84,20 +132,22 @@ public class TimeSynchronizer {
    * @return timezero or null if not set yet.
    */
   public Long timeZero(final String originator) {
-    return tZeroMap.get(originator);
-  }
-
-  private void setTimeZero(final String originator, final Long time) {
-    tZeroMap.put(originator, time);
+    final int id = OriginatorRegistry.find(originator);
+    final Originator[] a = originators;
+    if (id < 0 || id >= a.length || a[id] == null)
+      return null;
+    final long tZero = a[id].tZero;
+    return tZero == NOT_SET ? null : tZero;
   }
 
   /**
-   * Returns the last operation performed by the timeShift.
+   * Returns the last operation performed by the timeShift on the calling
+   * thread.
    * 
    * @return
    */
   public Op lastOp() {
-    return lastOp;
+    return lastOp.get();
   }
 
   /**
@@ -126,73 +176,130 @@ public class TimeSynchronizer {
    * @return
    */
   public long synchronizedTime(final String originatorId, final long timeInMicroseconds) {
-    long tMillis = millisecondTimeSupplier.getAsLong();
-    Long tZero = timeZero(originatorId);
+    return originator(originatorId).synchronizedTime(timeInMicroseconds);
+  }
+
+  private long synchronizedTime(final Originator o, final long timeInMicroseconds) {
+    final long tMillis = millisecondTimeSupplier.getAsLong();
+    long tZero = o.tZero;
     Op op;
-    if (tZero == null) {
-      // First event from this originator. Calculate tZero.
-      if (tZeroMap.isEmpty()) {
-        // Wow, first event ever!
-        tZero = timeInMicroseconds;
-        masterPcTimeZero = tMillis;
-        setTimeZero(originatorId, tZero);
-        op = Op.GLOBAL_ZERO;
-      } else {
-        // Not the first ever. Match this against the millisecond supplier
-        Long usableT0 = findUsableTimeZero(tMillis, timeInMicroseconds);
-        if (usableT0 == null) {
-          // Nope, not synchronized. Needs to correct,
-          long expectedRealMicrosecondTime = (tMillis - masterPcTimeZero) * 1000;
-          tZero = timeInMicroseconds - expectedRealMicrosecondTime;
-          op = Op.ORIGINATOR_ZERO_WITH_CORRECTION;
-          lastCorrection = tZero;
-        } else {
-          // we can trust the timeInMicroseconds! Use same T0.
-          tZero = usableT0;
-          op = Op.ORIGINATOR_ZERO;
-        }
-        setTimeZero(originatorId, tZero);
-      }
-    } else {
+    if (tZero == NOT_SET) {
+      op = firstTimeZero(o, tMillis, timeInMicroseconds);
+      tZero = o.tZero;
+    } else if (performDriftCorrection) {
       // We have a tZero already. Let's just check for drift.
-      if (performDriftCorrection) {
-        long expectedRealMicrosecondTime = (tMillis - masterPcTimeZero) * 1000;
-        long microsecondTime = timeInMicroseconds - tZero;
-        if (isDriftTooLarge(microsecondTime, expectedRealMicrosecondTime)) {
-          // We need to adjust shift.
-
-          long newTZero = timeInMicroseconds - expectedRealMicrosecondTime;
-          setTimeZero(originatorId, newTZero);
-          op = Op.ZERO_OFFSET_WITH_CORRECTION;
-          lastCorrection = newTZero - tZero;
-          tZero = newTZero;
-        } else {
-          op = Op.ZERO_OFFSET;
+      final long expectedRealMicrosecondTime = (tMillis - masterPcTimeZero) * 1000;
+      final long microsecondTime = timeInMicroseconds - tZero;
+      if (isDriftTooLarge(microsecondTime, expectedRealMicrosecondTime)) {
+        // We need to adjust shift.
+        final long newTZero = timeInMicroseconds - expectedRealMicrosecondTime;
+        synchronized (this) {
+          replaceTimeZero(o.tZero, newTZero);
+          lastCorrection = newTZero - o.tZero;
+          o.tZero = newTZero;
         }
+        op = Op.ZERO_OFFSET_WITH_CORRECTION;
+        tZero = newTZero;
       } else {
         op = Op.ZERO_OFFSET;
       }
+    } else {
+      op = Op.ZERO_OFFSET;
     }
-    lastOp = op;
+    lastOp.set(op);
     return timeInMicroseconds - tZero;
   }
 
+  // First event from this originator. Calculate tZero.
+  private synchronized Op firstTimeZero(final Originator o, final long tMillis, final long timeInMicroseconds) {
+    if (o.tZero != NOT_SET) {
+      // Another thread got here first.
+      return Op.ZERO_OFFSET;
+    }
+    final long tZero;
+    final Op op;
+    if (timeZeros.isEmpty()) {
+      // Wow, first event ever!
+      tZero = timeInMicroseconds;
+      masterPcTimeZero = tMillis;
+      op = Op.GLOBAL_ZERO;
+    } else {
+      // Not the first ever. Match this against the millisecond supplier
+      final Long usableT0 = findUsableTimeZero(tMillis, timeInMicroseconds);
+      if (usableT0 == null) {
+        // Nope, not synchronized. Needs to correct,
+        final long expectedRealMicrosecondTime = (tMillis - masterPcTimeZero) * 1000;
+        tZero = timeInMicroseconds - expectedRealMicrosecondTime;
+        op = Op.ORIGINATOR_ZERO_WITH_CORRECTION;
+        lastCorrection = tZero;
+      } else {
+        // we can trust the timeInMicroseconds! Use same T0.
+        tZero = usableT0;
+        op = Op.ORIGINATOR_ZERO;
+      }
+    }
+    replaceTimeZero(NOT_SET, tZero);
+    o.tZero = tZero;
+    return op;
+  }
+
+  private void replaceTimeZero(final long oldTZero, final long newTZero) {
+    if (oldTZero != NOT_SET)
+      timeZeros.computeIfPresent(oldTZero, (k, n) -> n == 1 ? null : n - 1);
+    timeZeros.merge(newTZero, 1, Integer::sum);
+  }
+
   // Returns true if the times are within treshold.
   private boolean isDriftTooLarge(final long micros1, final long micros2) {
     return Math.abs(micros1 - micros2) >= driftThreshold;
   }
 
+  // The time zeros in use are sorted, so the closest ones to the time zero
+  // this event implies are looked up rather than scanned for.
   private Long findUsableTimeZero(final long tMillis, final long micros) {
-    long expectedRealMicrosecondTime = (tMillis - masterPcTimeZero) * 1000;
-    for (Long t0 : tZeroMap.values()) {
-      long expectedEventMicrosecondTime = t0 + expectedRealMicrosecondTime;
-      if (isZeroTimeWithinThreshold(expectedEventMicrosecondTime, micros))
-        return t0;
-    }
+    final long expectedRealMicrosecondTime = (tMillis - masterPcTimeZero) * 1000;
+    final long impliedT0 = micros - expectedRealMicrosecondTime;
+    final Long below = timeZeros.floorKey(impliedT0);
+    final Long above = timeZeros.ceilingKey(impliedT0);
+    Long t0 = below;
+    if (t0 == null || (above != null && above - impliedT0 < impliedT0 - below))
+      t0 = above;
+    if (isZeroTimeWithinThreshold(t0 + expectedRealMicrosecondTime, micros))
+      return t0;
     return null;
   }
 
   private boolean isZeroTimeWithinThreshold(final long micros1, final long micros2) {
     return Math.abs(micros1 - micros2) < zeroTimeDifferenceThreshold;
   }
+
+  /**
+   * State of a single originator.
+   */
+  public final class Originator {
+    private final int id;
+    private volatile long tZero = NOT_SET;
+
+    private Originator(final int id) {
+      this.id = id;
+    }
+
+    /** Returns the {@link OriginatorRegistry} id of the originator. */
+    public int id() {
+      return id;
+    }
+
+    /** Returns the originator name. */
+    public String name() {
+      return OriginatorRegistry.name(id);
+    }
+
+    /**
+     * Same as {@link TimeSynchronizer#synchronizedTime(String, long)} for this
+     * originator, without the lookup.
+     */
+    public long synchronizedTime(final long timeInMicroseconds) {
+      return TimeSynchronizer.this.synchronizedTime(this, timeInMicroseconds);
+    }
+  }
 }
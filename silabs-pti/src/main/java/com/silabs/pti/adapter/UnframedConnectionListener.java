@@ -18,6 +18,7 @@ import java.io.IOException;
 
 import com.silabs.pti.format.IDebugChannelExportFormat;
 import com.silabs.pti.format.IDebugChannelExportOutput;
+import com.silabs.pti.format.OutputOptions;
 import com.silabs.pti.log.PtiLog;
 import com.silabs.pti.util.ICharacterListener;
 
@@ -33,16 +34,29 @@ public class UnframedConnectionListener<T> implements ICharacterListener {
   private final IDebugChannelExportFormat<T> fileFormat;
 
   public UnframedConnectionListener(final File f, final IDebugChannelExportFormat<T> format) throws IOException {
-    this.out = format.createOutput(f, false);
+    this(f, format, OutputOptions.defaults());
+  }
+
+  public UnframedConnectionListener(final File f,
+                                    final IDebugChannelExportFormat<T> format,
+                                    final OutputOptions options) throws IOException {
+    this(format.createOutput(f, false, options), format);
+  }
+
+  public UnframedConnectionListener(final IDebugChannelExportOutput<T> out, final IDebugChannelExportFormat<T> format) {
+    this.out = out;
     this.fileFormat = format;
   }
 
   @Override
   public void received(final byte[] ch, final int offset, final int len) {
+    final T w = out.acquire();
     try {
-      fileFormat.writeRawUnframedData(out.writer(), ch, offset, len);
+      fileFormat.writeRawUnframedData(w, ch, offset, len);
     } catch (final IOException ioe) {
       PtiLog.error("Could not write data.", ioe);
+    } finally {
+      out.release(w);
     }
   }
 
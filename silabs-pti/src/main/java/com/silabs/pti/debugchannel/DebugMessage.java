@@ -14,6 +14,9 @@
 
 package com.silabs.pti.debugchannel;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 import com.silabs.na.pcap.util.ByteArrayUtil;
 
 /**
@@ -21,6 +24,15 @@ import com.silabs.na.pcap.util.ByteArrayUtil;
  * that generated the message, the type of the debug message, the timestamp of
  * the message, and the actual contents of the message, if any, as a byte array.
  *
+ * The header is parsed when the message is made, but the payload is not
+ * copied: the message keeps the raw frame and the offset and length of the
+ * payload within it. Use {@link #payloadArray()}, {@link #payloadOffset()} and
+ * {@link #contentLength()} or {@link #payload()} to read it in place.
+ * {@link #contents()} makes a copy on first use.
+ *
+ * See {@link DebugMessageView} for a variant that does not parse anything
+ * until asked to.
+ *
  * @author Matteo Neale Paris (matteo@ember.com)
  */
 public class DebugMessage {
@@ -45,6 +57,11 @@ public class DebugMessage {
       return sequenceLength;
     }
 
+    /** Returns the mask of the sequence number, 0xFF or 0xFFFF. */
+    public int sequenceMask() {
+      return sequenceLength == 2 ? 0xFFFF : 0xFF;
+    }
+
     public int sizeLength() {
       return sizeLength;
     }
@@ -63,14 +80,17 @@ public class DebugMessage {
     }
   }
 
-  private String originatorId;
+  private int originator = OriginatorRegistry.NONE;
   private long pcTime; // timestamp when received by the PC
   private Version version;
   private long networkTime; // backchannel generated network timestamp
   private int debugType;
   private int seqNumber = -1; // if -1, then V1 with no sequence numbers.
   private int flags = 0;
-  private byte[] contents;
+  private byte[] raw; // the frame holding the payload
+  private int payloadOffset;
+  private int payloadLength;
+  private byte[] contents; // copy of the payload, made on demand
 
   private DebugMessage() {
   }
@@ -78,9 +98,42 @@ public class DebugMessage {
   public DebugMessage(final long networkTime, final int debugType, final byte[] contents) {
     this.networkTime = networkTime;
     this.debugType = debugType;
+    this.raw = contents;
+    this.payloadOffset = 0;
+    this.payloadLength = contents.length;
     this.contents = contents;
   }
 
+  /**
+   * Creates the message that marks a gap in the sequence numbers of the
+   * originator, to go ahead of the message after the gap. The contents are the
+   * expected and the received sequence number, 2 bytes each, big endian.
+   *
+   * No debug message type stands for a gap, so the marker is always written
+   * with {@link EventType#OUT_OF_SEQUENCE}, which the formats show as a gap
+   * rather than as a message of unknown type.
+   */
+  static DebugMessage outOfSequence(final int originator,
+                                    final long networkTime,
+                                    final int expected,
+                                    final int received) {
+    final DebugMessage dm = new DebugMessage(networkTime,
+                                             DebugMessageType.INVALID.value(),
+                                             new byte[] { (byte) (expected >> 8), (byte) expected,
+                                                 (byte) (received >> 8), (byte) received });
+    dm.originator = originator;
+    dm.seqNumber = received;
+    return dm;
+  }
+
+  /**
+   * Returns the sequence number that was expected, if this is a sequence gap
+   * marker. The received one is {@link #seqNumber()}.
+   */
+  public int expectedSeqNumber() {
+    return ((raw[payloadOffset] & 0xFF) << 8) | (raw[payloadOffset + 1] & 0xFF);
+  }
+
   /**
    * This is a convenience method to return a human readable value for the various
    * debug types.
@@ -103,14 +156,43 @@ public class DebugMessage {
 
   /** Returns the host. */
   public String originatorId() {
-    return originatorId;
+    return OriginatorRegistry.name(originator);
+  }
+
+  /** Returns the {@link OriginatorRegistry} id of the host. */
+  public int originator() {
+    return originator;
   }
 
-  /** Returns the bytearray contents. */
+  /**
+   * Returns the bytearray contents. The first call copies the payload out of
+   * the frame, so prefer the slice accessors where possible.
+   */
   public byte[] contents() {
+    if (contents == null)
+      contents = Arrays.copyOfRange(raw, payloadOffset, payloadOffset + payloadLength);
     return contents;
   }
 
+  /**
+   * Returns the array that holds the payload, without copying. The payload
+   * starts at {@link #payloadOffset()} and is {@link #contentLength()} bytes
+   * long. The array must not be modified.
+   */
+  public byte[] payloadArray() {
+    return raw;
+  }
+
+  /** Returns the index of the first payload byte in {@link #payloadArray()}. */
+  public int payloadOffset() {
+    return payloadOffset;
+  }
+
+  /** Returns a read-only buffer over the payload, without copying. */
+  public ByteBuffer payload() {
+    return ByteBuffer.wrap(raw, payloadOffset, payloadLength).slice().asReadOnlyBuffer();
+  }
+
   /**
    * This method returns same value as contents() method if the debug message is
    * valid type. Otherwise it prepends the content with the unknown debug message,
@@ -123,11 +205,10 @@ public class DebugMessage {
     int dt = debugType();
     DebugMessageType dmt = DebugMessageType.get(dt);
     if (dmt == DebugMessageType.INVALID) {
-      byte[] c = contents();
-      eventContents = new byte[c.length + 2];
+      eventContents = new byte[payloadLength + 2];
       eventContents[0] = (byte) (0x00FF & (dt >> 8));
       eventContents[1] = (byte) (0x00FF & dt);
-      System.arraycopy(c, 0, contents, 2, c.length);
+      System.arraycopy(raw, payloadOffset, eventContents, 2, payloadLength);
     } else {
       eventContents = contents();
     }
@@ -136,7 +217,7 @@ public class DebugMessage {
 
   /** Returns the length of the contents. */
   public int contentLength() {
-    return contents.length;
+    return payloadLength;
   }
 
   /** Returns the debug type */
@@ -160,7 +241,9 @@ public class DebugMessage {
    * @return byte
    */
   public byte contents(final int i) {
-    return contents[i];
+    if (i < 0 || i >= payloadLength)
+      throw new ArrayIndexOutOfBoundsException(i);
+    return raw[payloadOffset + i];
   }
 
   /** Return debug message flags */
@@ -201,13 +284,11 @@ public class DebugMessage {
       return null;
 
     DebugMessage debug = new DebugMessage();
-    debug.originatorId = originatorId;
+    debug.originator = OriginatorRegistry.id(originatorId);
     debug.pcTime = pcTime;
     debug.networkTime = bytesToLong(raw, 0, 4);
     debug.debugType = (raw[4] & 0xFF);
-    debug.contents = new byte[raw.length - 5];
-    if (debug.contents.length > 0)
-      System.arraycopy(raw, 5, debug.contents, 0, debug.contents.length);
+    debug.setPayload(raw, 5, raw.length - 5);
 
     return debug;
   }
@@ -240,39 +321,78 @@ public class DebugMessage {
    *                     received.
    */
   public static DebugMessage make(final String originatorId, final byte[] raw, final long pcTime) {
-    if (raw.length < 2)
+    return make(OriginatorRegistry.id(originatorId), raw, 0, raw.length, pcTime);
+  }
+
+  /**
+   * Same as {@link #make(String, byte[], long)}, for an originator already
+   * registered with {@link OriginatorRegistry}.
+   */
+  public static DebugMessage make(final int originator, final byte[] raw, final long pcTime) {
+    return make(originator, raw, 0, raw.length, pcTime);
+  }
+
+  /**
+   * Same as {@link #make(String, byte[], long)}, but for a frame that occupies
+   * only a range of the array. The array is retained, not copied.
+   */
+  public static DebugMessage make(final String originatorId,
+                                  final byte[] raw,
+                                  final int offset,
+                                  final int length,
+                                  final long pcTime) {
+    return make(OriginatorRegistry.id(originatorId), raw, offset, length, pcTime);
+  }
+
+  /**
+   * Same as {@link #make(int, byte[], long)}, but for a frame that occupies
+   * only a range of the array. The array is retained, not copied.
+   */
+  public static DebugMessage make(final int originator,
+                                  final byte[] raw,
+                                  final int offset,
+                                  final int length,
+                                  final long pcTime) {
+    if (length < 2)
       return null;
 
     DebugMessage debug = new DebugMessage();
-    debug.originatorId = originatorId;
+    debug.originator = originator;
     debug.pcTime = pcTime;
-    debug.version = Version.resolve((int) bytesToLong(raw, 0, 2));
+    debug.version = Version.resolve((int) bytesToLong(raw, offset, 2));
     if (debug.version == Version.V3) {
-      if (raw.length < 18)
+      if (length < DebugMessageView.V3_HEADER_LENGTH)
         return null;
-      debug.networkTime = bytesToLong(raw, 2, 8) / 1000;
-      debug.debugType = (int) bytesToLong(raw, 10, 2);
-      debug.flags = (int) bytesToLong(raw, 12, 4);
-      debug.seqNumber = (int) bytesToLong(raw, 16, 2);
-      debug.contents = new byte[raw.length - 18];
-      if (debug.contents.length > 0)
-        System.arraycopy(raw, 18, debug.contents, 0, debug.contents.length);
+      debug.networkTime = bytesToLong(raw, offset + 2, 8) / 1000;
+      debug.debugType = (int) bytesToLong(raw, offset + 10, 2);
+      debug.flags = (int) bytesToLong(raw, offset + 12, 4);
+      debug.seqNumber = (int) bytesToLong(raw, offset + 16, 2);
+      debug.setPayload(raw,
+                       offset + DebugMessageView.V3_HEADER_LENGTH,
+                       length - DebugMessageView.V3_HEADER_LENGTH);
     } else {
       // We're assuming version 2, since in the code we occasionally parsed
       // random junk as version 2. Needs to be cleaned up.
-      if (raw.length < 11)
+      if (length < DebugMessageView.V2_HEADER_LENGTH)
         return null;
-      debug.networkTime = bytesToLong(raw, 2, 6);
-      debug.debugType = (int) bytesToLong(raw, 8, 2);
-      debug.seqNumber = (raw[10] & 0xFF);
-      debug.contents = new byte[raw.length - 11];
-      if (debug.contents.length > 0)
-        System.arraycopy(raw, 11, debug.contents, 0, debug.contents.length);
+      debug.networkTime = bytesToLong(raw, offset + 2, 6);
+      debug.debugType = (int) bytesToLong(raw, offset + 8, 2);
+      debug.seqNumber = (raw[offset + 10] & 0xFF);
+      debug.setPayload(raw,
+                       offset + DebugMessageView.V2_HEADER_LENGTH,
+                       length - DebugMessageView.V2_HEADER_LENGTH);
     }
 
     return debug;
   }
 
+  private void setPayload(final byte[] raw, final int offset, final int length) {
+    this.raw = raw;
+    this.payloadOffset = offset;
+    this.payloadLength = length;
+    this.contents = null;
+  }
+
   /**
    * Converts an array of bytes to a long. The LSB is raw[startIndex] and the MSB
    * is raw[startIndex + length - 1].
@@ -283,9 +403,8 @@ public class DebugMessage {
 
   @Override
   public String toString() {
-    final byte[] raw = contents;
-    return "[" + originatorId + " " + networkTime + " " + getTypeName(debugType) + "] ["
-        + ByteArrayUtil.formatByteArray(raw, true) + "]";
+    return "[" + originatorId() + " " + networkTime + " " + getTypeName(debugType) + "] ["
+        + ByteArrayUtil.formatByteArray(raw, payloadOffset, payloadLength, true, true) + "]";
   }
 
 }
@@ -27,17 +27,20 @@ import com.silabs.pti.log.PtiLog;
 public class DebugMessageCollector implements IConnectionListener {
 
   private IDebugMessageListener listener = null;
-  private final String originatorId;
+  private final int originator;
   private int count;
+  private final SequenceMonitor sequence = new SequenceMonitor();
 
   public DebugMessageCollector(final String originatorId) {
-    this.originatorId = originatorId;
+    this.originator = OriginatorRegistry.id(originatorId);
     this.count = 0;
   }
 
   @Override
   public void messageReceived(final byte[] message, final long pcTime) {
-    DebugMessage debugMessage = DebugMessage.make(originatorId, message, pcTime);
+    DebugMessage debugMessage = DebugMessage.make(originator, message, pcTime);
+    if (debugMessage != null)
+      sequence.newSequence(debugMessage.seqNumber(), debugMessage.version().sequenceMask());
     if (debugMessage != null && listener != null) {
       count++;
       try {
@@ -61,4 +64,14 @@ public class DebugMessageCollector implements IConnectionListener {
   public int count() {
     return count;
   }
+
+  /** Returns the number of gaps in the sequence numbers so far. */
+  public long sequenceGaps() {
+    return sequence.gaps();
+  }
+
+  /** Returns the number of messages lost in the gaps so far. */
+  public long lostMessages() {
+    return sequence.lostMessages();
+  }
 }
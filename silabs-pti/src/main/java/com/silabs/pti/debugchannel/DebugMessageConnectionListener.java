@@ -15,9 +15,12 @@ package com.silabs.pti.debugchannel;
 
 import java.io.IOException;
 import java.util.HashSet;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.silabs.pti.OutputMap;
+import com.silabs.pti.adapter.Histogram;
 import com.silabs.pti.adapter.IConnectionListener;
+import com.silabs.pti.adapter.MetricsRegistry;
 import com.silabs.pti.adapter.TimeSynchronizer;
 import com.silabs.pti.filter.IDebugMessageFilter;
 import com.silabs.pti.format.IDebugChannelExportFormat;
@@ -34,12 +37,24 @@ import com.silabs.pti.log.PtiLog;
 public class DebugMessageConnectionListener<T> implements IConnectionListener {
   private final IDebugChannelExportFormat<T> ptiFormat;
   private final String originator;
+  private final int originatorId;
   private volatile int nReceived = 0;
   private final OutputMap<T> output;
   private long t0 = -1;
-  private final TimeSynchronizer timeSync;
+  private final TimeSynchronizer.Originator timeSync;
 
   private IDebugMessageFilter filter = null;
+  private EnergyCorrelator energyCorrelator = null;
+  private TimeOrderedMerger<T> merger = null;
+  private final SequenceMonitor sequence = new SequenceMonitor();
+  // Registered for the life of the listener, removed in close.
+  private final Histogram filterMetric;
+  private final Histogram parseMetric;
+  private final Histogram formatMetric;
+  private final LongAdder droppedMetric;
+  private boolean sequenceMarkers = false;
+  // Reused for every incoming frame, so filtering does not allocate.
+  private final DebugMessageView view = new DebugMessageView();
 
   // typically we capture from N devices and write to 1 single file.
   // this ensures us to only write 1 header entry.
@@ -51,8 +66,15 @@ public class DebugMessageConnectionListener<T> implements IConnectionListener {
                                         final TimeSynchronizer timeSynchronizer) {
     this.ptiFormat = format;
     this.originator = originator;
+    this.originatorId = OriginatorRegistry.id(originator);
     this.output = output;
-    this.timeSync = timeSynchronizer;
+    this.timeSync = timeSynchronizer.originator(originatorId);
+    final MetricsRegistry metrics = MetricsRegistry.get();
+    this.filterMetric = metrics.histogram(originator + ".filter");
+    this.parseMetric = metrics.histogram(originator + ".parse");
+    this.formatMetric = metrics.histogram(originator + ".format");
+    this.droppedMetric = metrics.counter(originator + ".filtered");
+    metrics.gauge(originator + ".lost", sequence::lostMessages);
 
     for (final IDebugChannelExportOutput<T> v : output.values()) {
       if (!writtenHeader.contains(v)) {
@@ -74,7 +96,7 @@ public class DebugMessageConnectionListener<T> implements IConnectionListener {
   @Override
   public void messageReceived(final byte[] message, final long pcTime) {
     @SuppressWarnings("resource")
-    final IDebugChannelExportOutput<T> outputStream = output.output(originator);
+    final IDebugChannelExportOutput<T> outputStream = output.output(originatorId);
     long t;
     if (t0 == -1) {
       t0 = System.currentTimeMillis();
@@ -83,7 +105,7 @@ public class DebugMessageConnectionListener<T> implements IConnectionListener {
       t = System.currentTimeMillis() - t0;
     }
     try {
-      if (processDebugMsg(outputStream, t, originator, message, timeSync, ptiFormat, filter))
+      if (processDebugMsg(outputStream, t, message))
         nReceived++;
     } catch (final IOException ioe) {
       PtiLog.error("Can't write output file", ioe);
@@ -94,12 +116,56 @@ public class DebugMessageConnectionListener<T> implements IConnectionListener {
   public void connectionStateChanged(final boolean isConnected) {
   }
 
+  /**
+   * Removes the metrics of the listener. Called by the owner once it is done
+   * with the listener, so that the counts run on across reconnects.
+   */
+  public void close() {
+    final MetricsRegistry metrics = MetricsRegistry.get();
+    metrics.removeHistogram(originator + ".filter", filterMetric);
+    metrics.removeHistogram(originator + ".parse", parseMetric);
+    metrics.removeHistogram(originator + ".format", formatMetric);
+    metrics.removeCounter(originator + ".filtered", droppedMetric);
+    metrics.removeGauge(originator + ".lost");
+  }
+
   public void setFilter(final IDebugMessageFilter debugMessageFilter) {
     this.filter = debugMessageFilter;
   }
 
-  private static void timeCorrection(final TimeSynchronizer timeSync, final DebugMessage message) {
-    final long actualTime = timeSync.synchronizedTime(message.originatorId(), message.networkTime());
+  /** Sets the correlator that the messages kept by the filter also go to. */
+  public void setEnergyCorrelator(final EnergyCorrelator correlator) {
+    this.energyCorrelator = correlator;
+  }
+
+  /**
+   * Sets the merger that puts the messages of all adapters in time order
+   * before they are formatted.
+   */
+  public void setMerger(final TimeOrderedMerger<T> merger) {
+    this.merger = merger;
+  }
+
+  /**
+   * Sets whether an out of sequence marker is written ahead of each message
+   * that follows lost ones. Formats that write raw bytes get no markers.
+   */
+  public void setSequenceMarkers(final boolean markers) {
+    this.sequenceMarkers = markers;
+  }
+
+  /** Returns the number of gaps in the sequence numbers so far. */
+  public long sequenceGaps() {
+    return sequence.gaps();
+  }
+
+  /** Returns the number of messages lost in the gaps so far. */
+  public long lostMessages() {
+    return sequence.lostMessages();
+  }
+
+  private void timeCorrection(final DebugMessage message) {
+    final long actualTime = timeSync.synchronizedTime(message.networkTime());
     message.setNetworkTime(actualTime);
   }
 
@@ -108,36 +174,92 @@ public class DebugMessageConnectionListener<T> implements IConnectionListener {
    *
    * @return String
    */
-  private static <T> boolean processDebugMsg(final IDebugChannelExportOutput<T> outputStream,
-                                             final long timeMs,
-                                             final String originator,
-                                             final byte[] bytes,
-                                             final TimeSynchronizer timeSync,
-                                             final IDebugChannelExportFormat<T> format,
-                                             final IDebugMessageFilter filter) throws IOException {
-    if (format.isUsingRawBytes()) {
-
-      // If we have a filter, we need to create a debug message just to deal with
-      // filtering.
-      if (filter != null) {
-        final DebugMessage dm = DebugMessage.make("", bytes, timeMs);
-        if (!filter.isMessageKept(dm))
-          return false;
+  private boolean processDebugMsg(final IDebugChannelExportOutput<T> outputStream,
+                                  final long timeMs,
+                                  final byte[] bytes) throws IOException {
+    view.wrap(bytes);
+    // Every frame counts for the sequence, even if filtered out.
+    final int expected = view.isValid()
+        ? sequence.newSequence(view.seqNumber(), view.version().sequenceMask())
+        : SequenceMonitor.OK_FIRST_SEQUENCE;
+    // Filter on the raw frame first, so dropped messages are never parsed.
+    long start = System.nanoTime();
+    if (filter != null) {
+      final boolean kept = filter.isFrameKept(view, originatorId, timeMs);
+      final long now = System.nanoTime();
+      filterMetric.record(now - start);
+      start = now;
+      if (!kept) {
+        droppedMetric.increment();
+        return false;
       }
+    }
 
-      return format.formatRawBytes(outputStream.writer(), timeMs, bytes, 0, bytes.length);
-    } else {
-      final DebugMessage dm = DebugMessage.make("", bytes, timeMs);
+    final boolean raw = ptiFormat.isUsingRawBytes();
+    if (raw && energyCorrelator == null && merger == null)
+      return formatRaw(outputStream, timeMs, bytes, start);
 
-      // If we have a filter, apply it.
-      if (filter != null && !filter.isMessageKept(dm))
-        return false;
+    final DebugMessage dm = DebugMessage.make(originatorId, bytes, timeMs);
+    if (dm == null)
+      return raw && formatRaw(outputStream, timeMs, bytes, start);
+
+    final EventType type = EventType.fromDebugMessageCode(dm.debugType());
+    // time correction
+    timeCorrection(dm);
+    final long parsed = System.nanoTime();
+    parseMetric.record(parsed - start);
+    if (energyCorrelator != null)
+      energyCorrelator.messageReceived(originator, dm, type);
+    if (expected >= 0 && sequenceMarkers && !raw)
+      writeOutOfSequence(outputStream, dm.networkTime(), expected, dm.seqNumber(), timeMs);
+    if (merger != null) {
+      merger.submit(outputStream, dm, type, bytes, timeMs);
+      formatMetric.recordSince(parsed);
+      return true;
+    }
+    if (raw)
+      return formatRaw(outputStream, timeMs, bytes, parsed);
+    final T w = outputStream.acquire();
+    final boolean written;
+    try {
+      written = ptiFormat.formatDebugMessage(w, originator, dm, type);
+    } finally {
+      outputStream.release(w);
+    }
+    formatMetric.recordSince(parsed);
+    return written;
+  }
+
+  private boolean formatRaw(final IDebugChannelExportOutput<T> outputStream,
+                            final long timeMs,
+                            final byte[] bytes,
+                            final long startNanos) throws IOException {
+    final T w = outputStream.acquire();
+    final boolean written;
+    try {
+      written = ptiFormat.formatRawBytes(w, timeMs, bytes, 0, bytes.length);
+    } finally {
+      outputStream.release(w);
+    }
+    formatMetric.recordSince(startNanos);
+    return written;
+  }
 
-      final DebugMessageType dmt = DebugMessageType.get(dm.debugType());
-      final EventType type = EventType.fromDebugMessage(dmt);
-      // time correction
-      DebugMessageConnectionListener.timeCorrection(timeSync, dm);
-      return format.formatDebugMessage(outputStream.writer(), originator, dm, type);
+  private void writeOutOfSequence(final IDebugChannelExportOutput<T> outputStream,
+                                  final long networkTime,
+                                  final int expected,
+                                  final int received,
+                                  final long timeMs) throws IOException {
+    final DebugMessage marker = DebugMessage.outOfSequence(originatorId, networkTime, expected, received);
+    if (merger != null)
+      merger.submit(outputStream, marker, EventType.OUT_OF_SEQUENCE, marker.contents(), timeMs);
+    else {
+      final T w = outputStream.acquire();
+      try {
+        ptiFormat.formatDebugMessage(w, originator, marker, EventType.OUT_OF_SEQUENCE);
+      } finally {
+        outputStream.release(w);
+      }
     }
   }
-}
\ No newline at end of file
+}
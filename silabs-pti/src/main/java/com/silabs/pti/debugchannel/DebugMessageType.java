@@ -16,6 +16,7 @@
 
 package com.silabs.pti.debugchannel;
 
+import java.util.Arrays;
 import java.util.ResourceBundle;
 
 public enum DebugMessageType {
@@ -90,13 +91,32 @@ public enum DebugMessageType {
   INVALID(-1);
 
   private final int value;
+  private String description;
+  private String longDescription;
   private static final String BUNDLE_NAME = "debugMessageType";
-  private static final ResourceBundle names = ResourceBundle.getBundle(BUNDLE_NAME);
+
+  // Dense lookup table, indexed by the 16-bit code. Unused codes are INVALID.
+  private static final DebugMessageType[] BY_CODE = new DebugMessageType[65536];
+
+  static {
+    final ResourceBundle names = ResourceBundle.getBundle(BUNDLE_NAME);
+    Arrays.fill(BY_CODE, INVALID);
+    for (DebugMessageType t : values()) {
+      t.description = bundleString(names, t.name(), t.name().toLowerCase());
+      t.longDescription = bundleString(names, t.name() + ".long", t.description);
+      if (t != INVALID)
+        BY_CODE[t.value] = t;
+    }
+  }
 
   private DebugMessageType(final int value) {
     this.value = value;
   }
 
+  private static String bundleString(final ResourceBundle names, final String key, final String fallback) {
+    return names.containsKey(key) ? names.getString(key) : fallback;
+  }
+
   /** Returns the integer value of this debug message type */
   public int value() {
     return value;
@@ -104,20 +124,12 @@ public enum DebugMessageType {
 
   /** Returns human-readable description of the debug message type, 10 char max */
   public String description() {
-    try {
-      return names.getString(name());
-    } catch (Exception e) {
-      return name().toLowerCase();
-    }
+    return description;
   }
 
   /** Returns human-readable long description of the debug message type */
   public String longDescription() {
-    try {
-      return names.getString(name() + ".long");
-    } catch (Exception e) {
-      return description();
-    }
+    return longDescription;
   }
 
   /**
@@ -125,21 +137,9 @@ public enum DebugMessageType {
    * not valid debug message type.
    */
   public static DebugMessageType get(final int value) {
-    DebugMessageType[] values = values();
-    int low = 0;
-    int high = values.length - 1;
-    while (low <= high) {
-      int mid = (low + high) >>> 1;
-      DebugMessageType dmt = values[mid];
-      if (dmt.value() == value) {
-        return dmt;
-      } else if (dmt.value() > value) {
-        high = mid - 1;
-      } else {
-        low = mid + 1;
-      }
-    }
-    return DebugMessageType.INVALID;
+    if (value < 0 || value >= BY_CODE.length)
+      return INVALID;
+    return BY_CODE[value];
   }
 
   public static int featureLevel() {
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.debugchannel;
+
+import java.nio.ByteBuffer;
+
+import com.silabs.na.pcap.util.ByteArrayUtil;
+
+/**
+ * Flyweight view of a deframed debug message. It holds nothing but a reference
+ * to the frame and its bounds, and decodes each header field only when it is
+ * asked for, so a single instance can be re-pointed at frame after frame with
+ * {@link #wrap(byte[], int, int)} without allocating.
+ *
+ * The layout is the same as the one understood by
+ * {@link DebugMessage#make(String, byte[], long)}: version 3 frames have an 18
+ * byte header, anything else is treated as a version 2 frame with an 11 byte
+ * header. Use {@link #isValid()} before reading fields of a frame that came off
+ * the wire.
+ */
+public final class DebugMessageView {
+
+  /** Header length of a version 2 debug message. */
+  public static final int V2_HEADER_LENGTH = 11;
+  /** Header length of a version 3 debug message. */
+  public static final int V3_HEADER_LENGTH = 18;
+
+  private byte[] frame;
+  private int offset;
+  private int length;
+
+  /** Creates an empty view. Call {@link #wrap(byte[], int, int)} before use. */
+  public DebugMessageView() {
+  }
+
+  /** Points this view at the whole array. */
+  public DebugMessageView wrap(final byte[] frame) {
+    return wrap(frame, 0, frame.length);
+  }
+
+  /** Points this view at the given range of the array. */
+  public DebugMessageView wrap(final byte[] frame, final int offset, final int length) {
+    this.frame = frame;
+    this.offset = offset;
+    this.length = length;
+    return this;
+  }
+
+  /** Returns the array this view currently points at. */
+  public byte[] frame() {
+    return frame;
+  }
+
+  /** Returns the index of the first frame byte in {@link #frame()}. */
+  public int frameOffset() {
+    return offset;
+  }
+
+  /** Returns the length of the whole frame, header included. */
+  public int frameLength() {
+    return length;
+  }
+
+  /**
+   * Returns true if the frame is long enough to hold the header of its
+   * version. {@link DebugMessage#make(String, byte[], long)} returns null
+   * exactly for the frames where this returns false.
+   */
+  public boolean isValid() {
+    return length >= 2 && length >= headerLength();
+  }
+
+  /** Returns the version of the message. */
+  public DebugMessage.Version version() {
+    if (length < 2)
+      return DebugMessage.Version.UNKNOWN;
+    return DebugMessage.Version.resolve((int) read(0, 2));
+  }
+
+  /** Returns the header length for the version of this frame. */
+  public int headerLength() {
+    return isV3() ? V3_HEADER_LENGTH : V2_HEADER_LENGTH;
+  }
+
+  /** Returns the network time, in microseconds. */
+  public long networkTime() {
+    return isV3() ? read(2, 8) / 1000 : read(2, 6);
+  }
+
+  /** Returns the debug message type. */
+  public int debugType() {
+    return (int) (isV3() ? read(10, 2) : read(8, 2));
+  }
+
+  /** Returns the flags. Version 2 messages carry no flags, so this is 0. */
+  public int flags() {
+    return isV3() ? (int) read(12, 4) : 0;
+  }
+
+  /** Returns the sequence number. */
+  public int seqNumber() {
+    return isV3() ? (int) read(16, 2) : (frame[offset + 10] & 0xFF);
+  }
+
+  /** Returns the index of the first payload byte in {@link #frame()}. */
+  public int payloadOffset() {
+    return offset + headerLength();
+  }
+
+  /** Returns the number of payload bytes. */
+  public int payloadLength() {
+    return length - headerLength();
+  }
+
+  /** Returns a read-only buffer over the payload, without copying. */
+  public ByteBuffer payload() {
+    return ByteBuffer.wrap(frame, payloadOffset(), payloadLength()).slice().asReadOnlyBuffer();
+  }
+
+  /**
+   * Turns the current frame into a standalone debug message. The message keeps
+   * a reference to the frame, so the frame must not be reused afterwards.
+   *
+   * @return message, or null if the frame is not valid.
+   */
+  public DebugMessage toDebugMessage(final String originatorId, final long pcTime) {
+    return DebugMessage.make(originatorId, frame, offset, length, pcTime);
+  }
+
+  /**
+   * Same as {@link #toDebugMessage(String, long)}, for an originator
+   * registered with {@link OriginatorRegistry}.
+   */
+  public DebugMessage toDebugMessage(final int originator, final long pcTime) {
+    return DebugMessage.make(originator, frame, offset, length, pcTime);
+  }
+
+  private boolean isV3() {
+    return length >= 2 && read(0, 2) == 3;
+  }
+
+  private long read(final int index, final int count) {
+    return ByteArrayUtil.byteArrayToLong(frame, offset + index, count, false);
+  }
+}
@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.debugchannel;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.silabs.pti.decode.AemCurrentRingWindow;
+import com.silabs.pti.decode.AemDecoder;
+import com.silabs.pti.format.FileOutputs;
+import com.silabs.pti.format.OutputOptions;
+
+/**
+ * Attributes AEM energy to radio packets, by joining the AEM samples and the
+ * packets of each originator on time.
+ *
+ * For each originator, the samples of the last look-back period are kept in an
+ * {@link AemCurrentRingWindow}. Packets wait until samples up to their end
+ * have arrived, then the current is integrated over their on-air time, as
+ * computed by {@link PtiUtilities#startEndTime} for the radio configuration of
+ * the packet, and a CSV line is written. A packet that no samples reach within
+ * the look-back period is written without energy. Packets on a PHY that isn't
+ * known are skipped. Memory is bounded by the look-back.
+ *
+ * Each sample is taken to hold until the next one. AEM reports current in mA,
+ * so with times in microseconds the charge is in nC and the energy in nJ.
+ */
+public class EnergyCorrelator implements Closeable {
+
+  /** Default look-back, in microseconds. */
+  public static final long DEFAULT_LOOK_BACK_US = 10_000_000;
+
+  static final String CSV_HEADER = "originator,type,start_us,end_us,length,samples,charge_nC,energy_nJ";
+
+  private final PrintStream out;
+  private final long lookBack;
+  private final Map<String, Node> nodes = new ConcurrentHashMap<>();
+  private final AtomicLong unknownPhy = new AtomicLong();
+
+  /**
+   * Creates a correlator that writes CSV lines into the stream.
+   *
+   * @param out            Stream to write to.
+   * @param lookBackMicros How long samples are kept, and packets wait for them.
+   */
+  public EnergyCorrelator(final PrintStream out, final long lookBackMicros) {
+    if (lookBackMicros <= 0)
+      throw new IllegalArgumentException("Look-back must be positive.");
+    this.out = out;
+    this.lookBack = lookBackMicros;
+    out.println(CSV_HEADER);
+  }
+
+  /**
+   * Creates a correlator that writes a CSV file, buffered and written like the
+   * capture files.
+   */
+  public static EnergyCorrelator open(final File f,
+                                      final long lookBackMicros,
+                                      final OutputOptions options) throws IOException {
+    return new EnergyCorrelator(new PrintStream(FileOutputs.open(f, false, options)), lookBackMicros);
+  }
+
+  /**
+   * Takes a time corrected message. AEM messages and packets are used, the
+   * rest is ignored.
+   */
+  public void messageReceived(final String originator, final DebugMessage dm, final EventType type) {
+    if (!type.isAem() && !type.isPacket())
+      return;
+    final Node node = nodes.computeIfAbsent(originator, o -> new Node(o, lookBack));
+    synchronized (node) {
+      if (type.isAem()) {
+        node.samples.add(new AemDecoder(dm.networkTime(), dm.payloadArray(), dm.payloadOffset(), dm.contentLength())
+            .window());
+        if (node.samples.size() > 0)
+          node.sampledUntil = node.samples.timestamp(node.samples.size() - 1);
+        node.latest = Math.max(node.latest, node.sampledUntil);
+      } else {
+        final DebugMessageType dmt = DebugMessageType.get(dm.debugType());
+        final RadioConfiguration config = PtiUtilities.radioConfiguration(dmt, dm);
+        if (config == null) {
+          unknownPhy.incrementAndGet();
+          return;
+        }
+        final long[] startEnd = PtiUtilities.startEndTime(dmt, dm, config);
+        node.pending.add(new Packet(type, startEnd[0], startEnd[1], dm.contentLength()));
+        node.latest = Math.max(node.latest, startEnd[1]);
+      }
+      drain(node, false);
+    }
+  }
+
+  /** Returns the number of packets skipped because their PHY isn't known. */
+  public long unknownPhyPackets() {
+    return unknownPhy.get();
+  }
+
+  /** Writes the packets still waiting, with what samples there are. */
+  @Override
+  public void close() {
+    for (final Node node : nodes.values()) {
+      synchronized (node) {
+        drain(node, true);
+      }
+    }
+    out.close();
+  }
+
+  // Writes the packets that have all their samples, or have waited too long.
+  private void drain(final Node node, final boolean all) {
+    Packet p;
+    while ((p = node.pending.peekFirst()) != null) {
+      if (!all && p.end > node.sampledUntil && p.end >= node.latest - lookBack)
+        return;
+      node.pending.removeFirst();
+      write(node, p);
+    }
+  }
+
+  private void write(final Node node, final Packet p) {
+    final AemCurrentRingWindow w = node.samples;
+    final int n = w.size();
+    double charge = 0;
+    double energy = 0;
+    // Samples that hold during some of the packet. A short one may fall
+    // entirely within a single sample.
+    int samples = 0;
+    // Sample holding at the start of the packet, or the first one after it.
+    int i = firstAfter(w, p.start) - 1;
+    for (i = Math.max(0, i); i < n && w.timestamp(i) <= p.end; i++) {
+      final long t = w.timestamp(i);
+      final long next = i + 1 < n ? w.timestamp(i + 1) : t;
+      final long overlap = Math.min(next, p.end) - Math.max(t, p.start);
+      if (overlap > 0) {
+        samples++;
+        charge += w.current(i) * (double) overlap;
+        energy += w.current(i) * (double) w.voltage(i) * overlap;
+      }
+    }
+    final StringBuilder sb = new StringBuilder(96);
+    sb.append(node.originator)
+        .append(',')
+        .append(p.type.name())
+        .append(',')
+        .append(p.start)
+        .append(',')
+        .append(p.end)
+        .append(',')
+        .append(p.length)
+        .append(',')
+        .append(samples)
+        .append(',');
+    if (samples > 0)
+      sb.append(charge).append(',').append(energy);
+    else
+      sb.append(',');
+    out.println(sb.toString());
+  }
+
+  // Index of the first sample after the time, by binary search.
+  private static int firstAfter(final AemCurrentRingWindow w, final long time) {
+    int lo = 0;
+    int hi = w.size();
+    while (lo < hi) {
+      final int mid = (lo + hi) >>> 1;
+      if (w.timestamp(mid) <= time)
+        lo = mid + 1;
+      else
+        hi = mid;
+    }
+    return lo;
+  }
+
+  private static final class Node {
+    private final String originator;
+    private final AemCurrentRingWindow samples;
+    private final Deque<Packet> pending = new ArrayDeque<>();
+    // Time of the latest sample, and the latest time seen at all.
+    private long sampledUntil = Long.MIN_VALUE;
+    private long latest = Long.MIN_VALUE;
+
+    Node(final String originator, final long lookBack) {
+      this.originator = originator;
+      this.samples = AemCurrentRingWindow.ofDuration(lookBack);
+    }
+  }
+
+  private static final class Packet {
+    private final EventType type;
+    private final long start;
+    private final long end;
+    private final int length;
+
+    Packet(final EventType type, final long start, final long end, final int length) {
+      this.type = type;
+      this.start = start;
+      this.end = end;
+      this.length = length;
+    }
+  }
+}
@@ -108,6 +108,14 @@ public class EventType implements Comparable<EventType> {
     return et;
   }
 
+  /**
+   * Returns the event type for a raw debug message type code, as found in the
+   * debug message header. Both lookups are dense table reads.
+   */
+  public static final EventType fromDebugMessageCode(final int code) {
+    return fromDebugMessage(DebugMessageType.get(code));
+  }
+
   private static boolean isAem(final DebugMessageType t) {
     return t.name().startsWith("AEM");
   }
@@ -721,13 +729,14 @@ public class EventType implements Comparable<EventType> {
     return description;
   }
 
-  /** This method is fairly heavy. Don't use too much */
+  /** Returns the debug message type of this event, or null if it has none. */
   public DebugMessageType debugMessageType() {
-    for (int i = 0; i < debugMessageEventTypes.length; i++) {
-      if (this == debugMessageEventTypes[i])
-        return DebugMessageType.values()[i];
-    }
-    return null;
+    if (category() != CATEGORY_BACKCHANNEL)
+      return null;
+    final DebugMessageType dmt = DebugMessageType.get(subtype() & 0xFFFF);
+    if (dmt == DebugMessageType.INVALID || debugMessageEventTypes[dmt.ordinal()] != this)
+      return null;
+    return dmt;
   }
 
   public boolean isDebugMessageType(final DebugMessageType debugMessageType) {
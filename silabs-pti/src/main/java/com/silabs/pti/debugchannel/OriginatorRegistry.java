@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.debugchannel;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process wide registry of originator names, such as "10.4.1.17" or
+ * "localhost:4905", that hands out dense int ids.
+ *
+ * Names are registered once, when a connection is set up, and the capture
+ * pipeline carries the id from there on. Per message state is kept in arrays
+ * indexed by id rather than in maps keyed by name, and the name is only looked
+ * up again to format human readable output. Ids are never reused.
+ */
+public final class OriginatorRegistry {
+
+  /** Id of no originator. Its name is null. */
+  public static final int NONE = -1;
+
+  private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+  private static volatile String[] names = new String[16];
+  private static int count = 0;
+
+  private OriginatorRegistry() {
+  }
+
+  /**
+   * Returns the id of the originator, registering it if it is new.
+   *
+   * @param name Originator name. null is {@link #NONE}.
+   * @return id
+   */
+  public static int id(final String name) {
+    if (name == null)
+      return NONE;
+    final Integer id = ids.get(name);
+    return id != null ? id : register(name);
+  }
+
+  /**
+   * Returns the id of the originator, or {@link #NONE} if it was never
+   * registered.
+   */
+  public static int find(final String name) {
+    if (name == null)
+      return NONE;
+    final Integer id = ids.get(name);
+    return id != null ? id : NONE;
+  }
+
+  /**
+   * Returns the name of the originator with the given id, or null if there is
+   * none.
+   */
+  public static String name(final int id) {
+    final String[] n = names;
+    return id >= 0 && id < n.length ? n[id] : null;
+  }
+
+  /** Returns the number of registered originators. Ids are below it. */
+  public static synchronized int size() {
+    return count;
+  }
+
+  private static synchronized int register(final String name) {
+    final Integer existing = ids.get(name);
+    if (existing != null)
+      return existing;
+    final int id = count++;
+    String[] n = names;
+    if (id == n.length)
+      n = Arrays.copyOf(n, n.length * 2);
+    n[id] = name;
+    // Published before the id, so whoever has the id can find the name.
+    names = n;
+    ids.put(name, id);
+    return id;
+  }
+}
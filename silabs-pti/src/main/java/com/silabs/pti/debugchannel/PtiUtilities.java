@@ -14,6 +14,8 @@
 
 package com.silabs.pti.debugchannel;
 
+import com.silabs.pti.protocol.Protocol;
+import com.silabs.pti.protocol.RadioInfoEfr32;
 import com.silabs.pti.util.MiscUtil;
 
 /**
@@ -72,6 +74,49 @@ public class PtiUtilities {
     return times;
   }
 
+  /**
+   * Returns the radio configuration of a packet, for
+   * {@link #startEndTime(DebugMessageType, DebugMessage, RadioConfiguration)}.
+   * The EM chips only have an 802.15.4 radio. EFR packets carry their protocol
+   * in the radio info at the end of the payload.
+   *
+   * @return radio configuration, or null if the packet doesn't tell, or its
+   *         protocol runs on a PHY that isn't known here.
+   */
+  public static RadioConfiguration radioConfiguration(final DebugMessageType dmt, final DebugMessage debugMessage) {
+    switch (dmt) {
+    case PACKET_TRACE:
+    case PACKET_TRACE_EM2420_RX:
+    case PACKET_TRACE_EM2420_TX:
+    case PACKET_TRACE_EM2XX_RX:
+    case PACKET_TRACE_EM2XX_TX:
+    case PACKET_TRACE_EM3XX_RX:
+    case PACKET_TRACE_EM3XX_TX:
+      return RadioConfiguration.FIFTEENFOUR;
+    case PACKET_TRACE_EFR_RX:
+    case PACKET_TRACE_EFR_TX:
+      final Protocol p = RadioInfoEfr32.determineProtocol(debugMessage.payloadArray(),
+                                                          debugMessage.payloadOffset(),
+                                                          debugMessage.contentLength());
+      if (p == null)
+        return null;
+      switch (p) {
+      case EMBER_PHY:
+      case THREAD_ON_RAIL:
+      case ZIGBEE_ON_RAIL:
+        return RadioConfiguration.FIFTEENFOUR;
+      case BLE:
+        return RadioConfiguration.BLE1;
+      default:
+        // Custom, Connect, Z-Wave and Wi-SUN PHYs are configured per
+        // application.
+        return null;
+      }
+    default:
+      return null;
+    }
+  }
+
   /**
    * 15.4 packets use this CRC scheme to stamp their packets.
    *
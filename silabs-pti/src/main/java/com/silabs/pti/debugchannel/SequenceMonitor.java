@@ -21,6 +21,11 @@ package com.silabs.pti.debugchannel;
  * It can deal with the fact that sequence # can be randomly switching between
  * different byte counts, and will assume that lower bytes follow the sequence.
  *
+ * It also counts the gaps and the messages lost in them. A number that is a
+ * little behind the expected one is a duplicate or a reordered message, not a
+ * gap of nearly a whole sequence: it is counted as such and otherwise ignored.
+ * A monitor is fed by a single thread, but the counts can be read from any.
+ *
  * Created on Sep 26, 2017
  * 
  * @author Timotej Ecimovic
@@ -43,8 +48,36 @@ public class SequenceMonitor {
    */
   public static int OK_SEQUENCE_LOW_BYTE_MATCHED = -3;
 
+  /**
+   * This is returned by newSequence if the number was seen before, or comes
+   * after the ones following it.
+   */
+  public static int OK_SEQUENCE_REORDERED = -4;
+
+  // How far behind the expected number a received one can be to be taken as
+  // reordered rather than as a gap.
+  static final int REORDER_WINDOW = 16;
+
   private int lastSequence = -1;
   private int lastMask = -1;
+  private volatile long gaps = 0;
+  private volatile long lost = 0;
+  private volatile long reordered = 0;
+
+  /** Returns the number of gaps in the sequence so far. */
+  public long gaps() {
+    return gaps;
+  }
+
+  /** Returns the number of sequence numbers skipped by the gaps so far. */
+  public long lostMessages() {
+    return lost;
+  }
+
+  /** Returns the number of duplicate or reordered sequence numbers so far. */
+  public long reordered() {
+    return reordered;
+  }
 
   /**
    * This method return value is as follows: a non-negative value means an error
@@ -55,6 +88,7 @@ public class SequenceMonitor {
    */
   public int newSequence(final int sequence, final int mask) {
     int returnValue;
+    int actualMask = mask;
     if (lastSequence == -1) {
       this.lastSequence = sequence;
       this.lastMask = mask;
@@ -62,7 +96,7 @@ public class SequenceMonitor {
     } else {
       boolean differentMask = (mask != lastMask);
       if (differentMask) {
-        int actualMask = (mask > lastMask ? lastMask : mask);
+        actualMask = (mask > lastMask ? lastMask : mask);
         int ls = lastSequence & actualMask;
         if (ls == actualMask) {
           if ((sequence & actualMask) == 0)
@@ -90,6 +124,16 @@ public class SequenceMonitor {
         }
       }
     }
+    if (returnValue >= 0) {
+      final int behind = (returnValue - sequence) & actualMask;
+      if (behind <= REORDER_WINDOW) {
+        // The expected number is still to come, so keep expecting it.
+        reordered++;
+        return OK_SEQUENCE_REORDERED;
+      }
+      gaps++;
+      lost += (sequence - returnValue) & actualMask;
+    }
     this.lastSequence = sequence;
     this.lastMask = mask;
     return returnValue;
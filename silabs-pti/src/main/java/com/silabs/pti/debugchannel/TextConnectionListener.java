@@ -27,12 +27,12 @@ import com.silabs.pti.format.IDebugChannelExportOutput;
  *
  */
 public class TextConnectionListener implements IConnectionListener {
-  private final String originator;
+  private final int originator;
   private volatile int nReceived = 0;
   private final OutputMap<?> output;
 
   public TextConnectionListener(final String originator, final OutputMap<?> output) {
-    this.originator = originator;
+    this.originator = OriginatorRegistry.id(originator);
     this.output = output;
   }
 
@@ -45,8 +45,17 @@ public class TextConnectionListener implements IConnectionListener {
   public void messageReceived(final byte[] message, final long pcTime) {
     @SuppressWarnings("resource")
     final IDebugChannelExportOutput<?> out = output.output(originator);
-    if (out.writer() instanceof PrintStream)
-      ((PrintStream) out.writer()).println(new String(message));
+    println(out, new String(message));
+  }
+
+  private static <T> void println(final IDebugChannelExportOutput<T> out, final String line) {
+    final T w = out.acquire();
+    try {
+      if (w instanceof PrintStream)
+        ((PrintStream) w).println(line);
+    } finally {
+      out.release(w);
+    }
   }
 
   @Override
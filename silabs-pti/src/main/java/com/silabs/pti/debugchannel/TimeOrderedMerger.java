@@ -0,0 +1,268 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.debugchannel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.silabs.pti.adapter.MetricsRegistry;
+import com.silabs.pti.format.IDebugChannelExportFormat;
+import com.silabs.pti.format.IDebugChannelExportOutput;
+import com.silabs.pti.log.PtiLog;
+
+/**
+ * Merges the time corrected messages of several adapters into network time
+ * order, before they are formatted.
+ *
+ * Each originator has a queue, and a min-heap of the queues by the time of
+ * their oldest message makes a k-way merge. The watermark of an originator is
+ * the latest time it has sent. A message is written once the watermarks of all
+ * originators have passed it, so nothing earlier can still come. To keep an
+ * adapter that went quiet from holding up the rest, messages more than the
+ * maximum lateness behind the latest watermark are written regardless, and if
+ * nothing arrives for that long, everything is. Memory is bounded by the
+ * messages of the maximum lateness.
+ *
+ * A message that arrives after later ones have been written is late. It is
+ * written right away, out of order, and counted.
+ */
+public class TimeOrderedMerger<T> implements Closeable {
+
+  /** Default maximum lateness, in microseconds. */
+  public static final long DEFAULT_MAX_LATENESS_US = 2_000_000;
+
+  private static ScheduledExecutorService idleFlusher = null;
+
+  private final IDebugChannelExportFormat<T> format;
+  private final long maxLateness;
+  private final List<Source<T>> sources = new ArrayList<>();
+  // Same sources, indexed by originator id.
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private Source<T>[] byOriginator = new Source[0];
+  private final PriorityQueue<Source<T>> heap = new PriorityQueue<>((a, b) -> {
+    final int c = Long.compare(a.queue.peekFirst().time, b.queue.peekFirst().time);
+    return c != 0 ? c : Integer.compare(a.id, b.id);
+  });
+  private final ScheduledFuture<?> idleTask;
+  private long lastWritten = Long.MIN_VALUE;
+  private long lastArrivalMs = System.currentTimeMillis();
+  private long late = 0;
+  private long pending = 0;
+  private boolean closed = false;
+
+  /**
+   * Creates a merger that writes through the format.
+   *
+   * @param format            Format that writes the merged messages.
+   * @param maxLatenessMicros How far behind the latest message another one may
+   *                          be held back, waiting for slower originators.
+   */
+  public TimeOrderedMerger(final IDebugChannelExportFormat<T> format, final long maxLatenessMicros) {
+    if (maxLatenessMicros <= 0)
+      throw new IllegalArgumentException("Maximum lateness must be positive.");
+    this.format = format;
+    this.maxLateness = maxLatenessMicros;
+    final long periodMs = Math.max(10, maxLatenessMicros / 4000);
+    MetricsRegistry.get().gauge("timeOrder.pending", this::pendingMessages);
+    MetricsRegistry.get().gauge("timeOrder.late", this::lateMessages);
+    this.idleTask = idleFlusher().scheduleWithFixedDelay(this::flushIfIdle, periodMs, periodMs, TimeUnit.MILLISECONDS);
+  }
+
+  private static synchronized ScheduledExecutorService idleFlusher() {
+    if (idleFlusher == null) {
+      idleFlusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread t = new Thread(r, "Time order merge");
+        t.setDaemon(true);
+        return t;
+      });
+    }
+    return idleFlusher;
+  }
+
+  /**
+   * Registers an originator ahead of its first message, so that messages of
+   * the others wait for it, up to the maximum lateness.
+   */
+  public synchronized void register(final String originator) {
+    source(OriginatorRegistry.id(originator));
+  }
+
+  /**
+   * Takes a time corrected message, for the output. The message and its bytes
+   * are kept until written.
+   *
+   * @param pcTimeMs Capture time, for formats that use raw bytes.
+   */
+  public synchronized void submit(final IDebugChannelExportOutput<T> output,
+                                  final DebugMessage dm,
+                                  final EventType type,
+                                  final byte[] bytes,
+                                  final long pcTimeMs) {
+    lastArrivalMs = System.currentTimeMillis();
+    final Entry<T> e = new Entry<>(output, dm, type, bytes, pcTimeMs);
+    if (closed || e.time < lastWritten) {
+      late++;
+      write(e);
+      return;
+    }
+    final Source<T> s = source(dm.originator());
+    s.watermark = Math.max(s.watermark, e.time);
+    s.add(e, heap);
+    pending++;
+    release(releaseLimit());
+  }
+
+  /** Returns the number of messages written out of order. */
+  public synchronized long lateMessages() {
+    return late;
+  }
+
+  /** Returns the number of messages held back. */
+  public synchronized long pendingMessages() {
+    return pending;
+  }
+
+  /** Writes all messages held back. Later ones are written as they come. */
+  @Override
+  public synchronized void close() {
+    if (closed)
+      return;
+    closed = true;
+    idleTask.cancel(false);
+    release(Long.MAX_VALUE);
+  }
+
+  private Source<T> source(final int originator) {
+    // Messages without an originator share a source.
+    final int i = originator + 1;
+    if (i >= byOriginator.length)
+      byOriginator = Arrays.copyOf(byOriginator, Math.max(i + 1, 2 * byOriginator.length));
+    Source<T> s = byOriginator[i];
+    if (s == null) {
+      s = new Source<>(sources.size());
+      sources.add(s);
+      byOriginator[i] = s;
+    }
+    return s;
+  }
+
+  // Messages up to the oldest watermark can be written, or up to the maximum
+  // lateness behind the newest.
+  private long releaseLimit() {
+    long oldest = Long.MAX_VALUE;
+    long newest = Long.MIN_VALUE;
+    for (final Source<T> s : sources) {
+      oldest = Math.min(oldest, s.watermark);
+      newest = Math.max(newest, s.watermark);
+    }
+    return Math.max(oldest, newest - maxLateness);
+  }
+
+  private void release(final long limit) {
+    Source<T> s;
+    while ((s = heap.peek()) != null && s.queue.peekFirst().time <= limit) {
+      heap.poll();
+      final Entry<T> e = s.queue.pollFirst();
+      if (!s.queue.isEmpty())
+        heap.add(s);
+      pending--;
+      lastWritten = Math.max(lastWritten, e.time);
+      write(e);
+    }
+  }
+
+  private synchronized void flushIfIdle() {
+    if (!closed && System.currentTimeMillis() - lastArrivalMs >= maxLateness / 1000)
+      release(Long.MAX_VALUE);
+  }
+
+  private void write(final Entry<T> e) {
+    // Acquired for the write, so a rotating output doesn't close it meanwhile.
+    final T w = e.output.acquire();
+    try {
+      if (format.isUsingRawBytes())
+        format.formatRawBytes(w, e.pcTimeMs, e.bytes, 0, e.bytes.length);
+      else
+        format.formatDebugMessage(w, e.dm.originatorId(), e.dm, e.type);
+    } catch (final IOException ioe) {
+      PtiLog.error("Can't write output file", ioe);
+    } finally {
+      e.output.release(w);
+    }
+  }
+
+  private static final class Source<T> {
+    private final int id;
+    private final Deque<Entry<T>> queue = new ArrayDeque<>();
+    private long watermark = Long.MIN_VALUE;
+
+    Source(final int id) {
+      this.id = id;
+    }
+
+    // Adapters send in time order, so this appends, but a message slightly
+    // out of order within its originator is put in place.
+    void add(final Entry<T> e, final PriorityQueue<Source<T>> heap) {
+      final Entry<T> head = queue.peekFirst();
+      if (head == null || e.time < head.time) {
+        if (head != null)
+          heap.remove(this);
+        queue.addFirst(e);
+        heap.add(this);
+      } else if (e.time >= queue.peekLast().time) {
+        queue.addLast(e);
+      } else {
+        // Rare, rebuild the queue with the message in place.
+        final Deque<Entry<T>> tail = new ArrayDeque<>();
+        while (queue.peekLast().time > e.time)
+          tail.addFirst(queue.pollLast());
+        queue.addLast(e);
+        queue.addAll(tail);
+      }
+    }
+  }
+
+  private static final class Entry<T> {
+    private final IDebugChannelExportOutput<T> output;
+    private final DebugMessage dm;
+    private final EventType type;
+    private final byte[] bytes;
+    private final long pcTimeMs;
+    private final long time;
+
+    Entry(final IDebugChannelExportOutput<T> output,
+          final DebugMessage dm,
+          final EventType type,
+          final byte[] bytes,
+          final long pcTimeMs) {
+      this.output = output;
+      this.dm = dm;
+      this.type = type;
+      this.bytes = bytes;
+      this.pcTimeMs = pcTimeMs;
+      this.time = dm.networkTime();
+    }
+  }
+}
@@ -0,0 +1,307 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.decode;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Sliding window over the most recent AEM samples, kept in ring buffers of
+ * primitives. The window holds either a number of samples, or the samples of a
+ * length of time.
+ *
+ * Statistics of the window are kept up to date as samples come and go, at a
+ * constant cost per sample: minimum, maximum and mean current, mean voltage,
+ * and the charge and energy, integrated as current times dt and current times
+ * voltage times dt, dt being the time since the previous sample. With current
+ * in mA and time in microseconds, that is nC and nJ. The charge and energy of
+ * everything ever added are kept as well, for energy budgets.
+ *
+ * Samples are expected in time order. Not thread safe.
+ */
+public class AemCurrentRingWindow implements IAemCurrentSampleWindow {
+
+  private final int maxCount;
+  private final long maxDuration;
+
+  private long[] times;
+  private float[] voltages;
+  private float[] currents;
+  // What each sample adds to the integrals. The first sample of the window
+  // adds nothing, having no dt within the window.
+  private double[] charges;
+  private double[] energies;
+  private int head = 0;
+  private int size = 0;
+  // Sequence number of the oldest sample in the window.
+  private long first = 0;
+
+  private double sumCurrent = 0;
+  private double sumVoltage = 0;
+  private double charge = 0;
+  private double energy = 0;
+  private double totalCharge = 0;
+  private double totalEnergy = 0;
+  private long lastTime = Long.MIN_VALUE;
+  private final Extremes min = new Extremes(true);
+  private final Extremes max = new Extremes(false);
+
+  private AemCurrentRingWindow(final int maxCount, final long maxDuration, final int capacity) {
+    this.maxCount = maxCount;
+    this.maxDuration = maxDuration;
+    allocate(capacity);
+  }
+
+  /** Creates a window of the given number of most recent samples. */
+  public static AemCurrentRingWindow ofCount(final int count) {
+    if (count <= 0)
+      throw new IllegalArgumentException("Window must hold at least one sample.");
+    return new AemCurrentRingWindow(count, 0, count);
+  }
+
+  /**
+   * Creates a window of the samples no older than the given number of
+   * microseconds before the latest.
+   */
+  public static AemCurrentRingWindow ofDuration(final long micros) {
+    if (micros < 0)
+      throw new IllegalArgumentException("Window duration can't be negative.");
+    return new AemCurrentRingWindow(0, micros, 1024);
+  }
+
+  /** Adds a sample, sliding the window. */
+  public void add(final long time, final float voltage, final float current) {
+    if (maxCount > 0 && size == maxCount)
+      removeFirst();
+    else if (size == times.length)
+      allocate(2 * times.length);
+
+    final int i = index(size);
+    times[i] = time;
+    voltages[i] = voltage;
+    currents[i] = current;
+    final double dt = lastTime == Long.MIN_VALUE ? 0 : Math.max(0, time - lastTime);
+    final double q = current * dt;
+    final double e = q * voltage;
+    totalCharge += q;
+    totalEnergy += e;
+    charges[i] = size == 0 ? 0 : q;
+    energies[i] = size == 0 ? 0 : e;
+    charge += charges[i];
+    energy += energies[i];
+    sumCurrent += current;
+    sumVoltage += voltage;
+    final long seq = first + size;
+    min.push(seq, current);
+    max.push(seq, current);
+    size++;
+    lastTime = time;
+
+    if (maxDuration > 0 || maxCount == 0) {
+      while (size > 1 && times[head] < time - maxDuration)
+        removeFirst();
+    }
+  }
+
+  /** Adds all samples of a decoded packet. */
+  public void add(final AemSampleWindow w) {
+    for (int i = 0; i < w.size(); i++)
+      add(w.timestamp(i), w.voltage(i), w.current(i));
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /** Timestamp of the i-th oldest sample, in microseconds. */
+  public long timestamp(final int i) {
+    return times[checkedIndex(i)];
+  }
+
+  /** Voltage of the i-th oldest sample. */
+  public float voltage(final int i) {
+    return voltages[checkedIndex(i)];
+  }
+
+  /** Current of the i-th oldest sample. */
+  public float current(final int i) {
+    return currents[checkedIndex(i)];
+  }
+
+  @Override
+  public IAemCurrentSample sample(final int i) {
+    final int j = checkedIndex(i);
+    return new AemSample(times[j], currents[j], voltages[j]);
+  }
+
+  @Override
+  public Stream<IAemCurrentSample> stream() {
+    return IntStream.range(0, size).mapToObj(this::sample);
+  }
+
+  /** Smallest current in the window, NaN if empty. */
+  public float minCurrent() {
+    return size == 0 ? Float.NaN : min.value();
+  }
+
+  /** Largest current in the window, NaN if empty. */
+  public float maxCurrent() {
+    return size == 0 ? Float.NaN : max.value();
+  }
+
+  /** Mean current in the window, NaN if empty. */
+  public double meanCurrent() {
+    return size == 0 ? Double.NaN : sumCurrent / size;
+  }
+
+  /** Mean voltage in the window, NaN if empty. */
+  public double meanVoltage() {
+    return size == 0 ? Double.NaN : sumVoltage / size;
+  }
+
+  /** Charge over the window, current times microseconds. */
+  public double charge() {
+    return charge;
+  }
+
+  /** Energy over the window, current times voltage times microseconds. */
+  public double energy() {
+    return energy;
+  }
+
+  /** Charge of all samples ever added. */
+  public double totalCharge() {
+    return totalCharge;
+  }
+
+  /** Energy of all samples ever added. */
+  public double totalEnergy() {
+    return totalEnergy;
+  }
+
+  @Override
+  public String toString() {
+    return "[Samples: " + size + "  Mean current: " + meanCurrent() + "  Energy: " + energy + "]";
+  }
+
+  private void removeFirst() {
+    final int i = head;
+    sumCurrent -= currents[i];
+    sumVoltage -= voltages[i];
+    head = index(1);
+    size--;
+    first++;
+    min.evict(first);
+    max.evict(first);
+    if (size == 0) {
+      // Nothing left to subtract from, drop the rounding errors.
+      sumCurrent = sumVoltage = charge = energy = 0;
+      return;
+    }
+    // The new oldest sample has no dt within the window any more.
+    charge -= charges[head];
+    energy -= energies[head];
+    charges[head] = 0;
+    energies[head] = 0;
+  }
+
+  private int index(final int i) {
+    final int j = head + i;
+    return j < times.length ? j : j - times.length;
+  }
+
+  private int checkedIndex(final int i) {
+    if (i < 0 || i >= size)
+      throw new IndexOutOfBoundsException("Sample " + i + " of " + size);
+    return index(i);
+  }
+
+  private void allocate(final int capacity) {
+    final long[] t = new long[capacity];
+    final float[] v = new float[capacity];
+    final float[] c = new float[capacity];
+    final double[] q = new double[capacity];
+    final double[] e = new double[capacity];
+    for (int i = 0; i < size; i++) {
+      final int j = index(i);
+      t[i] = times[j];
+      v[i] = voltages[j];
+      c[i] = currents[j];
+      q[i] = charges[j];
+      e[i] = energies[j];
+    }
+    times = t;
+    voltages = v;
+    currents = c;
+    charges = q;
+    energies = e;
+    head = 0;
+  }
+
+  // Monotonic queue of the candidates for the minimum or maximum, each with
+  // the sequence number of its sample. Every sample is pushed and popped at
+  // most once, so the cost per sample is constant on average.
+  private static final class Extremes {
+    private final boolean min;
+    private long[] seqs = new long[16];
+    private float[] values = new float[16];
+    private int head = 0;
+    private int size = 0;
+
+    Extremes(final boolean min) {
+      this.min = min;
+    }
+
+    void push(final long seq, final float value) {
+      while (size > 0) {
+        final float last = values[index(size - 1)];
+        if (min ? last < value : last > value)
+          break;
+        size--;
+      }
+      if (size == seqs.length) {
+        final long[] s = new long[2 * size];
+        final float[] v = new float[2 * size];
+        for (int i = 0; i < size; i++) {
+          s[i] = seqs[index(i)];
+          v[i] = values[index(i)];
+        }
+        seqs = s;
+        values = v;
+        head = 0;
+      }
+      final int i = index(size++);
+      seqs[i] = seq;
+      values[i] = value;
+    }
+
+    void evict(final long oldest) {
+      while (size > 0 && seqs[head] < oldest) {
+        head = index(1);
+        size--;
+      }
+    }
+
+    float value() {
+      return values[head];
+    }
+
+    private int index(final int i) {
+      final int j = head + i;
+      return j < seqs.length ? j : j - seqs.length;
+    }
+  }
+}
@@ -14,6 +14,9 @@
 
 package com.silabs.pti.decode;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 import com.silabs.na.pcap.util.ByteArrayUtil;
 import com.silabs.pti.util.MiscUtil;
 
@@ -24,16 +27,38 @@ import com.silabs.pti.util.MiscUtil;
  */
 public class AemDecoder {
 
+  // Offsets of the fields that bulk decoding reads, from the start of the
+  // packet.
+  private static final int SAMPLE_RATE_OFFSET = AemField.version.length();
+  private static final int VOLTAGE_OFFSET = SAMPLE_RATE_OFFSET + AemField.sampleRate.length()
+      + AemField.sampleBufferSize.length() + AemField.sampleBufferSequenceNumber.length()
+      + AemField.reservedConfig.length();
+  private static final int CURRENT_OFFSET = VOLTAGE_OFFSET + AemField.voltage.length()
+      + AemField.reservedData.length() + AemField.status.length();
+
   private final long time;
   private final byte[] contents;
+  private final int start;
+  private final int end;
   private int index;
   private int sampleCount = 0;
   private int sampleRate;
   private float voltage;
 
   public AemDecoder(final long time, final byte[] contents) {
+    this(time, contents, 0, contents.length);
+  }
+
+  /**
+   * Decodes the packet that occupies the given range of the array, without
+   * copying it.
+   */
+  public AemDecoder(final long time, final byte[] contents, final int offset, final int length) {
     this.time = time;
     this.contents = contents;
+    this.start = offset;
+    this.end = offset + length;
+    this.index = offset;
   }
 
   // Little endian int decoding.
@@ -52,7 +77,7 @@ public class AemDecoder {
   }
 
   private boolean notEnoughBytesLeft(final int requiredBytes) {
-    return contents.length < index + requiredBytes;
+    return end < index + requiredBytes;
   }
 
   private AemSample firstSample() {
@@ -72,7 +97,7 @@ public class AemDecoder {
   }
 
   private AemSample subsequentSample() {
-    final long sampleT = time + (1000000 * sampleCount) / sampleRate;
+    final long sampleT = time + (1000000L * sampleCount) / sampleRate;
     if (notEnoughBytesLeft(AemField.current.length()))
       return null;
     final float current = decodeFloat(AemField.current.length());
@@ -87,11 +112,58 @@ public class AemDecoder {
    * @return AemSample
    */
   public AemSample nextSample() {
-    if (index == 0) {
+    if (index == start) {
       return firstSample();
     } else {
       return subsequentSample();
     }
   }
 
+  /**
+   * Returns the number of samples in the packet, or 0 if the packet is too
+   * short to hold any.
+   */
+  public int sampleCount() {
+    if (end - start < CURRENT_OFFSET || rate() <= 0)
+      return 0;
+    return (end - start - CURRENT_OFFSET) / AemField.current.length();
+  }
+
+  /**
+   * Decodes all samples of the packet at once into the given arrays, starting
+   * at the given index of each. The arrays must have room for
+   * {@link #sampleCount()} samples. This is independent of
+   * {@link #nextSample()}, and creates no objects per sample.
+   *
+   * @return number of samples decoded.
+   */
+  public int decodeSamples(final long[] timestamps, final float[] voltages, final float[] currents, final int offset) {
+    final int n = sampleCount();
+    if (n == 0)
+      return 0;
+    final ByteBuffer bb = ByteBuffer.wrap(contents, start, end - start).order(ByteOrder.LITTLE_ENDIAN);
+    final int rate = bb.getInt(start + SAMPLE_RATE_OFFSET);
+    final float v = bb.getFloat(start + VOLTAGE_OFFSET);
+    bb.position(start + CURRENT_OFFSET);
+    bb.asFloatBuffer().get(currents, offset, n);
+    for (int i = 0; i < n; i++) {
+      timestamps[offset + i] = time + (1000000L * i) / rate;
+      voltages[offset + i] = v;
+    }
+    return n;
+  }
+
+  /** Decodes all samples of the packet into a window backed by arrays. */
+  public AemSampleWindow window() {
+    final int n = sampleCount();
+    final long[] timestamps = new long[n];
+    final float[] voltages = new float[n];
+    final float[] currents = new float[n];
+    decodeSamples(timestamps, voltages, currents, 0);
+    return new AemSampleWindow(timestamps, voltages, currents, n);
+  }
+
+  private int rate() {
+    return ByteArrayUtil.byteArrayToInt(contents, start + SAMPLE_RATE_OFFSET, AemField.sampleRate.length(), false);
+  }
 }
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.decode;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Window of AEM samples held in primitive arrays, as decoded in bulk by
+ * {@link AemDecoder#window()}. The accessors by index create no objects, while
+ * {@link #sample(int)} and {@link #stream()} do.
+ */
+public class AemSampleWindow implements IAemCurrentSampleWindow {
+
+  private final long[] timestamps;
+  private final float[] voltages;
+  private final float[] currents;
+  private final int size;
+
+  public AemSampleWindow(final long[] timestamps, final float[] voltages, final float[] currents, final int size) {
+    this.timestamps = timestamps;
+    this.voltages = voltages;
+    this.currents = currents;
+    this.size = size;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /** Timestamp of the i-th sample, in microseconds. */
+  public long timestamp(final int i) {
+    return timestamps[i];
+  }
+
+  /** Voltage of the i-th sample. */
+  public float voltage(final int i) {
+    return voltages[i];
+  }
+
+  /** Current of the i-th sample. */
+  public float current(final int i) {
+    return currents[i];
+  }
+
+  @Override
+  public IAemCurrentSample sample(final int i) {
+    return new AemSample(timestamps[i], currents[i], voltages[i]);
+  }
+
+  @Override
+  public Stream<IAemCurrentSample> stream() {
+    return IntStream.range(0, size).mapToObj(this::sample);
+  }
+}
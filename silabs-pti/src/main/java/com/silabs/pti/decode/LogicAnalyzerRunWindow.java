@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.decode;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Sliding window over logic analyzer states, run length encoded. Consecutive
+ * samples with the same state are kept as a single run, so a window costs
+ * memory per state change rather than per sample. The window holds either a
+ * number of runs, or the runs of a length of time.
+ *
+ * The samples of this window are the runs: {@link #sample(int)} returns the
+ * start time and state of each. The time each channel spent high within the
+ * window is kept up to date as samples come and go.
+ *
+ * Samples are expected in time order. Not thread safe.
+ */
+public class LogicAnalyzerRunWindow implements IAemLogicAnalyzerSampleWindow {
+
+  private static final int CHANNELS = Integer.SIZE;
+
+  private final int maxRuns;
+  private final long maxDuration;
+
+  private long[] starts;
+  private int[] states;
+  private int head = 0;
+  private int size = 0;
+  private long endTime = 0;
+  // Time high of each channel, over all runs but the last, which is still
+  // growing.
+  private final long[] high = new long[CHANNELS];
+
+  private LogicAnalyzerRunWindow(final int maxRuns, final long maxDuration, final int capacity) {
+    this.maxRuns = maxRuns;
+    this.maxDuration = maxDuration;
+    this.starts = new long[capacity];
+    this.states = new int[capacity];
+  }
+
+  /** Creates a window of the given number of most recent runs. */
+  public static LogicAnalyzerRunWindow ofRuns(final int runs) {
+    if (runs <= 0)
+      throw new IllegalArgumentException("Window must hold at least one run.");
+    return new LogicAnalyzerRunWindow(runs, 0, runs);
+  }
+
+  /**
+   * Creates a window of the given number of microseconds before the latest
+   * sample.
+   */
+  public static LogicAnalyzerRunWindow ofDuration(final long micros) {
+    if (micros < 0)
+      throw new IllegalArgumentException("Window duration can't be negative.");
+    return new LogicAnalyzerRunWindow(0, micros, 64);
+  }
+
+  /** Adds a sample, sliding the window. */
+  public void add(final long time, final int channelState) {
+    if (size > 0 && states[index(size - 1)] == channelState) {
+      endTime = time;
+    } else {
+      if (size > 0)
+        addHigh(states[index(size - 1)], time - starts[index(size - 1)]);
+      if (maxRuns > 0 && size == maxRuns)
+        removeFirst(size > 1 ? starts[index(1)] : time);
+      else if (size == starts.length)
+        grow();
+      final int i = index(size++);
+      starts[i] = time;
+      states[i] = channelState;
+      endTime = time;
+    }
+    if (maxRuns == 0) {
+      final long cutoff = time - maxDuration;
+      while (size > 1 && starts[index(1)] <= cutoff)
+        removeFirst(starts[index(1)]);
+      if (starts[head] < cutoff) {
+        // The oldest run now starts where the window does.
+        if (size > 1)
+          addHigh(states[head], starts[head] - cutoff);
+        starts[head] = cutoff;
+      }
+    }
+  }
+
+  /** Adds a sample. */
+  public void add(final IAemLogicAnalyzerSample sample) {
+    add(sample.timestamp(), sample.channelState());
+  }
+
+  @Override
+  public long startTime() {
+    return size == 0 ? 0 : starts[head];
+  }
+
+  @Override
+  public long endTime() {
+    return endTime;
+  }
+
+  /** Returns the number of runs in the window. */
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /** Returns the start time and state of the i-th oldest run. */
+  @Override
+  public IAemLogicAnalyzerSample sample(final int i) {
+    if (i < 0 || i >= size)
+      throw new IndexOutOfBoundsException("Run " + i + " of " + size);
+    final int j = index(i);
+    return new LogicAnalyzerSample(starts[j], states[j]);
+  }
+
+  @Override
+  public Stream<IAemLogicAnalyzerSample> stream() {
+    return IntStream.range(0, size).mapToObj(this::sample);
+  }
+
+  /**
+   * Returns the state of the channels at the given time, or -1 if the time is
+   * outside the window.
+   */
+  public int stateAt(final long time) {
+    if (size == 0 || time < starts[head] || time > endTime)
+      return -1;
+    // Last run starting at or before the time.
+    int lo = 0;
+    int hi = size - 1;
+    while (lo < hi) {
+      final int mid = (lo + hi + 1) >>> 1;
+      if (starts[index(mid)] <= time)
+        lo = mid;
+      else
+        hi = mid - 1;
+    }
+    return states[index(lo)];
+  }
+
+  /** Returns the time the channel was high within the window. */
+  public long highTime(final int channel) {
+    if (size == 0)
+      return 0;
+    final int last = index(size - 1);
+    final long current = ((states[last] >>> channel) & 1) != 0 ? endTime - starts[last] : 0;
+    return high[channel] + current;
+  }
+
+  /** Returns the fraction of the window during which the channel was high. */
+  public double dutyCycle(final int channel) {
+    final long span = endTime - startTime();
+    return span <= 0 ? Double.NaN : (double) highTime(channel) / span;
+  }
+
+  // Takes the oldest run, which ended at the given time, out. Its time high
+  // has been counted, and is taken back.
+  private void removeFirst(final long end) {
+    addHigh(states[head], starts[head] - end);
+    head = index(1);
+    size--;
+  }
+
+  private void addHigh(final int state, final long duration) {
+    for (int bits = state; bits != 0; bits &= bits - 1)
+      high[Integer.numberOfTrailingZeros(bits)] += duration;
+  }
+
+  private int index(final int i) {
+    final int j = head + i;
+    return j < starts.length ? j : j - starts.length;
+  }
+
+  private void grow() {
+    final long[] s = new long[2 * starts.length];
+    final int[] st = new int[2 * starts.length];
+    for (int i = 0; i < size; i++) {
+      s[i] = starts[index(i)];
+      st[i] = states[index(i)];
+    }
+    starts = s;
+    states = st;
+    head = 0;
+  }
+}
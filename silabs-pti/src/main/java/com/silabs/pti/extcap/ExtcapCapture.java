@@ -25,6 +25,7 @@ import com.silabs.pti.adapter.IConnectionListener;
 import com.silabs.pti.adapter.IConnectivityLogger;
 import com.silabs.pti.adapter.IFramer;
 import com.silabs.pti.format.IDebugChannelExportOutput;
+import com.silabs.pti.format.OutputOptions;
 import com.silabs.pti.format.PcapngFormat;
 import com.silabs.pti.format.PcapngFormat.Mode;
 import com.silabs.pti.log.PtiSeverity;
@@ -55,7 +56,8 @@ public class ExtcapCapture implements IConnectivityLogger, IConnectionListener {
     this.ec = extcapInterface;
     ec.log("capture: start capturing on adapter '" + ifc + "'");
     adapterConnector = new AdapterSocketConnector();
-    output = pcapFormat.createOutput(new File(fifo), false);
+    // Wireshark displays packets live, so don't hold them back.
+    output = pcapFormat.createOutput(new File(fifo), false, OutputOptions.defaults().flushMs(0));
     pcapFormat.writeHeader(output.writer());
     final IConnection c = adapterConnector.createConnection(ifc, AdapterPort.DEBUG.defaultPort(), this);
     final IFramer debugChannelFramer = new DebugChannelFramer(true);
@@ -103,12 +105,15 @@ public class ExtcapCapture implements IConnectivityLogger, IConnectionListener {
   @Override
   public void messageReceived(final byte[] message, final long pcTime) {
     messageCount++;
+    final IPcapOutput w = output.acquire();
     try {
-      pcapFormat.formatRawBytes(output.writer(), pcTime, message, 0, message.length);
+      pcapFormat.formatRawBytes(w, pcTime, message, 0, message.length);
     } catch (final IOException ioe) {
       if (!isFinished)
         ec.log("capture error: could not write PCAP file any more [" + ioe.getMessage() + "]");
       isFinished = true;
+    } finally {
+      output.release(w);
     }
   }
 }
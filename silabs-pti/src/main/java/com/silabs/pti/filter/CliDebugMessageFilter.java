@@ -15,12 +15,13 @@
 package com.silabs.pti.filter;
 
 import java.text.ParseException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.BitSet;
 import java.util.regex.Pattern;
 
 import com.silabs.pti.debugchannel.DebugMessage;
 import com.silabs.pti.debugchannel.DebugMessageType;
+import com.silabs.pti.debugchannel.DebugMessageView;
+import com.silabs.pti.debugchannel.OriginatorRegistry;
 import com.silabs.pti.util.MiscUtil;
 
 /**
@@ -70,6 +71,15 @@ public class CliDebugMessageFilter implements IDebugMessageFilter {
     return filterChain.isMessageKept(message);
   }
 
+  @Override
+  public boolean isFrameKept(final DebugMessageView frame, final int originator, final long pcTime) {
+    // Checked here rather than by each filter, since a negated one would keep
+    // what it can't read.
+    if (!frame.isValid())
+      return false;
+    return filterChain.isFrameKept(frame, originator, pcTime);
+  }
+
   public static String helpText() {
     final StringBuilder sb = new StringBuilder();
     sb.append("  " + FilterExpression.TYPE_IN.functionName()
@@ -171,6 +181,20 @@ class WithinFilter implements IDebugMessageFilter {
       return false;
     }
   }
+
+  @Override
+  public boolean isFrameKept(final DebugMessageView frame, final int originator, final long pcTime) {
+    if (!frame.isValid())
+      return false;
+    switch (mode) {
+    case SIZE:
+      return (frame.payloadLength() >= lowerBound && frame.payloadLength() <= upperBound);
+    case TIME:
+      return (frame.networkTime() >= lowerBound && frame.networkTime() <= upperBound);
+    default:
+      return false;
+    }
+  }
 }
 
 class ContainsFilter implements IDebugMessageFilter {
@@ -182,57 +206,84 @@ class ContainsFilter implements IDebugMessageFilter {
 
   @Override
   public boolean isMessageKept(final DebugMessage message) {
-    final String s = new String(message.contents());
+    final String s = new String(message.payloadArray(), message.payloadOffset(), message.contentLength());
+    return s.contains(pattern);
+  }
+
+  @Override
+  public boolean isFrameKept(final DebugMessageView frame, final int originator, final long pcTime) {
+    if (!frame.isValid())
+      return false;
+    final String s = new String(frame.frame(), frame.payloadOffset(), frame.payloadLength());
     return s.contains(pattern);
   }
 }
 
 class TypeInFilter implements IDebugMessageFilter {
-  private final List<Integer> ints = new ArrayList<>();
-  private final List<String> names = new ArrayList<>();
+  // Names are resolved to codes up front, so matching is a single bit test.
+  private final BitSet types = new BitSet();
+  private final boolean matchesInvalid;
 
   TypeInFilter(final String types) {
+    boolean invalid = false;
     for (String s : types.split(Pattern.quote(","))) {
       s = s.toLowerCase();
       try {
-        ints.add(MiscUtil.parseInt(s));
+        final int code = MiscUtil.parseInt(s);
+        if (code >= 0)
+          this.types.set(code);
       } catch (final NumberFormatException e) {
-        names.add(s);
+        for (final DebugMessageType dmt : DebugMessageType.values()) {
+          if (dmt.description().toLowerCase().equals(s)) {
+            if (dmt == DebugMessageType.INVALID)
+              invalid = true;
+            else
+              this.types.set(dmt.value());
+          }
+        }
       }
     }
+    this.matchesInvalid = invalid;
+  }
+
+  private boolean isTypeKept(final int dt) {
+    if (dt >= 0 && types.get(dt))
+      return true;
+    return matchesInvalid && DebugMessageType.get(dt) == DebugMessageType.INVALID;
   }
 
   @Override
   public boolean isMessageKept(final DebugMessage message) {
-    final int dt = message.debugType();
-    for (final Integer i : ints) {
-      if (dt == i)
-        return true;
-    }
-    final DebugMessageType dmt = DebugMessageType.get(dt);
-    for (final String s : names) {
-      if (dmt.description().toLowerCase().equals(s))
-        return true;
-    }
-    return false;
+    return isTypeKept(message.debugType());
+  }
+
+  @Override
+  public boolean isFrameKept(final DebugMessageView frame, final int originator, final long pcTime) {
+    return frame.isValid() && isTypeKept(frame.debugType());
   }
 }
 
 class OriginatorInFilter implements IDebugMessageFilter {
-  private final String[] originators;
+  // Names are registered up front, so matching is a single bit test.
+  private final BitSet originators = new BitSet();
 
   OriginatorInFilter(final String origs) {
-    originators = origs.split(Pattern.quote(","));
+    for (final String s : origs.split(Pattern.quote(",")))
+      originators.set(OriginatorRegistry.id(s));
   }
 
   @Override
   public boolean isMessageKept(final DebugMessage message) {
-    final String orig = message.originatorId();
-    for (final String s : originators) {
-      if (s.equals(orig))
-        return true;
-    }
-    return false;
+    return isOriginatorKept(message.originator());
+  }
+
+  @Override
+  public boolean isFrameKept(final DebugMessageView frame, final int originator, final long pcTime) {
+    return frame.isValid() && isOriginatorKept(originator);
+  }
+
+  private boolean isOriginatorKept(final int orig) {
+    return orig >= 0 && originators.get(orig);
   }
 }
 
@@ -273,6 +324,24 @@ class DebugMessageFilterExpression implements IDebugMessageFilter {
     }
   }
 
+  @Override
+  public boolean isFrameKept(final DebugMessageView frame, final int originator, final long pcTime) {
+    boolean evaluatedExpression = expressionFilter.isFrameKept(frame, originator, pcTime);
+    if (negated) {
+      evaluatedExpression = !evaluatedExpression;
+    }
+
+    if (next != null) {
+      if (next.operator() == AND) {
+        evaluatedExpression = (evaluatedExpression && next.isFrameKept(frame, originator, pcTime));
+      } else if (next.operator() == OR) {
+        evaluatedExpression = (evaluatedExpression || next.isFrameKept(frame, originator, pcTime));
+      }
+    }
+
+    return evaluatedExpression;
+  }
+
   @Override
   public boolean isMessageKept(final DebugMessage message) {
     boolean evaluatedExpression = expressionFilter.isMessageKept(message);
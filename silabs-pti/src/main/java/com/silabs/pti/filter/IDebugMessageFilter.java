@@ -15,6 +15,8 @@
 package com.silabs.pti.filter;
 
 import com.silabs.pti.debugchannel.DebugMessage;
+import com.silabs.pti.debugchannel.DebugMessageView;
+import com.silabs.pti.debugchannel.OriginatorRegistry;
 
 /**
  * Interface describing a filter that filters debug messages.
@@ -27,12 +29,32 @@ public interface IDebugMessageFilter {
   /**
    * Default all pass filter.
    */
-  public static final IDebugMessageFilter ALL_PASS_FILTER = message -> true;
+  public static final IDebugMessageFilter ALL_PASS_FILTER = new IDebugMessageFilter() {
+    @Override
+    public boolean isMessageKept(final DebugMessage message) {
+      return true;
+    }
+
+    @Override
+    public boolean isFrameKept(final DebugMessageView frame, final int originator, final long pcTime) {
+      return true;
+    }
+  };
 
   /**
    * Default no pass filter.
    */
-  public static final IDebugMessageFilter NO_PASS_FILTER = message -> false;
+  public static final IDebugMessageFilter NO_PASS_FILTER = new IDebugMessageFilter() {
+    @Override
+    public boolean isMessageKept(final DebugMessage message) {
+      return false;
+    }
+
+    @Override
+    public boolean isFrameKept(final DebugMessageView frame, final int originator, final long pcTime) {
+      return false;
+    }
+  };
 
   /**
    * If the method returns true, then the message is kept in the queue. If it
@@ -42,4 +64,31 @@ public interface IDebugMessageFilter {
    * @return true if message is kept, false if discarded.
    */
   public boolean isMessageKept(DebugMessage message);
+
+  /**
+   * Same decision as {@link #isMessageKept(DebugMessage)}, but made on the raw
+   * frame, before a debug message is created. Filters that only look at header
+   * fields should override this and read them straight from the view, so that
+   * dropped messages are never parsed. The default parses the frame and
+   * delegates to {@link #isMessageKept(DebugMessage)}.
+   *
+   * @param frame      View of the deframed message.
+   * @param originator {@link OriginatorRegistry} id of the originator of the
+   *                   frame.
+   * @param pcTime     PC time at which the frame was received.
+   * @return true if message is kept, false if discarded. Frames too short to
+   *         be parsed are discarded.
+   */
+  public default boolean isFrameKept(final DebugMessageView frame, final int originator, final long pcTime) {
+    final DebugMessage dm = frame.toDebugMessage(originator, pcTime);
+    return dm != null && isMessageKept(dm);
+  }
+
+  /**
+   * Same as {@link #isFrameKept(DebugMessageView, int, long)}, by originator
+   * name.
+   */
+  public default boolean isFrameKept(final DebugMessageView frame, final String originatorId, final long pcTime) {
+    return isFrameKept(frame, OriginatorRegistry.id(originatorId), pcTime);
+  }
 }
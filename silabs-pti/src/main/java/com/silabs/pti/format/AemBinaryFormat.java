@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.silabs.pti.debugchannel.DebugMessage;
+import com.silabs.pti.debugchannel.EventType;
+import com.silabs.pti.decode.AemDecoder;
+import com.silabs.pti.decode.AemSampleWindow;
+
+/**
+ * Binary AEM format: time, voltage and current in columns, with a min/max/mean
+ * pyramid for viewing long traces. See {@link AemBinaryWriter} for the layout.
+ */
+public class AemBinaryFormat implements IDebugChannelExportFormat<AemBinaryWriter> {
+
+  @Override
+  public IDebugChannelExportOutput<AemBinaryWriter> createOutput(final File f,
+                                                                final boolean append,
+                                                                final OutputOptions options) throws IOException {
+    return new AemBinaryOutput(f, append, options);
+  }
+
+  @Override
+  public IDebugChannelExportOutput<AemBinaryWriter> createStdoutOutput() {
+    return null;
+  }
+
+  @Override
+  public void writeHeader(final AemBinaryWriter out) {
+    // The writer writes the file header when created.
+  }
+
+  @Override
+  public String description() {
+    return "All packets but AEM data are ignored, and AEM data is written in a compact binary file, with summaries for fast viewing.";
+  }
+
+  @Override
+  public boolean isUsingRawBytes() {
+    return false;
+  }
+
+  @Override
+  public boolean isUsingDebugMessages() {
+    return true;
+  }
+
+  @Override
+  public boolean formatDebugMessage(final AemBinaryWriter out,
+                                    final String originator,
+                                    final DebugMessage dm,
+                                    final EventType type) throws IOException {
+    if (!type.isAem())
+      return false;
+
+    final AemSampleWindow w = new AemDecoder(dm.networkTime(), dm.payloadArray(), dm.payloadOffset(), dm.contentLength())
+        .window();
+    // One packet stays together even if other adapters write too.
+    synchronized (out) {
+      for (int i = 0; i < w.size(); i++)
+        out.addSample(originator, w.timestamp(i), w.voltage(i), w.current(i));
+    }
+    return true;
+  }
+
+  @Override
+  public boolean formatRawBytes(final AemBinaryWriter out,
+                                final long pcTimeMs,
+                                final byte[] rawBytes,
+                                final int offset,
+                                final int length) {
+    return false;
+  }
+
+  @Override
+  public void writeRawUnframedData(final AemBinaryWriter out,
+                                   final byte[] rawBytes,
+                                   final int offset,
+                                   final int length) throws IOException {
+  }
+}
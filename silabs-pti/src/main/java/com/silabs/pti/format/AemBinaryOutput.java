@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Export output of the binary AEM format, an {@link AemBinaryWriter} on a file
+ * stream opened per the output options.
+ */
+class AemBinaryOutput implements IDebugChannelExportOutput<AemBinaryWriter> {
+
+  private final OutputStream stream;
+  private final AemBinaryWriter writer;
+
+  AemBinaryOutput(final File f, final boolean append, final OutputOptions options) throws IOException {
+    this.stream = FileOutputs.open(f, append, options);
+    this.writer = new AemBinaryWriter(stream);
+  }
+
+  @Override
+  public AemBinaryWriter writer() {
+    return writer;
+  }
+
+  @Override
+  public long size() {
+    return FileOutputs.bytesWritten(stream);
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+}
@@ -0,0 +1,367 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writer of the binary AEM format.
+ *
+ * The file is a sequence of blocks, framed as in pcapng: a 32 bit type, the 32
+ * bit total length of the block, the body, and the total length once more, so
+ * the file can be walked in either direction. All numbers are little endian,
+ * and all offsets count from the start of the file header block.
+ *
+ * <ul>
+ * <li>File header: magic, version, samples per samples block, samples per
+ * level 0 summary and the fan out of the pyramid.</li>
+ * <li>Stream: id and UTF-8 name of the originator of the samples that follow
+ * with that id.</li>
+ * <li>Samples: stream id, count, then the columns of timestamps in
+ * microseconds (long), voltages (float) and currents (float). All blocks hold
+ * {@link #SAMPLES_PER_BLOCK} samples, except the last of each stream.</li>
+ * <li>Summary: stream id, level, count, then the columns of the summaries. Each
+ * one covers a time range and holds the offset of the first samples block in
+ * it, the first and last timestamp, the number of samples, and the minimum,
+ * maximum and mean of voltage and current.</li>
+ * <li>Index: the offsets of the complete summary levels, always the last
+ * block.</li>
+ * </ul>
+ *
+ * Level 0 summaries cover {@link #SUMMARY_SPAN} samples, and each level above
+ * covers {@link #FANOUT} summaries of the one below. The two lowest levels are
+ * written along with the samples, in blocks of {@link #FANOUT} summaries. The
+ * higher levels are small, a day at 10 kHz is a few thousand summaries, and
+ * are written whole on close, up to a single summary of the whole stream. A
+ * viewer reads the index from the end of the file, picks the level that fits
+ * its zoom, and follows the offsets of the summaries down to the samples.
+ *
+ * The samples reach the file a block at a time. Methods are synchronized,
+ * since the listeners of all adapters share one writer.
+ */
+public class AemBinaryWriter implements Closeable {
+
+  /** "AEMB" as a little endian int. */
+  public static final int MAGIC = 0x424D4541;
+  public static final int VERSION = 1;
+
+  public static final int BLOCK_FILE_HEADER = 1;
+  public static final int BLOCK_STREAM = 2;
+  public static final int BLOCK_SAMPLES = 3;
+  public static final int BLOCK_SUMMARY = 4;
+  public static final int BLOCK_INDEX = 5;
+
+  /** Samples in a samples block. */
+  public static final int SAMPLES_PER_BLOCK = 4096;
+  /** Samples covered by a level 0 summary. */
+  public static final int SUMMARY_SPAN = 256;
+  /** Summaries covered by a summary of the next level. */
+  public static final int FANOUT = 16;
+  /** Levels written along with the samples rather than on close. */
+  static final int INLINE_LEVELS = 2;
+
+  private final OutputStream out;
+  private final Map<String, Stream> streams = new LinkedHashMap<>();
+  // Stream id, level and offset of the summary blocks in the index.
+  private final List<long[]> index = new ArrayList<>();
+  private ByteBuffer block = ByteBuffer.allocate(SAMPLES_PER_BLOCK * 16 + 64).order(ByteOrder.LITTLE_ENDIAN);
+  private long position = 0;
+  private boolean closed = false;
+
+  /**
+   * Creates a writer and writes the file header. The writer owns the stream
+   * and closes it when closed.
+   */
+  public AemBinaryWriter(final OutputStream out) throws IOException {
+    this.out = out;
+    startBlock(BLOCK_FILE_HEADER, 20);
+    block.putInt(MAGIC).putInt(VERSION).putInt(SAMPLES_PER_BLOCK).putInt(SUMMARY_SPAN).putInt(FANOUT);
+    endBlock();
+    // Without the index a file is still readable, but slowly.
+    ShutdownFlusher.registerClose(this);
+  }
+
+  /** Adds a sample of the given originator. */
+  public synchronized void addSample(final String originator,
+                                     final long time,
+                                     final float voltage,
+                                     final float current) throws IOException {
+    ensureOpen();
+    final Stream s = stream(originator);
+    s.time[s.count] = time;
+    s.voltage[s.count] = voltage;
+    s.current[s.count] = current;
+    if (++s.count == SAMPLES_PER_BLOCK)
+      writeSamples(s);
+  }
+
+  /**
+   * Writes the samples still buffered, the rest of the pyramid and the index,
+   * and closes the stream.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed)
+      return;
+    closed = true;
+    ShutdownFlusher.unregisterClose(this);
+    try {
+      for (final Stream s : streams.values())
+        finish(s);
+      startBlock(BLOCK_INDEX, 4 + 16 * index.size());
+      block.putInt(index.size());
+      for (final long[] e : index)
+        block.putInt((int) e[0]).putInt((int) e[1]).putLong(e[2]);
+      endBlock();
+    } finally {
+      out.close();
+    }
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed)
+      throw new IOException("Writer closed.");
+  }
+
+  private Stream stream(final String originator) throws IOException {
+    final String name = originator == null ? "" : originator;
+    Stream s = streams.get(name);
+    if (s == null) {
+      s = new Stream(streams.size());
+      streams.put(name, s);
+      final byte[] b = name.getBytes(StandardCharsets.UTF_8);
+      startBlock(BLOCK_STREAM, 8 + ((b.length + 3) & ~3));
+      block.putInt(s.id).putInt(b.length).put(b);
+      while ((block.position() & 3) != 0)
+        block.put((byte) 0);
+      endBlock();
+    }
+    return s;
+  }
+
+  private void writeSamples(final Stream s) throws IOException {
+    final long offset = position;
+    final int n = s.count;
+    startBlock(BLOCK_SAMPLES, 8 + 16 * n);
+    block.putInt(s.id).putInt(n);
+    for (int i = 0; i < n; i++)
+      block.putLong(s.time[i]);
+    for (int i = 0; i < n; i++)
+      block.putFloat(s.voltage[i]);
+    for (int i = 0; i < n; i++)
+      block.putFloat(s.current[i]);
+    endBlock();
+    final Level level0 = s.level(0);
+    for (int i = 0; i < n; i += SUMMARY_SPAN)
+      level0.addSamples(offset, s, i, Math.min(n, i + SUMMARY_SPAN));
+    s.count = 0;
+    rollUp(s, 0);
+  }
+
+  // Summarizes full groups of the level into the next one, and writes the
+  // inline levels out as their blocks fill up.
+  private void rollUp(final Stream s, final int l) throws IOException {
+    final Level level = s.level(l);
+    if (level.size - level.rolled < FANOUT)
+      return;
+    s.level(l + 1).addSummary(level, level.rolled, level.rolled + FANOUT);
+    level.rolled += FANOUT;
+    if (l < INLINE_LEVELS) {
+      writeSummaries(s.id, l, level);
+      level.clear();
+    }
+    rollUp(s, l + 1);
+  }
+
+  // Completes the pyramid of the stream up to a single summary, and writes
+  // what is left of it.
+  private void finish(final Stream s) throws IOException {
+    if (s.count > 0)
+      writeSamples(s);
+    for (int l = 0; l < s.levels.size(); l++) {
+      final Level level = s.levels.get(l);
+      if (level.total > 1 && level.rolled < level.size) {
+        s.level(l + 1).addSummary(level, level.rolled, level.size);
+        level.rolled = level.size;
+      }
+      if (level.size == 0)
+        continue;
+      // Levels that never had a block written are complete in this one.
+      if (level.size == level.total)
+        index.add(new long[] { s.id, l, position });
+      writeSummaries(s.id, l, level);
+    }
+  }
+
+  private void writeSummaries(final int id, final int l, final Level level) throws IOException {
+    final int n = level.size;
+    startBlock(BLOCK_SUMMARY, 12 + 52 * n);
+    block.putInt(id).putInt(l).putInt(n);
+    for (int i = 0; i < n; i++)
+      block.putLong(level.offset[i]);
+    for (int i = 0; i < n; i++)
+      block.putLong(level.first[i]);
+    for (int i = 0; i < n; i++)
+      block.putLong(level.last[i]);
+    for (int i = 0; i < n; i++)
+      block.putInt(level.samples[i]);
+    putColumns(level.minV, level.maxV, level.sumV, level.samples, n);
+    putColumns(level.minI, level.maxI, level.sumI, level.samples, n);
+    endBlock();
+  }
+
+  private void putColumns(final float[] min, final float[] max, final double[] sum, final int[] samples, final int n) {
+    for (int i = 0; i < n; i++)
+      block.putFloat(min[i]);
+    for (int i = 0; i < n; i++)
+      block.putFloat(max[i]);
+    for (int i = 0; i < n; i++)
+      block.putFloat((float) (sum[i] / samples[i]));
+  }
+
+  private void startBlock(final int type, final int bodyLength) {
+    final int total = 12 + bodyLength;
+    if (block.capacity() < total)
+      block = ByteBuffer.allocate(total).order(ByteOrder.LITTLE_ENDIAN);
+    block.clear();
+    block.putInt(type).putInt(total);
+  }
+
+  private void endBlock() throws IOException {
+    final int total = block.position() + 4;
+    block.putInt(total);
+    out.write(block.array(), 0, total);
+    position += total;
+  }
+
+  private static final class Stream {
+    private final int id;
+    private final long[] time = new long[SAMPLES_PER_BLOCK];
+    private final float[] voltage = new float[SAMPLES_PER_BLOCK];
+    private final float[] current = new float[SAMPLES_PER_BLOCK];
+    private final List<Level> levels = new ArrayList<>();
+    private int count = 0;
+
+    Stream(final int id) {
+      this.id = id;
+    }
+
+    Level level(final int l) {
+      while (levels.size() <= l)
+        levels.add(new Level());
+      return levels.get(l);
+    }
+  }
+
+  // Summaries of one level, in columns. Sums rather than means are kept, so
+  // that summaries of summaries are exact.
+  private static final class Level {
+    private long[] offset = new long[FANOUT];
+    private long[] first = new long[FANOUT];
+    private long[] last = new long[FANOUT];
+    private int[] samples = new int[FANOUT];
+    private float[] minV = new float[FANOUT];
+    private float[] maxV = new float[FANOUT];
+    private double[] sumV = new double[FANOUT];
+    private float[] minI = new float[FANOUT];
+    private float[] maxI = new float[FANOUT];
+    private double[] sumI = new double[FANOUT];
+    // Summaries held, those of them summarized into the next level, and all
+    // ever added.
+    private int size = 0;
+    private int rolled = 0;
+    private long total = 0;
+
+    void addSamples(final long blockOffset, final Stream s, final int from, final int to) {
+      final int i = add();
+      offset[i] = blockOffset;
+      first[i] = s.time[from];
+      last[i] = s.time[to - 1];
+      samples[i] = to - from;
+      float loV = Float.POSITIVE_INFINITY, hiV = Float.NEGATIVE_INFINITY;
+      float loI = Float.POSITIVE_INFINITY, hiI = Float.NEGATIVE_INFINITY;
+      double v = 0, c = 0;
+      for (int j = from; j < to; j++) {
+        loV = Math.min(loV, s.voltage[j]);
+        hiV = Math.max(hiV, s.voltage[j]);
+        v += s.voltage[j];
+        loI = Math.min(loI, s.current[j]);
+        hiI = Math.max(hiI, s.current[j]);
+        c += s.current[j];
+      }
+      minV[i] = loV;
+      maxV[i] = hiV;
+      sumV[i] = v;
+      minI[i] = loI;
+      maxI[i] = hiI;
+      sumI[i] = c;
+    }
+
+    void addSummary(final Level below, final int from, final int to) {
+      final int i = add();
+      offset[i] = below.offset[from];
+      first[i] = below.first[from];
+      last[i] = below.last[to - 1];
+      minV[i] = minI[i] = Float.POSITIVE_INFINITY;
+      maxV[i] = maxI[i] = Float.NEGATIVE_INFINITY;
+      for (int j = from; j < to; j++) {
+        samples[i] += below.samples[j];
+        minV[i] = Math.min(minV[i], below.minV[j]);
+        maxV[i] = Math.max(maxV[i], below.maxV[j]);
+        sumV[i] += below.sumV[j];
+        minI[i] = Math.min(minI[i], below.minI[j]);
+        maxI[i] = Math.max(maxI[i], below.maxI[j]);
+        sumI[i] += below.sumI[j];
+      }
+    }
+
+    private int add() {
+      if (size == offset.length) {
+        final int n = 2 * size;
+        offset = Arrays.copyOf(offset, n);
+        first = Arrays.copyOf(first, n);
+        last = Arrays.copyOf(last, n);
+        samples = Arrays.copyOf(samples, n);
+        minV = Arrays.copyOf(minV, n);
+        maxV = Arrays.copyOf(maxV, n);
+        sumV = Arrays.copyOf(sumV, n);
+        minI = Arrays.copyOf(minI, n);
+        maxI = Arrays.copyOf(maxI, n);
+        sumI = Arrays.copyOf(sumI, n);
+      }
+      final int i = size++;
+      samples[i] = 0;
+      sumV[i] = 0;
+      sumI[i] = 0;
+      total++;
+      return i;
+    }
+
+    void clear() {
+      size = 0;
+      rolled = 0;
+    }
+  }
+}
@@ -20,7 +20,7 @@ import java.io.PrintStream;
 import com.silabs.pti.debugchannel.DebugMessage;
 import com.silabs.pti.debugchannel.EventType;
 import com.silabs.pti.decode.AemDecoder;
-import com.silabs.pti.decode.AemSample;
+import com.silabs.pti.decode.AemSampleWindow;
 
 /**
  * AEM file format: triplet of numbers, time/current/voltage.
@@ -30,8 +30,10 @@ import com.silabs.pti.decode.AemSample;
 public class AemFileFormat implements IDebugChannelExportFormat<PrintStream> {
 
   @Override
-  public IDebugChannelExportOutput<PrintStream> createOutput(final File f, final boolean append) throws IOException {
-    return new PrintStreamOutput(f, append);
+  public IDebugChannelExportOutput<PrintStream> createOutput(final File f,
+                                                            final boolean append,
+                                                            final OutputOptions options) throws IOException {
+    return new PrintStreamOutput(f, append, options);
   }
 
   @Override
@@ -68,13 +70,12 @@ public class AemFileFormat implements IDebugChannelExportFormat<PrintStream> {
       return false;
 
     final long microSecondTime = dm.networkTime();
-    final byte[] contents = dm.contents();
-    final AemDecoder ad = new AemDecoder(microSecondTime, contents);
-    AemSample as;
+    final AemSampleWindow w = new AemDecoder(microSecondTime, dm.payloadArray(), dm.payloadOffset(), dm.contentLength())
+        .window();
     final StringBuilder sb = new StringBuilder();
     String sep = "";
-    while ((as = ad.nextSample()) != null) {
-      sb.append(String.format("%s%10d %10f %10f", sep, as.timestamp(), as.voltage(), as.current()));
+    for (int i = 0; i < w.size(); i++) {
+      sb.append(String.format("%s%10d %10f %10f", sep, w.timestamp(i), w.voltage(i), w.current(i)));
       sep = "\n";
     }
     outWriter.println(sb.toString());
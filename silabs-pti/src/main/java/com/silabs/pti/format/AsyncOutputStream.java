@@ -0,0 +1,342 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.silabs.pti.adapter.Histogram;
+import com.silabs.pti.adapter.MetricsRegistry;
+import com.silabs.pti.log.PtiLog;
+
+/**
+ * Output stream that hands data over to a dedicated writer thread, so that the
+ * threads producing output never wait for the disk.
+ *
+ * Producers copy into the chunk being filled. A full chunk goes on a bounded
+ * queue and producers carry on with a fresh one from the free list, while the
+ * writer thread writes queued chunks into the delegate and returns them to the
+ * free list. If the disk falls behind far enough to fill the queue, producers
+ * block, which bounds the memory used. A partially filled chunk is handed over
+ * once it is older than the flush interval, so quiet outputs still reach the
+ * disk.
+ *
+ * Any number of threads may write. The bytes of a single write call stay
+ * together and in order.
+ *
+ * The queue depth, its high mark, the time producers spent blocked on a full
+ * queue and the latency of the delegate writes are registered with the
+ * {@link MetricsRegistry}, and summed up in the log when the stream closes.
+ */
+public class AsyncOutputStream extends OutputStream implements ISizedOutput {
+
+  /** Size of the chunks handed to the writer thread. */
+  public static final int CHUNK_SIZE = 64 * 1024;
+
+  private static final Chunk STOP = new Chunk(0);
+
+  private final OutputStream delegate;
+  private final String name;
+  private final long flushNanos;
+  private final BlockingQueue<Chunk> queue;
+  private final BlockingQueue<Chunk> free;
+  private final Thread writer;
+
+  // Producer side, guarded by this.
+  private Chunk current = new Chunk(CHUNK_SIZE);
+  private boolean closed = false;
+  private long submitted = 0;
+  private volatile long bytesWritten = 0;
+
+  // Writer side. The writer holds the lock while writing into the delegate.
+  private final Object progress = new Object();
+  private long completed = 0;
+  private volatile IOException failure = null;
+
+  private volatile int maxQueueDepth = 0;
+  private final LongAdder blockedNanos;
+  private volatile long writes = 0;
+  private volatile long totalWriteNanos = 0;
+  private volatile long maxWriteNanos = 0;
+  private final Histogram writeMetric;
+
+  /**
+   * Creates a new stream and starts its writer thread.
+   *
+   * @param delegate  Stream that the writer thread writes into.
+   * @param name      Name used for the thread and in log messages.
+   * @param queueSize Number of full chunks that may wait for the writer.
+   * @param flushMs   Age after which a partially filled chunk is handed over. 0
+   *                  hands over every write.
+   */
+  public AsyncOutputStream(final OutputStream delegate, final String name, final int queueSize, final int flushMs) {
+    if (queueSize < 1)
+      throw new IllegalArgumentException("Queue size must be positive: " + queueSize);
+    this.delegate = delegate;
+    this.name = name;
+    this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushMs);
+    this.queue = new ArrayBlockingQueue<>(queueSize);
+    // Queued chunks, plus the one being filled and the one being written.
+    this.free = new ArrayBlockingQueue<>(queueSize + 2);
+    final MetricsRegistry metrics = MetricsRegistry.get();
+    this.writeMetric = metrics.histogram("output." + name + ".write");
+    this.blockedNanos = metrics.counter("output." + name + ".blockedNanos");
+    metrics.gauge("output." + name + ".queue", this::queueDepth);
+    metrics.gauge("output." + name + ".maxQueue", this::maxQueueDepth);
+    metrics.gauge("output." + name + ".bytes", this::bytesWritten);
+    this.writer = new Thread(this::writeLoop, "Async output " + name);
+    this.writer.setDaemon(true);
+    this.writer.start();
+    ShutdownFlusher.register(this);
+  }
+
+  /**
+   * Returns the number of bytes accepted by this stream so far, whether or not
+   * the writer thread has written them yet.
+   */
+  @Override
+  public long bytesWritten() {
+    return bytesWritten;
+  }
+
+  /** Returns the number of chunks waiting for the writer thread. */
+  public int queueDepth() {
+    return queue.size();
+  }
+
+  /** Returns the highest number of chunks that were waiting at once. */
+  public int maxQueueDepth() {
+    return maxQueueDepth;
+  }
+
+  /** Returns the total time producers waited for room in the queue. */
+  public long blockedNanos() {
+    return blockedNanos.sum();
+  }
+
+  /** Returns the number of chunks written by the writer thread. */
+  public long writeCount() {
+    return writes;
+  }
+
+  /** Returns the average time the delegate took to write a chunk. */
+  public long averageWriteLatencyNanos() {
+    final long n = writes;
+    return n == 0 ? 0 : totalWriteNanos / n;
+  }
+
+  /** Returns the longest time the delegate took to write a chunk. */
+  public long maxWriteLatencyNanos() {
+    return maxWriteNanos;
+  }
+
+  @Override
+  public synchronized void write(final int b) throws IOException {
+    ensureOpen();
+    if (current.length == current.data.length)
+      submit();
+    current.append(b);
+    bytesWritten++;
+    if (flushNanos == 0)
+      submit();
+  }
+
+  @Override
+  public synchronized void write(final byte[] b, int off, int len) throws IOException {
+    ensureOpen();
+    while (len > 0) {
+      if (current.length == current.data.length)
+        submit();
+      final int n = current.append(b, off, len);
+      off += n;
+      len -= n;
+      bytesWritten += n;
+    }
+    if (flushNanos == 0)
+      submit();
+  }
+
+  /**
+   * Hands over pending data, waits until the writer thread has written it and
+   * flushes the delegate.
+   */
+  @Override
+  public void flush() throws IOException {
+    final long target;
+    synchronized (this) {
+      if (closed)
+        return;
+      submit();
+      target = submitted;
+    }
+    synchronized (progress) {
+      while (completed < target && failure == null) {
+        try {
+          progress.wait();
+        } catch (final InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while flushing.");
+        }
+      }
+      throwIfFailed();
+      delegate.flush();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      if (closed)
+        return;
+      submit();
+      closed = true;
+      put(STOP);
+    }
+    ShutdownFlusher.unregister(this);
+    MetricsRegistry.get().removeGauge("output." + name + ".queue");
+    MetricsRegistry.get().removeGauge("output." + name + ".maxQueue");
+    MetricsRegistry.get().removeGauge("output." + name + ".bytes");
+    MetricsRegistry.get().removeCounter("output." + name + ".blockedNanos", blockedNanos);
+    MetricsRegistry.get().removeHistogram("output." + name + ".write", writeMetric);
+    try {
+      writer.join();
+    } catch (final InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    }
+    PtiLog.info("Async output " + name + ": " + writes + " writes, max queue depth " + maxQueueDepth
+        + ", blocked " + blockedNanos.sum() / 1_000_000 + " ms, average write " + averageWriteLatencyNanos() / 1000 + " us, max write " + maxWriteNanos / 1000 + " us.");
+    delegate.close();
+    throwIfFailed();
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed)
+      throw new IOException("Stream closed.");
+    throwIfFailed();
+  }
+
+  private void throwIfFailed() throws IOException {
+    final IOException e = failure;
+    if (e != null)
+      throw new IOException("Writing " + name + " failed.", e);
+  }
+
+  // Hands the chunk being filled over to the writer. Called with this locked.
+  private void submit() throws IOException {
+    if (current.length == 0)
+      return;
+    put(current);
+    afterSubmit();
+  }
+
+  private void afterSubmit() {
+    submitted++;
+    final int depth = queue.size();
+    if (depth > maxQueueDepth)
+      maxQueueDepth = depth;
+    final Chunk next = free.poll();
+    current = (next != null ? next : new Chunk(CHUNK_SIZE));
+  }
+
+  private void put(final Chunk c) throws IOException {
+    if (queue.offer(c))
+      return;
+    final long start = System.nanoTime();
+    try {
+      queue.put(c);
+      blockedNanos.add(System.nanoTime() - start);
+    } catch (final InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the output writer.");
+    }
+  }
+
+  // Called by the writer when it has been idle for the flush interval. Never
+  // blocks: if the queue is full, there is work to do anyway.
+  private synchronized void handOverStale() {
+    if (closed || current.length == 0 || System.nanoTime() - current.firstWriteNanos < flushNanos)
+      return;
+    if (queue.offer(current))
+      afterSubmit();
+  }
+
+  private void writeLoop() {
+    while (true) {
+      final Chunk c;
+      try {
+        c = (flushNanos == 0 ? queue.take() : queue.poll(flushNanos, TimeUnit.NANOSECONDS));
+      } catch (final InterruptedException ie) {
+        continue;
+      }
+      if (c == null) {
+        handOverStale();
+        continue;
+      }
+      if (c == STOP)
+        return;
+      final long start = System.nanoTime();
+      synchronized (progress) {
+        if (failure == null) {
+          try {
+            delegate.write(c.data, 0, c.length);
+          } catch (final IOException ioe) {
+            failure = ioe;
+            PtiLog.error("Async output " + name + " failed to write.", ioe);
+          }
+        }
+        completed++;
+        progress.notifyAll();
+      }
+      final long took = System.nanoTime() - start;
+      writeMetric.record(took);
+      writes++;
+      totalWriteNanos += took;
+      if (took > maxWriteNanos)
+        maxWriteNanos = took;
+      c.length = 0;
+      free.offer(c);
+    }
+  }
+
+  private static final class Chunk {
+    private final byte[] data;
+    private int length = 0;
+    private long firstWriteNanos;
+
+    Chunk(final int size) {
+      this.data = new byte[size];
+    }
+
+    void append(final int b) {
+      if (length == 0)
+        firstWriteNanos = System.nanoTime();
+      data[length++] = (byte) b;
+    }
+
+    int append(final byte[] b, final int off, final int len) {
+      if (length == 0)
+        firstWriteNanos = System.nanoTime();
+      final int n = Math.min(len, data.length - length);
+      System.arraycopy(b, off, data, length, n);
+      length += n;
+      return n;
+    }
+  }
+}
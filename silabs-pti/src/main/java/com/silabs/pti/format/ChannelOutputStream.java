@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.silabs.pti.log.PtiLog;
+
+/**
+ * Buffered output stream that writes into a file channel.
+ *
+ * Writes land in a direct buffer, which is written to the file when it fills
+ * up, when it has been holding data for longer than the flush interval, on
+ * {@link #flush()} and on {@link #close()}. Open streams are also flushed when
+ * the JVM shuts down, so a capture stopped with Ctrl-C loses nothing.
+ *
+ * Methods are synchronized, since one output is commonly shared by the
+ * listeners of several adapters.
+ */
+public class ChannelOutputStream extends OutputStream implements ISizedOutput {
+
+  private static ScheduledExecutorService flusher = null;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+  private final int flushMs;
+  private final ScheduledFuture<?> flushTask;
+  private long bytesWritten = 0;
+  private boolean closed = false;
+
+  public ChannelOutputStream(final File f, final boolean append, final OutputOptions options) throws IOException {
+    this.channel = append
+        ? FileChannel.open(f.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+        : FileChannel.open(f.toPath(),
+                           StandardOpenOption.CREATE,
+                           StandardOpenOption.WRITE,
+                           StandardOpenOption.TRUNCATE_EXISTING);
+    this.buffer = ByteBuffer.allocateDirect(options.bufferSize());
+    this.flushMs = options.flushMs();
+    this.flushTask = flushMs > 0
+        ? flusher().scheduleWithFixedDelay(this::timedFlush, flushMs, flushMs, TimeUnit.MILLISECONDS)
+        : null;
+    ShutdownFlusher.register(this);
+  }
+
+  // Shared timer thread for the periodic flush of all file outputs.
+  static synchronized ScheduledExecutorService flusher() {
+    if (flusher == null) {
+      flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread t = new Thread(r, "Output flusher");
+        t.setDaemon(true);
+        return t;
+      });
+    }
+    return flusher;
+  }
+
+  private void timedFlush() {
+    try {
+      flush();
+    } catch (final IOException ioe) {
+      PtiLog.error("Failed to flush output.", ioe);
+    }
+  }
+
+  /** Returns the number of bytes accepted by this stream so far. */
+  @Override
+  public synchronized long bytesWritten() {
+    return bytesWritten;
+  }
+
+  @Override
+  public synchronized void write(final int b) throws IOException {
+    ensureOpen();
+    if (!buffer.hasRemaining())
+      drain();
+    buffer.put((byte) b);
+    bytesWritten++;
+    if (flushMs == 0)
+      drain();
+  }
+
+  @Override
+  public synchronized void write(final byte[] b, final int off, final int len) throws IOException {
+    ensureOpen();
+    if (len > buffer.remaining()) {
+      drain();
+      if (len > buffer.capacity()) {
+        // Too large to be worth buffering.
+        writeFully(ByteBuffer.wrap(b, off, len));
+        bytesWritten += len;
+        return;
+      }
+    }
+    buffer.put(b, off, len);
+    bytesWritten += len;
+    if (flushMs == 0)
+      drain();
+  }
+
+  @Override
+  public synchronized void flush() throws IOException {
+    if (!closed)
+      drain();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed)
+      return;
+    try {
+      drain();
+    } finally {
+      closed = true;
+      ShutdownFlusher.unregister(this);
+      if (flushTask != null)
+        flushTask.cancel(false);
+      channel.close();
+    }
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed)
+      throw new IOException("Stream closed.");
+  }
+
+  private void drain() throws IOException {
+    if (buffer.position() == 0)
+      return;
+    buffer.flip();
+    try {
+      writeFully(buffer);
+    } finally {
+      buffer.clear();
+    }
+  }
+
+  private void writeFully(final ByteBuffer bb) throws IOException {
+    while (bb.hasRemaining())
+      channel.write(bb);
+  }
+}
@@ -29,8 +29,10 @@ import com.silabs.pti.debugchannel.EventType;
 public class DumpFileFormat implements IDebugChannelExportFormat<OutputStream> {
 
   @Override
-  public OutputStreamOutput createOutput(final File f, final boolean append) throws IOException {
-    return new OutputStreamOutput(f, append);
+  public OutputStreamOutput createOutput(final File f,
+                                         final boolean append,
+                                         final OutputOptions options) throws IOException {
+    return new OutputStreamOutput(f, append, options);
   }
 
   @Override
@@ -26,6 +26,7 @@ public enum FileFormat {
   RAW(new RawFileFormat()),
   LOG(new LogFileFormat()),
   AEM(new AemFileFormat()),
+  AEM_BINARY(new AemBinaryFormat()),
   TEXT(new TextFileFormat()),
   PCAPNG(new PcapngFormat(PcapngFormat.Mode.DCH)),
   PCAPNG_MATTER(new PcapngFormat(PcapngFormat.Mode.MATTER)),
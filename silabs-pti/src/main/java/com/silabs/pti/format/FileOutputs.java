@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Opens the byte stream behind file outputs, according to the output options.
+ */
+public final class FileOutputs {
+
+  private FileOutputs() {
+  }
+
+  /**
+   * Opens a buffered stream into the file. Unless disabled in the options, the
+   * disk writes happen on a writer thread dedicated to the file. Memory mapped
+   * files make no writes to wait for, so they are written directly. Compressed
+   * files get the compression on top, and are written under the name of
+   * {@link #file(File, OutputOptions)}.
+   */
+  public static OutputStream open(final File f,
+                                  final boolean append,
+                                  final OutputOptions options) throws IOException {
+    final OutputStream out = openFile(file(f, options), append, options);
+    if (options.compression() == OutputOptions.Compression.GZIP)
+      return new ParallelGzipOutputStream(out, options.flushMs());
+    return out;
+  }
+
+  /**
+   * Returns the file that output into the given one is written to. Compressed
+   * output gets a .gz suffix, unless the name has it already, so that it isn't
+   * taken for plain text or pcapng.
+   */
+  public static File file(final File f, final OutputOptions options) {
+    if (options.compression() == OutputOptions.Compression.GZIP && !f.getName().endsWith(".gz"))
+      return new File(f.getPath() + ".gz");
+    return f;
+  }
+
+  private static OutputStream openFile(final File f,
+                                       final boolean append,
+                                       final OutputOptions options) throws IOException {
+    if (options.mmapChunk() > 0)
+      return new MappedFileOutputStream(f, append, options);
+    final OutputStream out = new ChannelOutputStream(f, append, options);
+    if (options.asyncQueue() == 0)
+      return out;
+    return new AsyncOutputStream(out, f.getName(), options.asyncQueue(), options.flushMs());
+  }
+
+  /**
+   * Returns the number of bytes written into a stream opened by
+   * {@link #open(File, boolean, OutputOptions)}, or -1 for any other stream.
+   */
+  static long bytesWritten(final OutputStream out) {
+    return out instanceof ISizedOutput ? ((ISizedOutput) out).bytesWritten() : -1;
+  }
+}
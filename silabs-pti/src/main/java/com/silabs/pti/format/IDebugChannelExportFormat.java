@@ -29,7 +29,21 @@ public interface IDebugChannelExportFormat<T> {
 
   public IDebugChannelExportOutput<T> createStdoutOutput() throws IOException;
 
-  public IDebugChannelExportOutput<T> createOutput(File f, boolean append) throws IOException;
+  /**
+   * Creates an output that writes into a file, using default output options.
+   */
+  public default IDebugChannelExportOutput<T> createOutput(final File f, final boolean append) throws IOException {
+    return createOutput(f, append, OutputOptions.defaults());
+  }
+
+  /**
+   * Creates an output that writes into a file.
+   *
+   * @param f       File to write.
+   * @param append  If true, the file is appended to instead of overwritten.
+   * @param options Buffering and other output options.
+   */
+  public IDebugChannelExportOutput<T> createOutput(File f, boolean append, OutputOptions options) throws IOException;
 
   /**
    * Returns human readable description of this file format.
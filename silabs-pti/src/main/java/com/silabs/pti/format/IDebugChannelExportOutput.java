@@ -31,6 +31,31 @@ public interface IDebugChannelExportOutput<T> extends Closeable {
    */
   T writer();
 
+  /**
+   * Returns the writer for one write, to be handed back with
+   * {@link #release(Object)} once the write is done. Outputs that replace
+   * their writer, like a rotating one, keep it open until then.
+   *
+   * @return
+   */
+  default T acquire() {
+    return writer();
+  }
+
+  /**
+   * Hands back a writer returned by {@link #acquire()}.
+   */
+  default void release(final T writer) {
+  }
+
+  /**
+   * Returns the number of bytes written into the file so far, or -1 if the
+   * output doesn't know.
+   */
+  default long size() {
+    return -1;
+  }
+
   /**
    * Closes the output for writing.
    */
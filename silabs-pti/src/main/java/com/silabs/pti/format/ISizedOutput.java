@@ -0,0 +1,25 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+/**
+ * File output that knows how much it has written, which is what
+ * {@link RotatingOutput} goes by.
+ */
+interface ISizedOutput {
+
+  /** Returns the number of bytes accepted for the file so far. */
+  long bytesWritten();
+}
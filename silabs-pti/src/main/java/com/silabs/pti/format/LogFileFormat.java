@@ -17,8 +17,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 
-import com.silabs.na.pcap.util.ByteArrayUtil;
 import com.silabs.pti.debugchannel.DebugMessage;
+import com.silabs.pti.debugchannel.DebugMessageType;
 import com.silabs.pti.debugchannel.EventType;
 import com.silabs.pti.debugchannel.PtiUtilities;
 import com.silabs.pti.debugchannel.RadioConfiguration;
@@ -32,8 +32,10 @@ import com.silabs.pti.debugchannel.RadioConfiguration;
 public class LogFileFormat implements IDebugChannelExportFormat<PrintStream> {
 
   @Override
-  public IDebugChannelExportOutput<PrintStream> createOutput(final File f, final boolean append) throws IOException {
-    return new PrintStreamOutput(f, append);
+  public IDebugChannelExportOutput<PrintStream> createOutput(final File f,
+                                                            final boolean append,
+                                                            final OutputOptions options) throws IOException {
+    return new PrintStreamOutput(f, append, options);
   }
 
   @Override
@@ -66,11 +68,40 @@ public class LogFileFormat implements IDebugChannelExportFormat<PrintStream> {
                                     final String originator,
                                     final DebugMessage dm,
                                     final EventType type) throws IOException {
-    final byte[] contents = dm.eventContents();
-    final String x = "[" + dm.networkTime() + " " + RadioConfiguration.FIFTEENFOUR.microsecondDuration(contents.length)
-        + " " + type.value() + " " + type.name() + "] [" + originator + "] [" + ByteArrayUtil.formatByteArray(contents)
-        + "]";
-    out.println(x);
+    final byte[] data;
+    final int offset;
+    final int length;
+    if (type == EventType.OUT_OF_SEQUENCE) {
+      // Gap marker: the expected and received sequence numbers.
+      data = dm.payloadArray();
+      offset = dm.payloadOffset();
+      length = dm.contentLength();
+    } else if (DebugMessageType.get(dm.debugType()) == DebugMessageType.INVALID) {
+      // Unknown types carry the type in front of the contents, see eventContents().
+      data = dm.eventContents();
+      offset = 0;
+      length = data.length;
+    } else {
+      data = dm.payloadArray();
+      offset = dm.payloadOffset();
+      length = dm.contentLength();
+    }
+    TextFormatter.get()
+        .append('[')
+        .decimal(dm.networkTime())
+        .append(' ')
+        .decimal(type == EventType.OUT_OF_SEQUENCE ? 0 : RadioConfiguration.FIFTEENFOUR.microsecondDuration(length))
+        .append(' ')
+        .decimal(type.value())
+        .append(' ')
+        .append(type.name())
+        .append("] [")
+        .append(originator)
+        .append("] [")
+        .hex(data, offset, length)
+        .append(']')
+        .newLine()
+        .writeTo(out);
     return true;
   }
 
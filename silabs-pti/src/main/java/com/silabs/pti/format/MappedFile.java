@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import com.silabs.pti.log.PtiLog;
+
+/**
+ * File written through a memory mapped window.
+ *
+ * The window is mapped at the end of the written data and extends the file by
+ * a whole chunk at a time. When the data reaches the end of the window, the
+ * next chunk is mapped, so writing makes no system calls at all apart from one
+ * per chunk. On close, the file is truncated to the written size.
+ *
+ * A file can't be truncated on Windows while any part of it is mapped, so
+ * windows are unmapped as soon as they are replaced, and the last one before
+ * truncating. Java has no public way to unmap, so that goes through
+ * Unsafe.invokeCleaner. Where that isn't available a window is only unmapped
+ * once collected, and on Windows the file then keeps its excess.
+ *
+ * Until then, the file is longer than the data, and the excess reads as zeros.
+ * Writers that need a file that is valid at all times, such as
+ * {@link PcapngWriter}, cover the excess themselves.
+ *
+ * Not thread safe. The owner synchronizes.
+ */
+final class MappedFile implements Closeable {
+
+  private static final boolean IS_WINDOWS = System.getProperty("os.name", "").toLowerCase().startsWith("windows");
+
+  private final File file;
+  private final FileChannel channel;
+  private final long chunkSize;
+  private final ByteOrder order;
+  private MappedByteBuffer window;
+  private long windowStart;
+  // False once a window was left mapped until it is collected.
+  private boolean allUnmapped = true;
+
+  MappedFile(final File f, final boolean append, final long chunkSize, final ByteOrder order) throws IOException {
+    this.file = f;
+    this.channel = append
+        ? FileChannel.open(f.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+        : FileChannel.open(f.toPath(),
+                           StandardOpenOption.CREATE,
+                           StandardOpenOption.READ,
+                           StandardOpenOption.WRITE,
+                           StandardOpenOption.TRUNCATE_EXISTING);
+    this.chunkSize = chunkSize;
+    this.order = order;
+    try {
+      map(channel.size(), 0);
+    } catch (final IOException ioe) {
+      channel.close();
+      throw ioe;
+    }
+  }
+
+  /**
+   * Returns the window, positioned at the end of the written data, with at
+   * least the given number of bytes remaining. Whatever is put into it counts
+   * as written.
+   */
+  ByteBuffer reserve(final int length) throws IOException {
+    if (window.remaining() < length)
+      map(size(), length);
+    return window;
+  }
+
+  /** Returns the number of bytes written into the file. */
+  long size() {
+    return window == null ? windowStart : windowStart + window.position();
+  }
+
+  /**
+   * Writes the changes in the window to the disk. A process that dies keeps its
+   * writes anyway, since they are in the page cache. This is about the machine
+   * going down.
+   */
+  void force() {
+    if (window != null)
+      window.force();
+  }
+
+  /** Unmaps the window, truncates the file to the written size and closes it. */
+  @Override
+  public void close() throws IOException {
+    if (window == null)
+      return;
+    final long size = size();
+    unmap(window);
+    window = null;
+    windowStart = size;
+    try {
+      if (allUnmapped || !IS_WINDOWS)
+        channel.truncate(size);
+      else
+        PtiLog.warning("Can't unmap " + file + ", leaving its zero filled excess after the data.");
+    } finally {
+      channel.close();
+    }
+  }
+
+  private void map(final long start, final int minLength) throws IOException {
+    final long length = Math.max(chunkSize, minLength);
+    final MappedByteBuffer old = window;
+    // force() only covers the current window.
+    if (old != null)
+      old.force();
+    // Mapping past the end grows the file.
+    window = channel.map(FileChannel.MapMode.READ_WRITE, start, length);
+    window.order(order);
+    windowStart = start;
+    // Owners only use the window of the latest reserve(), so the old one is
+    // no longer referenced.
+    if (old != null)
+      unmap(old);
+  }
+
+  private void unmap(final MappedByteBuffer buffer) {
+    if (!Unmapper.unmap(buffer))
+      allUnmapped = false;
+  }
+
+  /**
+   * The one place that reaches into the JDK to unmap. If the reflection is
+   * denied, or the call fails, it says so once and leaves mappings to the
+   * garbage collector from then on.
+   */
+  private static final class Unmapper {
+    private static Object unsafe;
+    private static Method invokeCleaner;
+
+    static {
+      try {
+        final Class<?> c = Class.forName("sun.misc.Unsafe");
+        final Field f = c.getDeclaredField("theUnsafe");
+        f.setAccessible(true);
+        unsafe = f.get(null);
+        invokeCleaner = c.getMethod("invokeCleaner", ByteBuffer.class);
+      } catch (final ReflectiveOperationException | RuntimeException e) {
+        // Before Java 9, or locked down.
+        disable(e);
+      }
+    }
+
+    private Unmapper() {
+    }
+
+    // Returns false if the mapping is left to the garbage collector.
+    static synchronized boolean unmap(final MappedByteBuffer buffer) {
+      if (invokeCleaner == null)
+        return false;
+      try {
+        invokeCleaner.invoke(unsafe, buffer);
+        return true;
+      } catch (final ReflectiveOperationException | RuntimeException e) {
+        disable(e);
+        return false;
+      }
+    }
+
+    private static void disable(final Exception e) {
+      unsafe = null;
+      invokeCleaner = null;
+      PtiLog.warning("Can't unmap memory mapped files, they are unmapped once collected."
+          + (IS_WINDOWS ? " Their zero filled excess is left after the data." : ""), e);
+    }
+  }
+}
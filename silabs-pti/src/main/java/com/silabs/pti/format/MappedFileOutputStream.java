@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.silabs.pti.log.PtiLog;
+
+/**
+ * Output stream that writes into a memory mapped file, see {@link MappedFile}.
+ *
+ * Written data is forced to the disk every flush interval and on
+ * {@link #flush()}. If the process dies before closing, the file keeps
+ * its zero filled excess after the data. It is closed and truncated when the
+ * JVM shuts down, so a capture stopped with Ctrl-C still ends cleanly.
+ *
+ * Methods are synchronized, since one output is commonly shared by the
+ * listeners of several adapters.
+ */
+public class MappedFileOutputStream extends OutputStream implements ISizedOutput {
+
+  private final MappedFile file;
+  private final ScheduledFuture<?> flushTask;
+  private boolean closed = false;
+
+  public MappedFileOutputStream(final File f, final boolean append, final OutputOptions options) throws IOException {
+    this.file = new MappedFile(f, append, options.mmapChunk(), ByteOrder.BIG_ENDIAN);
+    final int flushMs = options.flushMs();
+    this.flushTask = flushMs > 0
+        ? ChannelOutputStream.flusher().scheduleWithFixedDelay(this::timedFlush, flushMs, flushMs, TimeUnit.MILLISECONDS)
+        : null;
+    ShutdownFlusher.registerClose(this);
+  }
+
+  private void timedFlush() {
+    try {
+      flush();
+    } catch (final IOException ioe) {
+      PtiLog.error("Failed to flush output.", ioe);
+    }
+  }
+
+  /** Returns the number of bytes written into the file so far. */
+  @Override
+  public synchronized long bytesWritten() {
+    return file.size();
+  }
+
+  @Override
+  public synchronized void write(final int b) throws IOException {
+    ensureOpen();
+    file.reserve(1).put((byte) b);
+  }
+
+  @Override
+  public synchronized void write(final byte[] b, int off, int len) throws IOException {
+    ensureOpen();
+    while (len > 0) {
+      // Fill up the window, rather than mapping a larger one for a large write.
+      final ByteBuffer w = file.reserve(1);
+      final int n = Math.min(len, w.remaining());
+      w.put(b, off, n);
+      off += n;
+      len -= n;
+    }
+  }
+
+  @Override
+  public synchronized void flush() throws IOException {
+    if (!closed)
+      file.force();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed)
+      return;
+    closed = true;
+    ShutdownFlusher.unregisterClose(this);
+    if (flushTask != null)
+      flushTask.cancel(false);
+    file.close();
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed)
+      throw new IOException("Stream closed.");
+  }
+}
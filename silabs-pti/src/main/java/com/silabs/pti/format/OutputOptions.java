@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+/**
+ * Options that control how file outputs are written. Passed to
+ * {@link IDebugChannelExportFormat#createOutput(java.io.File, boolean, OutputOptions)}.
+ */
+public class OutputOptions {
+
+  /** Compression applied to output files. */
+  public static enum Compression {
+    NONE, GZIP;
+
+    /** Returns the compression for a command line name, like "gzip". */
+    public static Compression fromName(final String name) {
+      return valueOf(name.toUpperCase());
+    }
+  }
+
+  /** Default time after which buffered output is written out. */
+  public static final int DEFAULT_FLUSH_MS = 1000;
+
+  /** Default size of the output buffer. */
+  public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+  /** Default number of chunks queued for the asynchronous writer. */
+  public static final int DEFAULT_ASYNC_QUEUE = 32;
+
+  /** Default size of the chunks a memory mapped file grows by. */
+  public static final long DEFAULT_MMAP_CHUNK = 256L * 1024 * 1024;
+
+  private int flushMs = DEFAULT_FLUSH_MS;
+  private int bufferSize = DEFAULT_BUFFER_SIZE;
+  private int asyncQueue = DEFAULT_ASYNC_QUEUE;
+  private long mmapChunk = 0;
+  private long rotateBytes = 0;
+  private long rotateMs = 0;
+  private int keepFiles = 0;
+  private Compression compression = Compression.NONE;
+
+  /** Returns options with all defaults. */
+  public static OutputOptions defaults() {
+    return new OutputOptions();
+  }
+
+  /**
+   * Maximum time in milliseconds that written data may sit in the buffer before
+   * it is written to the file. 0 writes through on every write, like an
+   * unbuffered stream.
+   */
+  public int flushMs() {
+    return flushMs;
+  }
+
+  public OutputOptions flushMs(final int ms) {
+    if (ms < 0)
+      throw new IllegalArgumentException("Flush interval can't be negative: " + ms);
+    this.flushMs = ms;
+    return this;
+  }
+
+  /** Size of the output buffer in bytes. A full buffer is always written out. */
+  public int bufferSize() {
+    return bufferSize;
+  }
+
+  public OutputOptions bufferSize(final int size) {
+    if (size < 1)
+      throw new IllegalArgumentException("Buffer size must be positive: " + size);
+    this.bufferSize = size;
+    return this;
+  }
+
+  /**
+   * Number of chunks of {@link AsyncOutputStream#CHUNK_SIZE} bytes that may
+   * wait for the writer thread of a file. 0 writes on the calling thread.
+   */
+  public int asyncQueue() {
+    return asyncQueue;
+  }
+
+  public OutputOptions asyncQueue(final int chunks) {
+    if (chunks < 0)
+      throw new IllegalArgumentException("Queue size can't be negative: " + chunks);
+    this.asyncQueue = chunks;
+    return this;
+  }
+
+  /**
+   * Size in bytes of the chunks that a memory mapped output file grows by. 0,
+   * the default, writes through a file channel instead.
+   */
+  public long mmapChunk() {
+    return mmapChunk;
+  }
+
+  public OutputOptions mmapChunk(final long bytes) {
+    // Chunks keep blocks of PCAPNG files aligned and fit a mapped buffer.
+    if (bytes < 0 || bytes % 4 != 0 || bytes > Integer.MAX_VALUE)
+      throw new IllegalArgumentException("Invalid memory mapped chunk size: " + bytes);
+    this.mmapChunk = bytes;
+    return this;
+  }
+
+  /**
+   * Size in bytes after which a capture moves on to the next file, see
+   * {@link RotatingOutput}. 0, the default, never rotates by size.
+   */
+  public long rotateBytes() {
+    return rotateBytes;
+  }
+
+  public OutputOptions rotateBytes(final long bytes) {
+    if (bytes < 0)
+      throw new IllegalArgumentException("Rotation size can't be negative: " + bytes);
+    this.rotateBytes = bytes;
+    return this;
+  }
+
+  /**
+   * Time in milliseconds after which a capture moves on to the next file. 0, the
+   * default, never rotates by time.
+   */
+  public long rotateMs() {
+    return rotateMs;
+  }
+
+  public OutputOptions rotateMs(final long ms) {
+    if (ms < 0)
+      throw new IllegalArgumentException("Rotation time can't be negative: " + ms);
+    this.rotateMs = ms;
+    return this;
+  }
+
+  /**
+   * Number of most recent files a rotating capture keeps. Older ones are
+   * deleted. 0, the default, keeps all of them.
+   */
+  public int keepFiles() {
+    return keepFiles;
+  }
+
+  public OutputOptions keepFiles(final int count) {
+    if (count < 0)
+      throw new IllegalArgumentException("Number of files to keep can't be negative: " + count);
+    this.keepFiles = count;
+    return this;
+  }
+
+  /**
+   * Compression of output files. With {@link Compression#GZIP}, files are
+   * written by a {@link ParallelGzipOutputStream}.
+   */
+  public Compression compression() {
+    return compression;
+  }
+
+  public OutputOptions compression(final Compression compression) {
+    this.compression = compression;
+    return this;
+  }
+
+  /** Returns true if captures move on to new files by size or time. */
+  public boolean rotates() {
+    return rotateBytes > 0 || rotateMs > 0;
+  }
+}
@@ -14,12 +14,12 @@
 package com.silabs.pti.format;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
 /**
- * Export output based on FileOutputStream
+ * Export output based on a buffered file stream (see {@link FileOutputs}), or
+ * stdout.
  * 
  * @author timotej
  *
@@ -34,17 +34,26 @@ class OutputStreamOutput implements IDebugChannelExportOutput<OutputStream> {
   }
 
   public OutputStreamOutput(final File f) throws IOException {
-    this.fos = new FileOutputStream(f);
+    this(f, false);
   }
 
   public OutputStreamOutput(final File f, final boolean append) throws IOException {
-    this.fos = new FileOutputStream(f, append);
+    this(f, append, OutputOptions.defaults());
+  }
+
+  public OutputStreamOutput(final File f, final boolean append, final OutputOptions options) throws IOException {
+    this.fos = FileOutputs.open(f, append, options);
   }
 
   public OutputStreamOutput() {
     this.fos = System.out;
   }
 
+  @Override
+  public long size() {
+    return FileOutputs.bytesWritten(fos);
+  }
+
   @Override
   public void close() throws IOException {
     fos.close();
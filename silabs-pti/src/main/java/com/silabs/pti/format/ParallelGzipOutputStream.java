@@ -0,0 +1,265 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import com.silabs.pti.log.PtiLog;
+
+/**
+ * Output stream that gzip compresses on all cores, in the manner of pigz.
+ *
+ * Data is cut into blocks of {@link #BLOCK_SIZE} bytes, and each block is
+ * compressed into a gzip member of its own by a fork join pool. The members are
+ * written into the delegate in order, which makes the output a multi member
+ * gzip file that gzip, zcat and Wireshark read like any other. Since blocks are
+ * compressed independently, the ratio is marginally worse than that of a
+ * single stream.
+ *
+ * The calling thread only fills blocks and writes finished members. If
+ * compression falls behind, it waits for the oldest block, which bounds the
+ * memory used. The flush interval writes out finished members, and compresses
+ * a partially filled block only once its data is {@link #MAX_BLOCK_AGE_MS}
+ * old, so that a quiet output still reaches the file without turning into a
+ * stream of tiny members. {@link #flush()} compresses the partial block at
+ * once, and waits for the compression without holding up the writers.
+ *
+ * Methods are synchronized, since one output is commonly shared by the
+ * listeners of several adapters.
+ */
+public class ParallelGzipOutputStream extends OutputStream implements ISizedOutput {
+
+  /** Size of the blocks compressed independently. */
+  public static final int BLOCK_SIZE = 128 * 1024;
+
+  /** Age at which the flush interval compresses a partially filled block. */
+  public static final int MAX_BLOCK_AGE_MS = 10000;
+
+  private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+  private static ForkJoinPool pool = null;
+  private static final ThreadLocal<Deflater> deflaters = ThreadLocal
+      .withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+
+  private final OutputStream delegate;
+  private final int maxPending;
+  private final long maxBlockAgeNanos;
+  private final ScheduledFuture<?> flushTask;
+  private final Deque<ForkJoinTask<byte[]>> pending = new ArrayDeque<>();
+  private final Queue<byte[]> free = new ConcurrentLinkedQueue<>();
+  private byte[] block = new byte[BLOCK_SIZE];
+  private int blockLength = 0;
+  // When the first byte of the current block was written.
+  private long blockStartNanos = 0;
+  private boolean anyMember = false;
+  private boolean closed = false;
+
+  /**
+   * Creates a new stream.
+   *
+   * @param delegate Stream that receives the compressed members.
+   * @param flushMs  Interval at which finished members and aged blocks are
+   *                 written. 0 leaves it to {@link #flush()}.
+   */
+  public ParallelGzipOutputStream(final OutputStream delegate, final int flushMs) {
+    this.delegate = delegate;
+    this.maxBlockAgeNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(flushMs, MAX_BLOCK_AGE_MS));
+    // Enough blocks in flight to keep all workers busy while members are
+    // written.
+    this.maxPending = 2 * pool().getParallelism() + 1;
+    this.flushTask = flushMs > 0
+        ? ChannelOutputStream.flusher().scheduleWithFixedDelay(this::timedFlush, flushMs, flushMs, TimeUnit.MILLISECONDS)
+        : null;
+    ShutdownFlusher.register(this);
+  }
+
+  private static synchronized ForkJoinPool pool() {
+    if (pool == null)
+      pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    return pool;
+  }
+
+  private synchronized void timedFlush() {
+    if (closed)
+      return;
+    try {
+      // The aged block is written on a later round, once compressed.
+      if (blockLength > 0 && System.nanoTime() - blockStartNanos >= maxBlockAgeNanos)
+        submit();
+      else
+        writeMembers(false);
+      delegate.flush();
+    } catch (final IOException ioe) {
+      PtiLog.error("Failed to flush compressed output.", ioe);
+    }
+  }
+
+  /** Returns the number of compressed bytes written into the delegate. */
+  @Override
+  public long bytesWritten() {
+    return FileOutputs.bytesWritten(delegate);
+  }
+
+  @Override
+  public synchronized void write(final int b) throws IOException {
+    ensureOpen();
+    if (blockLength == 0)
+      blockStartNanos = System.nanoTime();
+    block[blockLength++] = (byte) b;
+    if (blockLength == BLOCK_SIZE)
+      submit();
+  }
+
+  @Override
+  public synchronized void write(final byte[] b, int off, int len) throws IOException {
+    ensureOpen();
+    while (len > 0) {
+      if (blockLength == 0)
+        blockStartNanos = System.nanoTime();
+      final int n = Math.min(len, BLOCK_SIZE - blockLength);
+      System.arraycopy(b, off, block, blockLength, n);
+      blockLength += n;
+      off += n;
+      len -= n;
+      if (blockLength == BLOCK_SIZE)
+        submit();
+    }
+  }
+
+  /**
+   * Compresses the partially filled block, writes all members into the
+   * delegate and flushes it. The compression is waited for outside the lock,
+   * so writers keep filling blocks meanwhile.
+   */
+  @Override
+  public void flush() throws IOException {
+    final ForkJoinTask<?>[] flushed;
+    synchronized (this) {
+      if (closed)
+        return;
+      if (blockLength > 0)
+        submit();
+      flushed = pending.toArray(new ForkJoinTask<?>[0]);
+    }
+    for (final ForkJoinTask<?> t : flushed)
+      t.quietlyJoin();
+    synchronized (this) {
+      if (closed)
+        return;
+      // Writes everything up to the flushed members, which are all done.
+      writeMembers(false);
+      delegate.flush();
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed)
+      return;
+    try {
+      // An empty file is no gzip file, an empty member is.
+      if (blockLength > 0 || !anyMember)
+        submit();
+      writeMembers(true);
+    } finally {
+      closed = true;
+      ShutdownFlusher.unregister(this);
+      if (flushTask != null)
+        flushTask.cancel(false);
+      delegate.close();
+    }
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed)
+      throw new IOException("Stream closed.");
+  }
+
+  private void submit() throws IOException {
+    final byte[] data = block;
+    final int length = blockLength;
+    pending.add(pool().submit(() -> {
+      try {
+        return member(data, length);
+      } finally {
+        free.offer(data);
+      }
+    }));
+    anyMember = true;
+    final byte[] next = free.poll();
+    block = (next != null ? next : new byte[BLOCK_SIZE]);
+    blockLength = 0;
+    writeMembers(false);
+  }
+
+  // Writes finished members in order. Waits for all of them if asked to, or
+  // for as many as it takes to get down to the limit.
+  private void writeMembers(final boolean all) throws IOException {
+    while (!pending.isEmpty()) {
+      final ForkJoinTask<byte[]> head = pending.peekFirst();
+      if (!all && !head.isDone() && pending.size() <= maxPending)
+        return;
+      final byte[] member;
+      try {
+        member = head.join();
+      } catch (final RuntimeException re) {
+        throw new IOException("Compression failed.", re);
+      }
+      pending.removeFirst();
+      delegate.write(member);
+    }
+  }
+
+  // Compresses the data into a complete gzip member.
+  private static byte[] member(final byte[] data, final int length) {
+    final Deflater deflater = deflaters.get();
+    deflater.reset();
+    deflater.setInput(data, 0, length);
+    deflater.finish();
+    byte[] out = new byte[GZIP_HEADER.length + length + (length >>> 3) + 64];
+    System.arraycopy(GZIP_HEADER, 0, out, 0, GZIP_HEADER.length);
+    int n = GZIP_HEADER.length;
+    while (!deflater.finished()) {
+      if (n == out.length - 8)
+        out = Arrays.copyOf(out, out.length * 2);
+      n += deflater.deflate(out, n, out.length - 8 - n);
+    }
+    final CRC32 crc = new CRC32();
+    crc.update(data, 0, length);
+    n = putIntLE(out, n, (int) crc.getValue());
+    n = putIntLE(out, n, length);
+    return n == out.length ? out : Arrays.copyOf(out, n);
+  }
+
+  private static int putIntLE(final byte[] b, final int off, final int v) {
+    b[off] = (byte) v;
+    b[off + 1] = (byte) (v >>> 8);
+    b[off + 2] = (byte) (v >>> 16);
+    b[off + 3] = (byte) (v >>> 24);
+    return off + 4;
+  }
+}
@@ -15,6 +15,7 @@ package com.silabs.pti.format;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 
 import com.silabs.na.pcap.IPcapOutput;
 import com.silabs.na.pcap.LinkType;
@@ -78,10 +79,12 @@ public class PcapngFormat implements IDebugChannelExportFormat<IPcapOutput> {
   }
 
   @Override
-  public IDebugChannelExportOutput<IPcapOutput> createOutput(final File f, final boolean append) throws IOException {
+  public IDebugChannelExportOutput<IPcapOutput> createOutput(final File f,
+                                                             final boolean append,
+                                                             final OutputOptions options) throws IOException {
     if (append)
       throw new IOException("Appending to pcap files not supported.");
-    return new PcapngOutput(f);
+    return new PcapngOutput(f, options);
   }
 
   @Override
@@ -105,8 +108,9 @@ public class PcapngFormat implements IDebugChannelExportFormat<IPcapOutput> {
                                     final DebugMessage dm,
                                     final EventType type) throws IOException {
     // We end here in the case where mode is not using raw bytes.
-    byte[] content;
-    long time;
+    final byte[] buff = dm.payloadArray();
+    int startOffset = dm.payloadOffset();
+    int endOffset = startOffset + dm.contentLength();
     switch (mode) {
     case BLUETOOTH:
     case MATTER:
@@ -115,15 +119,12 @@ public class PcapngFormat implements IDebugChannelExportFormat<IPcapOutput> {
       // For WISUN mode, we ignore non-packets.
       if (!type.isPacket())
         return false;
-      byte[] buff = dm.contents();
-      int startOffset = 0;
-      int endOffset = buff.length;
       if (type.isFromEfr()) {
         // For Efr, we know how to extract the payload.
 
         // Adjust start offset...
 
-        if (buff[startOffset] == (byte) 0xF8 || buff[startOffset] == (byte) 0xFC) {
+        if (startOffset < endOffset && (buff[startOffset] == (byte) 0xF8 || buff[startOffset] == (byte) 0xFC)) {
           // omit leading encapsulation byte if there is one
           startOffset++;
         }
@@ -138,25 +139,20 @@ public class PcapngFormat implements IDebugChannelExportFormat<IPcapOutput> {
         }
 
         // Adjust endOffset
-        endOffset -= RadioInfoEfr32.determineRadioInfoLength(type, buff, mode == Mode.BLUETOOTH);
+        endOffset -= RadioInfoEfr32.determineRadioInfoLength(type,
+                                                             buff,
+                                                             dm.payloadOffset(),
+                                                             dm.contentLength(),
+                                                             mode == Mode.BLUETOOTH);
 
-        int len = endOffset - startOffset;
-        if (len < 0)
+        if (endOffset < startOffset)
           return false;
-
-        content = new byte[len];
-        System.arraycopy(buff, startOffset, content, 0, len);
-      } else {
-        content = buff;
       }
-      time = dm.networkTime();
       break;
     default:
-      content = dm.contents();
-      time = dm.networkTime();
       break;
     }
-    out.writeEnhancedPacketBlock(0, time, content);
+    writePacket(out, dm.networkTime(), buff, startOffset, endOffset - startOffset);
     return true;
   }
 
@@ -167,10 +163,25 @@ public class PcapngFormat implements IDebugChannelExportFormat<IPcapOutput> {
                                 final int offset,
                                 final int length) throws IOException {
     // We end here in the raw bytes case (mode == DCH)
-    out.writeEnhancedPacketBlock(0, pcTimeMs, rawBytes);
+    writePacket(out, pcTimeMs, rawBytes, offset, length);
     return true;
   }
 
+  // Our own writer takes the range as is, anything else gets a copy.
+  private static void writePacket(final IPcapOutput out,
+                                  final long time,
+                                  final byte[] data,
+                                  final int offset,
+                                  final int length) throws IOException {
+    if (out instanceof PcapngWriter) {
+      ((PcapngWriter) out).writeEnhancedPacketBlock(0, time, data, offset, length);
+    } else if (offset == 0 && length == data.length) {
+      out.writeEnhancedPacketBlock(0, time, data);
+    } else {
+      out.writeEnhancedPacketBlock(0, time, Arrays.copyOfRange(data, offset, offset + length));
+    }
+  }
+
   @Override
   public void writeRawUnframedData(final IPcapOutput out,
                                    final byte[] rawBytes,
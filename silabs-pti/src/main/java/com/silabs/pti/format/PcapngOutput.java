@@ -17,20 +17,24 @@ import java.io.File;
 import java.io.IOException;
 
 import com.silabs.na.pcap.IPcapOutput;
-import com.silabs.na.pcap.Pcap;
 
 /**
- * Output implementation using a PCAP NG format from the pcap library.
+ * Output implementation using a PCAP NG format, written by {@link PcapngWriter}.
  * 
  * @author timotej
  *
  */
 public class PcapngOutput implements IDebugChannelExportOutput<IPcapOutput> {
 
-  private final IPcapOutput pcapOutput;
+  private final PcapngWriter pcapOutput;
 
-  PcapngOutput(final File f) throws IOException {
-    pcapOutput = Pcap.openForWriting(f);
+  PcapngOutput(final File f, final OutputOptions options) throws IOException {
+    pcapOutput = new PcapngWriter(f, options);
+  }
+
+  @Override
+  public long size() {
+    return pcapOutput.bytesWritten();
   }
 
   @Override
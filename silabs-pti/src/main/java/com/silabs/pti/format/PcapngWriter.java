@@ -0,0 +1,350 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.silabs.na.pcap.BlockType;
+import com.silabs.na.pcap.IPcapOutput;
+import com.silabs.na.pcap.LinkType;
+import com.silabs.na.pcap.Option;
+import com.silabs.na.pcap.OptionType;
+import com.silabs.na.pcap.Pcap;
+import com.silabs.pti.log.PtiLog;
+
+/**
+ * PCAPNG writer that batches blocks in a direct buffer.
+ *
+ * Blocks are serialized straight into the buffer, packet data included, and the
+ * buffer is written to the file when it fills up, when it has been holding data
+ * for longer than the flush interval, on {@link #flush()} and on
+ * {@link #close()}. Packets can be written from a range of a larger array, so
+ * callers don't have to copy them out first.
+ *
+ * The file is byte for byte the same as the one written by
+ * {@link Pcap#openForWriting(File)}: same section header options, native byte
+ * order, and the same interface description and enhanced packet blocks.
+ *
+ * With {@link OutputOptions#mmapChunk()} set, blocks are serialized straight
+ * into a {@link MappedFile} instead. The excess of the mapped file past the
+ * last block is always covered by a block of a local use type, which readers
+ * skip, so the file stays valid even if the process dies before closing. The
+ * flush interval then forces written blocks to the disk.
+ *
+ * Compressed files are written through the stream of {@link FileOutputs}, which
+ * takes care of the compression, and of memory mapping if set.
+ *
+ * Methods are synchronized, since one output is commonly shared by the
+ * listeners of several adapters.
+ */
+public class PcapngWriter implements IPcapOutput, Flushable, ISizedOutput {
+
+  private static final int BYTE_ORDER_MAGIC = 0x1A2B3C4D;
+  private static final int BLOCK_OVERHEAD = 12;
+  private static final int EPB_HEADER_LENGTH = 20;
+  // Local use block type, covering the unwritten part of a mapped file.
+  private static final int EXCESS_BLOCK_TYPE = 0x80000000 | 0x5049;
+
+  // Either a channel with its buffer, or a mapped file. Compressed files are
+  // written into a channel over the compressing stream.
+  private final WritableByteChannel channel;
+  private final ByteBuffer buffer;
+  private final MappedFile mapped;
+  // Mapped window of the last block, to tell when a new one was mapped.
+  private ByteBuffer window = null;
+  private final OutputStream stream;
+  private final int flushMs;
+  private final ScheduledFuture<?> flushTask;
+  private int interfaceCount = 0;
+  private long bytesWritten = 0;
+  private boolean closed = false;
+
+  /**
+   * Creates the file and writes the section header block, with the same
+   * options as {@link Pcap#openForWriting(File)}.
+   */
+  public PcapngWriter(final File f, final OutputOptions options) throws IOException {
+    if (options.compression() != OutputOptions.Compression.NONE) {
+      this.stream = FileOutputs.open(f, false, options);
+      this.channel = Channels.newChannel(stream);
+      this.buffer = ByteBuffer.allocate(options.bufferSize()).order(ByteOrder.nativeOrder());
+      this.mapped = null;
+    } else if (options.mmapChunk() > 0) {
+      this.stream = null;
+      this.channel = null;
+      this.buffer = null;
+      this.mapped = new MappedFile(f, false, options.mmapChunk(), ByteOrder.nativeOrder());
+    } else {
+      this.stream = null;
+      this.channel = FileChannel.open(f.toPath(),
+                                      StandardOpenOption.WRITE,
+                                      StandardOpenOption.CREATE,
+                                      StandardOpenOption.TRUNCATE_EXISTING);
+      this.buffer = ByteBuffer.allocateDirect(options.bufferSize()).order(ByteOrder.nativeOrder());
+      this.mapped = null;
+    }
+    this.flushMs = options.flushMs();
+    try {
+      writeSectionHeaderBlock(System.getProperty("os.arch"),
+                              System.getProperty("os.name") + ", ver " + System.getProperty("os.version"),
+                              "java-pcap");
+    } catch (final IOException ioe) {
+      closeFile();
+      throw ioe;
+    }
+    this.flushTask = flushMs > 0
+        ? ChannelOutputStream.flusher().scheduleWithFixedDelay(this::timedFlush, flushMs, flushMs, TimeUnit.MILLISECONDS)
+        : null;
+    if (mapped != null)
+      ShutdownFlusher.registerClose(this);
+    else
+      ShutdownFlusher.register(this);
+  }
+
+  private synchronized void timedFlush() {
+    try {
+      // A compressing stream writes out partial blocks on its own interval.
+      if (stream == null)
+        flush();
+      else if (!closed)
+        drain();
+    } catch (final IOException ioe) {
+      PtiLog.error("Failed to flush pcapng output.", ioe);
+    }
+  }
+
+  @Override
+  public synchronized int writeInterfaceDescriptionBlock(final LinkType linkType,
+                                                         final int resolution) throws IOException {
+    ensureOpen();
+    final List<Option> options = new ArrayList<>();
+    if (resolution != Pcap.RESOLUTION_MICROSECONDS)
+      options.add(new Option(OptionType.IF_TSRESOL.code(), new byte[] { (byte) resolution }));
+    final int bodyLength = 8 + optionsLength(options);
+    final ByteBuffer bb = startBlock(BlockType.INTERFACE_DESCRIPTION_BLOCK, bodyLength);
+    bb.putShort((short) linkType.code());
+    bb.putShort((short) 0);
+    bb.putInt(0);
+    putOptions(bb, options);
+    endBlock(bb, bodyLength);
+    return interfaceCount++;
+  }
+
+  @Override
+  public void writeEnhancedPacketBlock(final int interfaceId, final long time, final byte[] data) throws IOException {
+    writeEnhancedPacketBlock(interfaceId, time, data, 0, data.length);
+  }
+
+  /**
+   * Writes an enhanced packet block with the given range of the array as packet
+   * data.
+   */
+  public synchronized void writeEnhancedPacketBlock(final int interfaceId,
+                                                    final long time,
+                                                    final byte[] data,
+                                                    final int offset,
+                                                    final int length) throws IOException {
+    ensureOpen();
+    if (interfaceId < 0 || interfaceId >= interfaceCount)
+      throw new IOException("Can't write enhanced packet block with an interface ID index being larger than the number of previous interface description blocks.");
+    final int padding = padding(length);
+    final int bodyLength = EPB_HEADER_LENGTH + length + padding;
+    final ByteBuffer bb = startBlock(BlockType.ENHANCED_PACKET_BLOCK, bodyLength);
+    bb.putInt(interfaceId);
+    bb.putInt((int) (time >>> 32));
+    bb.putInt((int) (time & 0xFFFFFFFFL));
+    bb.putInt(length);
+    bb.putInt(length);
+    bb.put(data, offset, length);
+    for (int i = 0; i < padding; i++)
+      bb.put((byte) 0);
+    endBlock(bb, bodyLength);
+  }
+
+  /** Returns the number of bytes written into the file so far. */
+  @Override
+  public synchronized long bytesWritten() {
+    return bytesWritten;
+  }
+
+  @Override
+  public synchronized void flush() throws IOException {
+    if (closed)
+      return;
+    if (mapped != null) {
+      mapped.force();
+    } else {
+      drain();
+      if (stream != null)
+        stream.flush();
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed)
+      return;
+    try {
+      if (mapped == null)
+        drain();
+    } finally {
+      closed = true;
+      ShutdownFlusher.unregister(this);
+      ShutdownFlusher.unregisterClose(this);
+      if (flushTask != null)
+        flushTask.cancel(false);
+      closeFile();
+    }
+  }
+
+  private void closeFile() throws IOException {
+    if (mapped != null)
+      mapped.close();
+    else
+      channel.close();
+  }
+
+  private void writeSectionHeaderBlock(final String hardware,
+                                       final String os,
+                                       final String application) throws IOException {
+    final List<Option> options = new ArrayList<>();
+    options.add(new Option(OptionType.SHB_HARDWARE.code(), hardware.getBytes()));
+    options.add(new Option(OptionType.SHB_OS.code(), os.getBytes()));
+    options.add(new Option(OptionType.SHB_USERAPPL.code(), application.getBytes()));
+    final int bodyLength = 16 + optionsLength(options);
+    final ByteBuffer bb = startBlock(BlockType.SECTION_HEADER_BLOCK, bodyLength);
+    bb.putInt(BYTE_ORDER_MAGIC);
+    bb.putShort((short) 1);
+    bb.putShort((short) 0);
+    bb.putLong(-1);
+    putOptions(bb, options);
+    endBlock(bb, bodyLength);
+  }
+
+  // Returns a buffer with room for the whole block and its header already
+  // written. That is the mapped window, or the batching buffer, unless the
+  // block doesn't fit into it even when empty.
+  private ByteBuffer startBlock(final BlockType type, final int bodyLength) throws IOException {
+    final int total = BLOCK_OVERHEAD + bodyLength;
+    if (mapped != null) {
+      // Leave room for the block covering the excess.
+      final ByteBuffer w = mapped.reserve(total + BLOCK_OVERHEAD);
+      if (w != window) {
+        // The file just grew by zeros past the data. Cover them before
+        // anything else, so that it stays valid while the block is written.
+        coverExcess(w);
+        window = w;
+      }
+      w.putInt(type.typeCode());
+      w.putInt(total);
+      return w;
+    }
+    if (total > buffer.remaining())
+      drain();
+    final ByteBuffer bb = total > buffer.capacity()
+        ? ByteBuffer.allocate(total).order(ByteOrder.nativeOrder())
+        : buffer;
+    bb.putInt(type.typeCode());
+    bb.putInt(total);
+    return bb;
+  }
+
+  private void endBlock(final ByteBuffer bb, final int bodyLength) throws IOException {
+    bb.putInt(BLOCK_OVERHEAD + bodyLength);
+    bytesWritten += BLOCK_OVERHEAD + bodyLength;
+    if (mapped != null) {
+      coverExcess(bb);
+    } else if (bb != buffer) {
+      bb.flip();
+      writeFully(bb);
+    } else if (flushMs == 0) {
+      drain();
+    }
+  }
+
+  // Puts a block from the end of the data to the end of the window, which is
+  // the end of the file. Doesn't count as written, the next block overwrites
+  // it.
+  private static void coverExcess(final ByteBuffer w) {
+    final int start = w.position();
+    final int length = w.limit() - start;
+    w.putInt(start, EXCESS_BLOCK_TYPE);
+    w.putInt(start + 4, length);
+    w.putInt(w.limit() - 4, length);
+  }
+
+  private static int optionsLength(final List<Option> options) {
+    if (options.isEmpty())
+      return 0;
+    // Trailing end of options.
+    int length = 4;
+    for (final Option o : options)
+      length += o.size();
+    return length;
+  }
+
+  private static void putOptions(final ByteBuffer bb, final List<Option> options) {
+    if (options.isEmpty())
+      return;
+    for (final Option o : options) {
+      final byte[] value = o.value();
+      bb.putShort((short) o.code());
+      bb.putShort((short) value.length);
+      bb.put(value);
+      for (int p = padding(value.length); p > 0; p--)
+        bb.put((byte) 0);
+    }
+    bb.putShort((short) 0);
+    bb.putShort((short) 0);
+  }
+
+  private static int padding(final int length) {
+    return (4 - (length & 3)) & 3;
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed)
+      throw new IOException("Output closed.");
+  }
+
+  private void drain() throws IOException {
+    if (buffer.position() == 0)
+      return;
+    buffer.flip();
+    try {
+      writeFully(buffer);
+    } finally {
+      buffer.clear();
+    }
+  }
+
+  private void writeFully(final ByteBuffer bb) throws IOException {
+    while (bb.hasRemaining())
+      channel.write(bb);
+  }
+}
@@ -14,12 +14,14 @@
 package com.silabs.pti.format;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintStream;
 
 /**
- * Implementation of the export output that simply wraps print stream.
+ * Implementation of the export output that simply wraps print stream. File
+ * print streams are buffered, and by default written on a separate thread,
+ * see {@link FileOutputs}.
  * 
  * @author timotej
  *
@@ -27,6 +29,7 @@ import java.io.PrintStream;
 class PrintStreamOutput implements IDebugChannelExportOutput<PrintStream> {
 
   private final PrintStream printStream;
+  private final OutputStream file;
 
   @Override
   public PrintStream writer() {
@@ -34,11 +37,23 @@ class PrintStreamOutput implements IDebugChannelExportOutput<PrintStream> {
   }
 
   public PrintStreamOutput(final File f, final boolean append) throws IOException {
-    this.printStream = new PrintStream(new FileOutputStream(f, append));
+    this(f, append, OutputOptions.defaults());
+  }
+
+  public PrintStreamOutput(final File f, final boolean append, final OutputOptions options) throws IOException {
+    this.file = FileOutputs.open(f, append, options);
+    this.printStream = new PrintStream(file);
   }
 
   public PrintStreamOutput(final PrintStream printStream) {
     this.printStream = printStream;
+    this.file = null;
+  }
+
+  @Override
+  public long size() {
+    // The print stream passes text on as it is printed.
+    return file == null ? -1 : FileOutputs.bytesWritten(file);
   }
 
   @Override
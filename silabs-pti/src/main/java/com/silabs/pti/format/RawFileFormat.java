@@ -17,7 +17,6 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 
-import com.silabs.na.pcap.util.ByteArrayUtil;
 import com.silabs.pti.debugchannel.DebugMessage;
 import com.silabs.pti.debugchannel.EventType;
 
@@ -33,8 +32,10 @@ public class RawFileFormat implements IDebugChannelExportFormat<PrintStream> {
   public static String RAW_SUFFIX = " ]";
 
   @Override
-  public IDebugChannelExportOutput<PrintStream> createOutput(final File f, final boolean append) throws IOException {
-    return new PrintStreamOutput(f, append);
+  public IDebugChannelExportOutput<PrintStream> createOutput(final File f,
+                                                            final boolean append,
+                                                            final OutputOptions options) throws IOException {
+    return new PrintStreamOutput(f, append, options);
   }
 
   @Override
@@ -75,8 +76,7 @@ public class RawFileFormat implements IDebugChannelExportFormat<PrintStream> {
                                 final byte[] rawBytes,
                                 final int offset,
                                 final int length) throws IOException {
-    final String x = RAW_PREFIX + ByteArrayUtil.formatByteArray(rawBytes, offset, length, true, true) + RAW_SUFFIX;
-    out.println(x);
+    TextFormatter.get().append(RAW_PREFIX).hex(rawBytes, offset, length).append(RAW_SUFFIX).newLine().writeTo(out);
     return true;
   }
 
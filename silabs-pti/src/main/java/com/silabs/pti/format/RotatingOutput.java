@@ -0,0 +1,357 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import com.silabs.pti.log.PtiLog;
+
+/**
+ * Output that moves on to a new file once the current one reaches the size or
+ * age limit of the output options, like the ring buffer of dumpcap.
+ *
+ * Files are named after the given file with a sequence number added, so
+ * capture.pcapng is written as capture_00001.pcapng, capture_00002.pcapng and
+ * so on, with a .gz suffix when compressed. If a number of files to keep is
+ * set, older files are deleted.
+ *
+ * The writer threads never wait for a file to be opened or closed. The next
+ * file is opened, and its header written, in the background ahead of time, so
+ * rotating only swaps it in. Each file counts the writes that acquired its
+ * writer, and the previous file is closed in the background as soon as the
+ * writes that got it before the swap have released it. The header of the first
+ * file is written by the caller, as with any other output.
+ */
+public class RotatingOutput<T> implements IDebugChannelExportOutput<T> {
+
+  /** How long to wait before trying again to open the next file. */
+  static final long RETRY_DELAY_MS = 1000;
+
+  private static ScheduledExecutorService rotator = null;
+
+  private final IDebugChannelExportFormat<T> format;
+  private final File file;
+  private final OutputOptions options;
+  // Milliseconds, for the age of files.
+  private final LongSupplier clock;
+  private final ScheduledFuture<?> tick;
+
+  private volatile Slot<T> current;
+  // Written with this locked.
+  private volatile Slot<T> next = null;
+  // Guarded by this.
+  private final Deque<Slot<T>> kept = new ArrayDeque<>();
+  private final Set<Slot<T>> retiring = new HashSet<>();
+  private int sequence = 0;
+  private boolean closed = false;
+
+  /**
+   * Opens an output for the file. If the options rotate files, that is a
+   * rotating output, otherwise simply the output of the format.
+   */
+  public static <T> IDebugChannelExportOutput<T> open(final IDebugChannelExportFormat<T> format,
+                                                      final File f,
+                                                      final OutputOptions options) throws IOException {
+    if (!options.rotates())
+      return format.createOutput(f, false, options);
+    return new RotatingOutput<>(format, f, options, System::currentTimeMillis);
+  }
+
+  RotatingOutput(final IDebugChannelExportFormat<T> format,
+                 final File f,
+                 final OutputOptions options,
+                 final LongSupplier clock) throws IOException {
+    this.format = format;
+    this.file = f;
+    this.options = options;
+    this.clock = clock;
+    this.current = new Slot<>(nextFile(), format, options);
+    this.current.start = clock.getAsLong();
+    kept.add(current);
+    // Files rotated by time need to rotate even if nothing is written.
+    final long tickMs = Math.min(1000, options.rotateMs());
+    this.tick = tickMs > 0
+        ? rotator().scheduleWithFixedDelay(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS)
+        : null;
+    rotator().execute(this::prepareNext);
+  }
+
+  private static synchronized ScheduledExecutorService rotator() {
+    if (rotator == null) {
+      rotator = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread t = new Thread(r, "Capture file rotation");
+        t.setDaemon(true);
+        return t;
+      });
+    }
+    return rotator;
+  }
+
+  /** Returns the file currently written. */
+  public File currentFile() {
+    return current.file;
+  }
+
+  /**
+   * Returns the writer of the current file. A write through it may race with a
+   * rotation, so writes use {@link #acquire()} and {@link #release(Object)}.
+   */
+  @Override
+  public T writer() {
+    final Slot<T> c = current;
+    if (isDue(c))
+      rotate(c);
+    return current.output.writer();
+  }
+
+  @Override
+  public T acquire() {
+    while (true) {
+      Slot<T> c = current;
+      if (isDue(c)) {
+        rotate(c);
+        c = current;
+      }
+      c.writes.incrementAndGet();
+      // Counted before the check, so a swap after it waits for the release.
+      if (!c.retired)
+        return c.output.writer();
+      done(c);
+    }
+  }
+
+  @Override
+  public void release(final T writer) {
+    Slot<T> s = current;
+    if (s.output.writer() != writer) {
+      s = null;
+      synchronized (this) {
+        for (final Slot<T> r : retiring) {
+          if (r.output.writer() == writer) {
+            s = r;
+            break;
+          }
+        }
+      }
+    }
+    // Not found if the output was closed meanwhile.
+    if (s != null)
+      done(s);
+  }
+
+  @Override
+  public long size() {
+    return current.output.size();
+  }
+
+  @Override
+  public void close() throws IOException {
+    final List<Slot<T>> toClose = new ArrayList<>();
+    final Slot<T> unused;
+    synchronized (this) {
+      if (closed)
+        return;
+      closed = true;
+      // Files being retired too, so that they are closed on return.
+      toClose.addAll(kept);
+      retiring.clear();
+      unused = next;
+      next = null;
+    }
+    if (tick != null)
+      tick.cancel(false);
+    IOException failure = null;
+    for (final Slot<T> s : toClose) {
+      try {
+        s.close();
+      } catch (final IOException ioe) {
+        failure = ioe;
+      }
+    }
+    if (unused != null)
+      discard(unused);
+    deleteOldFiles();
+    if (failure != null)
+      throw failure;
+  }
+
+  private boolean isDue(final Slot<T> s) {
+    if (options.rotateBytes() > 0 && s.output.size() >= options.rotateBytes())
+      return true;
+    return options.rotateMs() > 0 && clock.getAsLong() - s.start >= options.rotateMs();
+  }
+
+  private void tick() {
+    final Slot<T> c = current;
+    if (isDue(c))
+      rotate(c);
+  }
+
+  // Swaps in the prepared file. If it isn't ready yet, the current one is
+  // written a little longer rather than waiting.
+  private void rotate(final Slot<T> c) {
+    if (next == null)
+      return;
+    synchronized (this) {
+      if (closed || current != c || next == null)
+        return;
+      next.start = clock.getAsLong();
+      current = next;
+      kept.add(next);
+      next = null;
+      retiring.add(c);
+    }
+    c.retired = true;
+    if (c.writes.get() == 0)
+      rotator().execute(() -> retire(c));
+    rotator().execute(this::prepareNext);
+  }
+
+  /**
+   * Waits until the background work queued so far, opening the next file or
+   * closing a retired one, has run.
+   */
+  void settle() throws InterruptedException {
+    try {
+      rotator().submit(() -> {
+      }).get();
+    } catch (final ExecutionException ee) {
+      // A no-op doesn't fail.
+    }
+  }
+
+  private void prepareNext() {
+    Slot<T> s = null;
+    try {
+      final File f;
+      synchronized (this) {
+        if (closed)
+          return;
+        f = nextFile();
+      }
+      s = new Slot<>(f, format, options);
+      format.writeHeader(s.output.writer());
+    } catch (final IOException ioe) {
+      PtiLog.error("Failed to open the next capture file after " + current.file + ", trying again.", ioe);
+      if (s != null)
+        discard(s);
+      rotator().schedule(this::prepareNext, RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+      return;
+    }
+    synchronized (this) {
+      if (!closed) {
+        next = s;
+        return;
+      }
+    }
+    discard(s);
+  }
+
+  private void done(final Slot<T> s) {
+    if (s.writes.decrementAndGet() == 0 && s.retired)
+      rotator().execute(() -> retire(s));
+  }
+
+  // Runs once the slot is swapped out and no write holds it. May be scheduled
+  // more than once, only the first one closes it.
+  private void retire(final Slot<T> s) {
+    synchronized (this) {
+      if (!retiring.remove(s))
+        return;
+    }
+    try {
+      s.close();
+    } catch (final IOException ioe) {
+      PtiLog.error("Failed to close capture file " + s.file + ".", ioe);
+    }
+    deleteOldFiles();
+  }
+
+  private void deleteOldFiles() {
+    final int keep = options.keepFiles();
+    if (keep == 0)
+      return;
+    final List<File> toDelete = new ArrayList<>();
+    synchronized (this) {
+      // Files are closed in order, so closed ones are at the head.
+      while (kept.size() > keep && kept.peekFirst().closed)
+        toDelete.add(kept.removeFirst().file);
+    }
+    for (final File f : toDelete) {
+      if (!f.delete())
+        PtiLog.warning("Failed to delete old capture file " + f + ".");
+    }
+  }
+
+  private void discard(final Slot<T> s) {
+    try {
+      s.close();
+    } catch (final IOException ioe) {
+      // Never written to, nothing lost.
+    }
+    s.file.delete();
+  }
+
+  // Called with this locked, or from the constructor.
+  private File nextFile() {
+    sequence++;
+    final String name = file.getName();
+    final int dot = name.lastIndexOf('.');
+    final String numbered = dot > 0
+        ? String.format("%s_%05d%s", name.substring(0, dot), sequence, name.substring(dot))
+        : String.format("%s_%05d", name, sequence);
+    return FileOutputs.file(new File(file.getAbsoluteFile().getParentFile(), numbered), options);
+  }
+
+  private static final class Slot<T> {
+    private final File file;
+    private final IDebugChannelExportOutput<T> output;
+    // Writes that acquired the writer and haven't released it yet.
+    private final AtomicInteger writes = new AtomicInteger();
+    private volatile long start;
+    private volatile boolean retired = false;
+    private volatile boolean closed = false;
+
+    Slot(final File file, final IDebugChannelExportFormat<T> format, final OutputOptions options) throws IOException {
+      this.file = file;
+      this.output = format.createOutput(file, false, options);
+    }
+
+    // Closes once, and returns only once closed, whoever closes first.
+    synchronized void close() throws IOException {
+      if (closed)
+        return;
+      try {
+        output.close();
+      } finally {
+        closed = true;
+      }
+    }
+  }
+}
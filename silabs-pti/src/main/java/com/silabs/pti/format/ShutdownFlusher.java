@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Flushes registered buffered outputs when the JVM shuts down, so that a
+ * capture stopped with Ctrl-C loses nothing. Outputs register when opened and
+ * unregister when closed.
+ *
+ * Outputs that are only complete once closed, such as memory mapped files that
+ * need truncating, register to be closed instead. They are closed once all
+ * flushing is done.
+ */
+final class ShutdownFlusher {
+
+  private static final Set<Flushable> open = ConcurrentHashMap.newKeySet();
+  private static final Set<Closeable> toClose = ConcurrentHashMap.newKeySet();
+
+  static {
+    Runtime.getRuntime().addShutdownHook(new Thread(ShutdownFlusher::flushAll, "Output shutdown flush"));
+  }
+
+  private ShutdownFlusher() {
+  }
+
+  static void register(final Flushable f) {
+    open.add(f);
+  }
+
+  static void unregister(final Flushable f) {
+    open.remove(f);
+  }
+
+  static void registerClose(final Closeable c) {
+    toClose.add(c);
+  }
+
+  static void unregisterClose(final Closeable c) {
+    toClose.remove(c);
+  }
+
+  private static void flushAll() {
+    for (final Flushable f : open) {
+      try {
+        f.flush();
+      } catch (final IOException ioe) {
+        // Shutting down, nobody left to tell.
+      }
+    }
+    for (final Closeable c : toClose) {
+      try {
+        c.close();
+      } catch (final IOException ioe) {
+        // Same.
+      }
+    }
+  }
+}
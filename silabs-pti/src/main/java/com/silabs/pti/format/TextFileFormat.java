@@ -16,7 +16,6 @@ package com.silabs.pti.format;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.util.Arrays;
 
 import com.silabs.pti.debugchannel.DebugMessage;
 import com.silabs.pti.debugchannel.EventType;
@@ -31,8 +30,10 @@ import com.silabs.pti.util.WiresharkUtil;
 public class TextFileFormat implements IDebugChannelExportFormat<PrintStream> {
 
   @Override
-  public IDebugChannelExportOutput<PrintStream> createOutput(final File f, final boolean append) throws IOException {
-    return new PrintStreamOutput(f, append);
+  public IDebugChannelExportOutput<PrintStream> createOutput(final File f,
+                                                            final boolean append,
+                                                            final OutputOptions options) throws IOException {
+    return new PrintStreamOutput(f, append, options);
   }
 
   @Override
@@ -64,19 +65,42 @@ public class TextFileFormat implements IDebugChannelExportFormat<PrintStream> {
                                     final String originator,
                                     final DebugMessage dm,
                                     final EventType type) throws IOException {
+    if (type == EventType.OUT_OF_SEQUENCE) {
+      // A comment to text2pcap.
+      TextFormatter.get()
+          .append("# Sequence gap on ")
+          .append(originator)
+          .append(": expected ")
+          .decimal(dm.expectedSeqNumber())
+          .append(", received ")
+          .decimal(dm.seqNumber())
+          .newLine()
+          .writeTo(out);
+      return true;
+    }
     if (!type.isPacket())
       return false;
 
     // Text2pcap
     final long timeMs = dm.networkTime();
-    byte[] contents = dm.contents();
+    int offset = dm.payloadOffset();
+    int length = dm.contentLength();
     final int[] drops = WiresharkUtil.dropBytesFromBeginningEnd(type);
     if (drops[0] != 0 || drops[1] != 0) {
-      if (drops[0] + drops[1] >= contents.length)
+      if (drops[0] + drops[1] >= length)
         return false; // Nothing we can do. There is no data left.
-      contents = Arrays.copyOfRange(contents, drops[0], contents.length - drops[1]);
+      offset += drops[0];
+      length -= drops[0] + drops[1];
     }
-    out.println(WiresharkUtil.printText2Pcap(timeMs, contents));
+    // Same as WiresharkUtil.printText2Pcap(), without the strings.
+    TextFormatter.get()
+        .time(timeMs)
+        .append(" 000000 ")
+        .hex(WiresharkUtil.PCAP_DATA_PREFIX)
+        .append(' ')
+        .hex(dm.payloadArray(), offset, length)
+        .newLine()
+        .writeTo(out);
     return true;
   }
 
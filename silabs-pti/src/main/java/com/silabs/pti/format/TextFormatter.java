@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.format;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reusable buffer that the text formats compose their lines in.
+ *
+ * Lines are written as bytes straight into a buffer that grows as needed and is
+ * kept for the next line, so formatting a message allocates nothing. Hex is
+ * encoded through a lookup table, and numbers are printed by hand rather than
+ * through strings. The output is byte for byte what the String based
+ * formatting of ByteArrayUtil and String.format produced before.
+ *
+ * An instance is not thread safe. Formats are shared by the listeners of all
+ * adapters, so they use the per thread instance from {@link #get()}.
+ */
+public final class TextFormatter {
+
+  private static final ThreadLocal<TextFormatter> formatters = ThreadLocal.withInitial(TextFormatter::new);
+
+  // Upper case hex digits of every byte value, two per byte.
+  private static final byte[] HEX = new byte[512];
+  static {
+    final byte[] digits = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    for (int i = 0; i < 256; i++) {
+      HEX[2 * i] = digits[i >>> 4];
+      HEX[2 * i + 1] = digits[i & 0x0F];
+    }
+  }
+
+  private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes();
+
+  private byte[] buffer = new byte[256];
+  private int length = 0;
+
+  /** Returns the formatter of the calling thread, emptied. */
+  public static TextFormatter get() {
+    return formatters.get().reset();
+  }
+
+  /** Empties the buffer. */
+  public TextFormatter reset() {
+    length = 0;
+    return this;
+  }
+
+  /** Returns the number of bytes in the buffer. */
+  public int length() {
+    return length;
+  }
+
+  /** Returns a copy of the bytes in the buffer. */
+  public byte[] toByteArray() {
+    return Arrays.copyOf(buffer, length);
+  }
+
+  /**
+   * Writes the buffer into the stream in a single write, so that lines from
+   * several threads don't interleave.
+   */
+  public void writeTo(final PrintStream out) {
+    out.write(buffer, 0, length);
+  }
+
+  /** Appends an ASCII character. */
+  public TextFormatter append(final char c) {
+    ensureCapacity(1);
+    buffer[length++] = (byte) c;
+    return this;
+  }
+
+  /**
+   * Appends a string. Strings that aren't plain ASCII are encoded with the
+   * default charset, as a PrintStream would.
+   */
+  public TextFormatter append(final String s) {
+    final int n = s.length();
+    ensureCapacity(n);
+    for (int i = 0; i < n; i++) {
+      final char c = s.charAt(i);
+      if (c >= 0x80) {
+        final byte[] encoded = s.substring(i).getBytes();
+        ensureCapacity(encoded.length);
+        System.arraycopy(encoded, 0, buffer, length, encoded.length);
+        length += encoded.length;
+        return this;
+      }
+      buffer[length++] = (byte) c;
+    }
+    return this;
+  }
+
+  /** Appends the platform line separator, as println does. */
+  public TextFormatter newLine() {
+    ensureCapacity(LINE_SEPARATOR.length);
+    System.arraycopy(LINE_SEPARATOR, 0, buffer, length, LINE_SEPARATOR.length);
+    length += LINE_SEPARATOR.length;
+    return this;
+  }
+
+  /** Appends a number in decimal. */
+  public TextFormatter decimal(final long value) {
+    return decimal(value, 1);
+  }
+
+  /**
+   * Appends a number in decimal, padded with leading zeros to the given width,
+   * the same as the %0Nd conversion of String.format. A minus sign counts
+   * toward the width.
+   */
+  public TextFormatter decimal(final long value, final int width) {
+    int digits = 1;
+    for (long v = value / 10; v != 0; v /= 10)
+      digits++;
+    final int sign = value < 0 ? 1 : 0;
+    final int total = Math.max(width, digits + sign);
+    ensureCapacity(total);
+    if (sign != 0)
+      buffer[length] = '-';
+    int i = length + total;
+    long v = value;
+    // Digits are taken off a negative number, which also covers MIN_VALUE.
+    if (v > 0)
+      v = -v;
+    do {
+      buffer[--i] = (byte) ('0' - v % 10);
+      v /= 10;
+    } while (v != 0);
+    while (i > length + sign)
+      buffer[--i] = '0';
+    length += total;
+    return this;
+  }
+
+  /**
+   * Appends bytes as upper case hex, separated by spaces, like
+   * ByteArrayUtil.formatByteArray(data, offset, length, true, true).
+   */
+  public TextFormatter hex(final byte[] data, final int offset, final int count) {
+    if (count <= 0)
+      return this;
+    ensureCapacity(3 * count - 1);
+    final byte[] b = buffer;
+    int n = length;
+    for (int i = offset; i < offset + count; i++) {
+      if (i != offset)
+        b[n++] = ' ';
+      final int x = (data[i] & 0xFF) << 1;
+      b[n++] = HEX[x];
+      b[n++] = HEX[x + 1];
+    }
+    length = n;
+    return this;
+  }
+
+  /** Appends all bytes of the array as hex. */
+  public TextFormatter hex(final byte[] data) {
+    return hex(data, 0, data.length);
+  }
+
+  /**
+   * Appends a time in microseconds as hours, minutes, seconds and
+   * microseconds, in the HH:MM:SS.UUUUUU form that text2pcap reads.
+   */
+  public TextFormatter time(final long micros) {
+    final long seconds = micros / 1000000;
+    final long minutes = seconds / 60;
+    decimal(minutes / 60, 2).append(':');
+    decimal(minutes % 60, 2).append(':');
+    decimal(seconds % 60, 2).append('.');
+    return decimal(micros % 1000000, 6);
+  }
+
+  private void ensureCapacity(final int n) {
+    if (length + n > buffer.length)
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + n));
+  }
+}
@@ -64,10 +64,18 @@ public enum Protocol implements ISparseFieldEnum {
   }
 
   public static int crcLen(final Protocol p, final byte[] payload) {
+    return crcLen(p, payload, 0, payload.length);
+  }
+
+  /**
+   * Same as {@link #crcLen(Protocol, byte[])}, for a payload that occupies a
+   * range of the array.
+   */
+  public static int crcLen(final Protocol p, final byte[] payload, final int offset, final int length) {
     if (p.isCrcLengthDynamicallyCalculated()) {
       switch (p) {
       case ZWAVE_ON_RAIL:
-        return ZWaveRegion.calculateZWaveCrcLength(payload);
+        return ZWaveRegion.calculateZWaveCrcLength(payload, offset, length);
       default:
         return p.crcLen();
       }
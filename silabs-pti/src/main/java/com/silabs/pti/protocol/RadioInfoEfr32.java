@@ -25,23 +25,46 @@ public class RadioInfoEfr32 {
    * @return length
    */
   public static int determineRadioInfoLength(final EventType type, final byte[] payload, final boolean hintBluetooth) {
-    if (payload == null || payload.length < 2)
+    if (payload == null)
       return 0;
-    byte endByte = payload[payload.length - 1];
-    byte penultimateByte = payload[payload.length - 2];
+    return determineRadioInfoLength(type, payload, 0, payload.length, hintBluetooth);
+  }
+
+  /**
+   * Determines the length of the radio info block of a payload that occupies a
+   * range of the array.
+   *
+   * @param type          Event type.
+   * @param payload       Array holding the payload
+   * @param offset        Index of the first payload byte
+   * @param length        Number of payload bytes
+   * @param hintBluetooth If you externally know this event is a BLE event, set
+   *                      this to true to deal with "UNKNOWN" protocol cases
+   * @return length
+   */
+  public static int determineRadioInfoLength(final EventType type,
+                                             final byte[] payload,
+                                             final int offset,
+                                             final int length,
+                                             final boolean hintBluetooth) {
+    if (payload == null || length < 2)
+      return 0;
+    final int end = offset + length;
+    byte endByte = payload[end - 1];
+    byte penultimateByte = payload[end - 2];
     int len = lengthFromLastByte(endByte);
     boolean isMissingPtiProtocol = isMissingPtiProtocol(endByte, penultimateByte);
 
     if (isMissingPtiProtocol) {
-      int length;
+      int infoLength;
       if (hintBluetooth) {
-        length = Protocol.crcLen(Protocol.BLE, payload) + 1;
+        infoLength = Protocol.crcLen(Protocol.BLE, payload, offset, length) + 1;
       } else {
-        length = 3;
+        infoLength = 3;
       }
       if (type.isRx())
-        length++; // RSSI
-      return length;
+        infoLength++; // RSSI
+      return infoLength;
     } else {
       int junkBytesLength = 0;
       Protocol p = protocolFromPenultimateByte(penultimateByte);
@@ -49,9 +72,9 @@ public class RadioInfoEfr32 {
         p = Protocol.BLE;
       }
       if (p == Protocol.BLE && type.isRx() && doesRxHaveRadioCfg(len)) {
-        junkBytesLength = junkBytesLength(payload);
+        junkBytesLength = junkBytesLength(payload, offset, length);
       }
-      return Protocol.crcLen(p, payload) + 4 + junkBytesLength + len;
+      return Protocol.crcLen(p, payload, offset, length) + 4 + junkBytesLength + len;
     }
   }
 
@@ -82,11 +105,22 @@ public class RadioInfoEfr32 {
    * @return protocol or null.
    */
   public static Protocol determineProtocol(final byte[] payload) {
-    if (payload == null || payload.length < 2)
+    if (payload == null)
+      return null;
+    return determineProtocol(payload, 0, payload.length);
+  }
+
+  /**
+   * Same as {@link #determineProtocol(byte[])}, for a payload that occupies a
+   * range of the array.
+   */
+  public static Protocol determineProtocol(final byte[] payload, final int offset, final int length) {
+    if (payload == null || length < 2)
       return null;
 
-    byte penultimate = payload[payload.length - 2];
-    if (!isMissingPtiProtocol(payload[payload.length - 1], penultimate)) {
+    final int end = offset + length;
+    byte penultimate = payload[end - 2];
+    if (!isMissingPtiProtocol(payload[end - 1], penultimate)) {
       return protocolFromPenultimateByte(penultimate);
     }
     return null;
@@ -100,8 +134,16 @@ public class RadioInfoEfr32 {
    * @return length of junk bytes
    */
   public static int junkBytesLength(final byte[] payload) {
-    int index = payload.length - 4;
-    if (index >= 0) {
+    return junkBytesLength(payload, 0, payload.length);
+  }
+
+  /**
+   * Same as {@link #junkBytesLength(byte[])}, for a payload that occupies a
+   * range of the array.
+   */
+  public static int junkBytesLength(final byte[] payload, final int offset, final int length) {
+    int index = offset + length - 4;
+    if (index >= offset) {
       byte radioConfig = payload[index];
       return bleLengthFromRadioConfigByte(radioConfig);
     } else {
@@ -65,10 +65,19 @@ public enum ZWaveRegion implements ISparseFieldEnum {
   }
 
   public static int calculateZWaveCrcLength(final byte[] payload) {
-    if (payload.length < 4)
+    return calculateZWaveCrcLength(payload, 0, payload.length);
+  }
+
+  /**
+   * Same as {@link #calculateZWaveCrcLength(byte[])}, for a payload that
+   * occupies a range of the array.
+   */
+  public static int calculateZWaveCrcLength(final byte[] payload, final int offset, final int length) {
+    if (length < 4)
       return 1; // Something is wrong, let's not bomb out....
-    int region = (payload[payload.length - 4] & 0x0F);
-    int channel = (payload[payload.length - 3] & 0x3F);
+    final int end = offset + length;
+    int region = (payload[end - 4] & 0x0F);
+    int channel = (payload[end - 3] & 0x3F);
     return crcLengthFromRegionNumberAndChannelNumber(region, channel);
   }
 
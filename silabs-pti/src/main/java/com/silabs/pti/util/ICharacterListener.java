@@ -26,6 +26,21 @@ package com.silabs.pti.util;
 public interface ICharacterListener {
   /**
    * This method is called whenever a new array of bytes is received.
+   *
+   * Unless {@link #requiresCopy()} returns true, the array belongs to the
+   * connection and only holds the bytes for the duration of the call.
+   * Implementations must not keep a reference to it, nor write into it.
    */
   public void received(byte[] ch, int offset, int len);
+
+  /**
+   * The array passed to {@link #received(byte[], int, int)} is normally a view
+   * into the connection's read buffer, which is reused as soon as the method
+   * returns. Listeners that hold on to the array itself, rather than consuming
+   * or copying the bytes right away, should return true here and will be given
+   * a private copy.
+   */
+  public default boolean requiresCopy() {
+    return false;
+  }
 }
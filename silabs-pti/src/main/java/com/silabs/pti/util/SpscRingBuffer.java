@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * # License
+ * Copyright 2026 Silicon Laboratories Inc. www.silabs.com
+ *******************************************************************************
+ *
+ * The licensor of this software is Silicon Laboratories Inc. Your use of this
+ * software is governed by the terms of Silicon Labs Master Software License
+ * Agreement (MSLA) available at
+ * www.silabs.com/about-us/legal/master-software-license-agreement. This
+ * software is distributed to you in Source Code format and is governed by the
+ * sections of the MSLA applicable to Source Code.
+ *
+ ******************************************************************************/
+
+package com.silabs.pti.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free ring buffer for exactly one producer thread and exactly
+ * one consumer thread.
+ *
+ * Capacity is rounded up to a power of two, so that the slot index is a simple
+ * mask of the running sequence. The producer only ever writes the tail, the
+ * consumer only ever writes the head, and each side caches the other side's
+ * position so that the shared counters are read only when the cached value
+ * says the buffer looks full or empty.
+ *
+ * Calling offer() from more than one thread, or poll()/drain() from more than
+ * one thread, is not supported.
+ *
+ * @param <T> type of the elements
+ */
+public class SpscRingBuffer<T> {
+
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  private final AtomicReferenceArray<T> slots;
+  private final int mask;
+
+  // Next sequence to be read. Written by consumer only. The cache holds the
+  // consumer's last view of the tail.
+  private final Sequence head = new Sequence();
+  // Next sequence to be written. Written by producer only. The cache holds the
+  // producer's last view of the head.
+  private final Sequence tail = new Sequence();
+
+  /**
+   * Creates a ring buffer that can hold at least the given number of elements.
+   *
+   * @param requestedCapacity minimum capacity, rounded up to a power of two.
+   */
+  public SpscRingBuffer(final int requestedCapacity) {
+    if (requestedCapacity < 1 || requestedCapacity > MAX_CAPACITY)
+      throw new IllegalArgumentException("Invalid capacity: " + requestedCapacity);
+    final int capacity = Integer.highestOneBit(requestedCapacity) == requestedCapacity ? requestedCapacity
+        : Integer.highestOneBit(requestedCapacity) << 1;
+    this.slots = new AtomicReferenceArray<>(capacity);
+    this.mask = capacity - 1;
+  }
+
+  /** Returns the actual capacity, which is always a power of two. */
+  public int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Adds an element. Producer thread only.
+   *
+   * @return false if the buffer is full and the element was not added.
+   */
+  public boolean offer(final T element) {
+    if (element == null)
+      throw new IllegalArgumentException("Null elements are not allowed");
+    final long t = tail.value;
+    if (t - tail.cache > mask) {
+      tail.cache = head.get();
+      if (t - tail.cache > mask)
+        return false;
+    }
+    slots.lazySet((int) t & mask, element);
+    tail.lazySet(t + 1);
+    return true;
+  }
+
+  /**
+   * Removes one element. Consumer thread only.
+   *
+   * @return element or null if the buffer is empty.
+   */
+  public T poll() {
+    final long h = head.value;
+    if (h >= head.cache) {
+      head.cache = tail.get();
+      if (h >= head.cache)
+        return null;
+    }
+    final int index = (int) h & mask;
+    final T element = slots.get(index);
+    slots.lazySet(index, null);
+    head.lazySet(h + 1);
+    return element;
+  }
+
+  /**
+   * Removes up to max elements and passes them to the consumer, in order.
+   * Consumer thread only. The head is published once per batch, so the
+   * producer sees all the freed slots at the same time. If the consumer throws,
+   * the elements passed to it so far, the failing one included, are removed
+   * and the rest stay in the buffer.
+   *
+   * @return number of elements drained.
+   */
+  public int drain(final Consumer<? super T> consumer, final int max) {
+    final long h = head.value;
+    long available = head.cache - h;
+    if (available < max) {
+      head.cache = tail.get();
+      available = head.cache - h;
+      if (available <= 0)
+        return 0;
+    }
+    final int n = (int) Math.min(available, max);
+    int i = 0;
+    try {
+      while (i < n) {
+        final int index = (int) (h + i) & mask;
+        final T element = slots.get(index);
+        slots.lazySet(index, null);
+        i++;
+        consumer.accept(element);
+      }
+    } finally {
+      head.lazySet(h + i);
+    }
+    return n;
+  }
+
+  /** Returns true if there is nothing to read. Safe to call from any thread. */
+  public boolean isEmpty() {
+    return head.get() >= tail.get();
+  }
+
+  /**
+   * Returns approximate number of elements in the buffer. Safe to call from any
+   * thread, but the value may be stale by the time it is used.
+   */
+  public int size() {
+    final long h = head.get();
+    final long t = tail.get();
+    return (int) Math.max(0, Math.min(t - h, capacity()));
+  }
+
+  // Cache line padding, so that the producer and consumer counters never share
+  // a line. Superclass fields are laid out first, so the value ends up between
+  // the two pads.
+  @SuppressWarnings("unused")
+  private static class LeftPad {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+  }
+
+  private static class Value extends LeftPad {
+    volatile long value;
+    long cache;
+  }
+
+  @SuppressWarnings("unused")
+  private static class RightPad extends Value {
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+  }
+
+  private static final class Sequence extends RightPad {
+    private static final VarHandle VALUE;
+    static {
+      try {
+        VALUE = MethodHandles.lookup().findVarHandle(Value.class, "value", long.class);
+      } catch (ReflectiveOperationException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    long get() {
+      return value;
+    }
+
+    void lazySet(final long v) {
+      VALUE.setRelease(this, v);
+    }
+  }
+}
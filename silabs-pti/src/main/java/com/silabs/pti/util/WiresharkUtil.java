@@ -63,6 +63,18 @@ public class WiresharkUtil {
    * @param data Data.
    */
   public static String printText2Pcap(final long time, final byte[] data) {
+    return printText2Pcap(time, data, 0, data.length);
+  }
+
+  /**
+   * Prints out a range of the array in a format where text2pcap can consume it.
+   *
+   * @param time   Time.
+   * @param data   Array holding the data.
+   * @param offset Index of the first byte to print.
+   * @param length Number of bytes to print.
+   */
+  public static String printText2Pcap(final long time, final byte[] data, final int offset, final int length) {
     byte[] prefix = WiresharkUtil.PCAP_DATA_PREFIX;
     long useconds = time % 1000000;
     long seconds = (time / 1000000);
@@ -76,7 +88,7 @@ public class WiresharkUtil {
                          seconds % 60,
                          useconds,
                          ByteArrayUtil.formatByteArray(raw),
-                         ByteArrayUtil.formatByteArray(data));
+                         ByteArrayUtil.formatByteArray(data, offset, length, true, true));
 
   }
 
@@ -0,0 +1,121 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.silabs.pti.format.AemBinaryWriter;
+import com.silabs.pti.format.FileFormat;
+import com.silabs.pti.format.IDebugChannelExportOutput;
+import com.silabs.pti.format.OutputOptions;
+
+class AemBinaryWriterTest {
+
+  @TempDir
+  File dir;
+
+  @SuppressWarnings("unchecked")
+  @Test void samplesAndPyramidReadBack() throws IOException {
+    // 300k samples make a pyramid of five levels.
+    int[] counts = { 300_000, 1000 };
+    String[] names = { "10.0.0.1", "10.0.0.2" };
+    Random r = new Random(17);
+    float[][] current = new float[2][];
+    for (int s = 0; s < 2; s++) {
+      current[s] = new float[counts[s]];
+      for (int i = 0; i < counts[s]; i++)
+        current[s][i] = r.nextFloat();
+    }
+
+    File f = new File(dir, "aem.bin");
+    IDebugChannelExportOutput<AemBinaryWriter> out = (IDebugChannelExportOutput<AemBinaryWriter>) FileFormat.AEM_BINARY
+        .format()
+        .createOutput(f, false, OutputOptions.defaults());
+    for (int i = 0; i < counts[0]; i++) {
+      out.writer().addSample(names[0], 100L * i, 3.3f, current[0][i]);
+      if (i < counts[1])
+        out.writer().addSample(names[1], 100L * i, 1.8f, current[1][i]);
+    }
+    out.close();
+
+    ByteBuffer bb = ByteBuffer.wrap(Files.readAllBytes(f.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+    assertEquals(AemBinaryWriter.BLOCK_FILE_HEADER, bb.getInt(0));
+    assertEquals(AemBinaryWriter.MAGIC, bb.getInt(8));
+
+    // Walk forward, collecting the samples of each stream.
+    Map<Integer, String> streams = new HashMap<>();
+    List<List<Float>> read = List.of(new ArrayList<>(), new ArrayList<>());
+    int pos = 0;
+    int lastType = 0;
+    while (pos < bb.limit()) {
+      int type = bb.getInt(pos);
+      int length = bb.getInt(pos + 4);
+      assertEquals(length, bb.getInt(pos + length - 4));
+      if (type == AemBinaryWriter.BLOCK_STREAM) {
+        byte[] name = new byte[bb.getInt(pos + 12)];
+        bb.get(pos + 16, name);
+        streams.put(bb.getInt(pos + 8), new String(name));
+      } else if (type == AemBinaryWriter.BLOCK_SAMPLES) {
+        int s = List.of(names).indexOf(streams.get(bb.getInt(pos + 8)));
+        int n = bb.getInt(pos + 12);
+        assertTrue(n == AemBinaryWriter.SAMPLES_PER_BLOCK || read.get(s).size() + n == counts[s]);
+        for (int i = 0; i < n; i++)
+          read.get(s).add(bb.getFloat(pos + 16 + 12 * n + 4 * i));
+      }
+      lastType = type;
+      pos += length;
+    }
+    assertEquals(AemBinaryWriter.BLOCK_INDEX, lastType);
+    for (int s = 0; s < 2; s++) {
+      assertEquals(counts[s], read.get(s).size());
+      for (int i = 0; i < counts[s]; i++)
+        assertEquals(current[s][i], read.get(s).get(i));
+    }
+
+    // Walk back to the index, and find a single summary on top of each stream.
+    int indexStart = bb.limit() - bb.getInt(bb.limit() - 4);
+    int entries = bb.getInt(indexStart + 8);
+    Map<Integer, Integer> top = new HashMap<>();
+    for (int e = 0; e < entries; e++) {
+      int id = bb.getInt(indexStart + 12 + 16 * e);
+      int block = (int) bb.getLong(indexStart + 20 + 16 * e);
+      assertEquals(AemBinaryWriter.BLOCK_SUMMARY, bb.getInt(block));
+      if (bb.getInt(block + 16) == 1)
+        top.put(id, block);
+    }
+    assertEquals(2, top.size());
+    for (Map.Entry<Integer, Integer> t : top.entrySet()) {
+      int s = List.of(names).indexOf(streams.get(t.getKey()));
+      int body = t.getValue() + 20;
+      // Offset, first and last time, samples, then voltage and current.
+      assertEquals(0, bb.getLong(body + 8));
+      assertEquals(100L * (counts[s] - 1), bb.getLong(body + 16));
+      assertEquals(counts[s], bb.getInt(body + 24));
+      float min = 1, max = 0;
+      double sum = 0;
+      for (float c : current[s]) {
+        min = Math.min(min, c);
+        max = Math.max(max, c);
+        sum += c;
+      }
+      assertEquals(min, bb.getFloat(body + 40));
+      assertEquals(max, bb.getFloat(body + 44));
+      assertEquals(sum / counts[s], bb.getFloat(body + 48), 1e-6);
+    }
+  }
+}
@@ -0,0 +1,58 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.jupiter.api.Test;
+
+import com.silabs.pti.decode.AemDecoder;
+import com.silabs.pti.decode.AemSample;
+import com.silabs.pti.decode.AemSampleWindow;
+
+class AemDecoderTest {
+
+  // AEM packet with the given currents, 3 bytes into a larger array.
+  private static byte[] packet(final float... currents) {
+    ByteBuffer bb = ByteBuffer.allocate(3 + 34 + 4 * currents.length + 5).order(ByteOrder.LITTLE_ENDIAN);
+    bb.position(3);
+    bb.putShort((short) 1); // version
+    bb.putInt(3000); // sample rate
+    bb.put(new byte[12]); // buffer size, sequence, reserved
+    bb.putFloat(3.3f); // voltage
+    bb.put(new byte[12]); // reserved, status
+    for (float c : currents)
+      bb.putFloat(c);
+    return bb.array();
+  }
+
+  @Test void bulkMatchesSampleBySample() {
+    float[] currents = { 0.5f, -1.25f, 3e-6f, 7f, 0f };
+    byte[] b = packet(currents);
+    int length = 34 + 4 * currents.length;
+
+    AemDecoder byOne = new AemDecoder(1000, b, 3, length);
+    AemSampleWindow w = new AemDecoder(1000, b, 3, length).window();
+    assertEquals(currents.length, w.size());
+    for (int i = 0; i < w.size(); i++) {
+      AemSample s = byOne.nextSample();
+      assertEquals(s, w.sample(i));
+      assertEquals(s.timestamp(), w.timestamp(i));
+      assertEquals(3.3f, w.voltage(i));
+      assertEquals(currents[i], w.current(i));
+    }
+    assertNull(byOne.nextSample());
+    assertEquals(1000 + 1000000 / 3000, w.timestamp(1));
+  }
+
+  @Test void shortPacketHasNoSamples() {
+    byte[] b = packet();
+    assertEquals(0, new AemDecoder(0, b, 3, 34).sampleCount());
+    assertEquals(0, new AemDecoder(0, b, 3, 20).window().size());
+    assertEquals(0, new AemDecoder(0, b, 3, 20).decodeSamples(new long[0], new float[0], new float[0], 0));
+  }
+}
@@ -0,0 +1,102 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import com.silabs.pti.adapter.MetricsRegistry;
+import com.silabs.pti.format.AsyncOutputStream;
+
+class AsyncOutputStreamTest {
+
+  @Test void concurrentWritersKeepRecordsIntact() throws Exception {
+    ByteArrayOutputStream sink = new ByteArrayOutputStream();
+    AsyncOutputStream out = new AsyncOutputStream(sink, "test", 2, 50);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      final byte id = (byte) ('a' + t);
+      threads.add(new Thread(() -> {
+        byte[] record = new byte[1000];
+        Arrays.fill(record, id);
+        try {
+          for (int i = 0; i < 500; i++)
+            out.write(record);
+        } catch (IOException ioe) {
+          throw new RuntimeException(ioe);
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread t : threads)
+      t.join();
+    out.close();
+
+    byte[] all = sink.toByteArray();
+    assertEquals(4 * 500 * 1000, all.length);
+    // Every record must have been written in one piece.
+    for (int i = 0; i < all.length; i += 1000) {
+      for (int j = 1; j < 1000; j++)
+        assertEquals(all[i], all[i + j]);
+    }
+    assertTrue(out.writeCount() > 0);
+  }
+
+  @Test void flushWaitsForWriter() throws IOException {
+    ByteArrayOutputStream sink = new ByteArrayOutputStream();
+    try (AsyncOutputStream out = new AsyncOutputStream(sink, "test", 4, 60000)) {
+      out.write(new byte[] { 1, 2, 3 });
+      out.flush();
+      assertEquals(3, sink.size());
+    }
+  }
+
+  @Test void blockedProducersAreReported() throws Exception {
+    CountDownLatch disk = new CountDownLatch(1);
+    OutputStream slow = new OutputStream() {
+      @Override
+      public void write(int b) {
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) {
+        try {
+          disk.await();
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    };
+    AsyncOutputStream out = new AsyncOutputStream(slow, "slow", 1, 60000);
+    // One chunk in the writer, one queued, the third waits for the disk.
+    Thread producer = new Thread(() -> {
+      byte[] chunk = new byte[AsyncOutputStream.CHUNK_SIZE];
+      try {
+        for (int i = 0; i < 4; i++)
+          out.write(chunk);
+      } catch (IOException ioe) {
+        throw new RuntimeException(ioe);
+      }
+    });
+    producer.start();
+    while (producer.getState() != Thread.State.WAITING)
+      Thread.sleep(1);
+    disk.countDown();
+    producer.join();
+    assertTrue(out.blockedNanos() > 0);
+    assertEquals(1, out.maxQueueDepth());
+    assertTrue(MetricsRegistry.get().summary().stream().anyMatch(l -> l.startsWith("output.slow.blockedNanos: ")));
+    out.close();
+    assertTrue(MetricsRegistry.get().summary().stream().noneMatch(l -> l.startsWith("output.slow.")));
+  }
+}
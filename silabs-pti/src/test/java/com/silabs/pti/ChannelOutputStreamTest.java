@@ -0,0 +1,66 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.silabs.pti.format.ChannelOutputStream;
+import com.silabs.pti.format.OutputOptions;
+
+class ChannelOutputStreamTest {
+
+  @TempDir
+  File dir;
+
+  @Test void bufferedUntilFlush() throws IOException {
+    File f = new File(dir, "a.bin");
+    try (ChannelOutputStream s = new ChannelOutputStream(f, false, OutputOptions.defaults().flushMs(60000))) {
+      s.write(new byte[] { 1, 2, 3 });
+      assertEquals(0, f.length());
+      s.flush();
+      assertEquals(3, f.length());
+    }
+  }
+
+  @Test void writeThrough() throws IOException {
+    File f = new File(dir, "b.bin");
+    try (ChannelOutputStream s = new ChannelOutputStream(f, false, OutputOptions.defaults().flushMs(0))) {
+      s.write(7);
+      assertEquals(1, f.length());
+    }
+  }
+
+  @Test void mixedSizesAndAppend() throws IOException {
+    File f = new File(dir, "c.bin");
+    Random r = new Random(3);
+    byte[] expected = new byte[100000];
+    r.nextBytes(expected);
+    OutputOptions o = OutputOptions.defaults().bufferSize(1000);
+    try (ChannelOutputStream s = new ChannelOutputStream(f, false, o)) {
+      int off = 0;
+      while (off < 50000) {
+        // Mix of single bytes, small chunks and chunks larger than the buffer.
+        int len = Math.min(50000 - off, r.nextInt(3) == 0 ? 1 : r.nextInt(2500));
+        if (len == 1)
+          s.write(expected[off]);
+        else
+          s.write(expected, off, len);
+        off += len;
+      }
+      assertEquals(50000, s.bytesWritten());
+    }
+    try (ChannelOutputStream s = new ChannelOutputStream(f, true, o)) {
+      s.write(expected, 50000, 50000);
+    }
+    assertArrayEquals(expected, Files.readAllBytes(f.toPath()));
+  }
+}
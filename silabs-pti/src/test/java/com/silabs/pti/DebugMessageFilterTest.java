@@ -1,5 +1,6 @@
 package com.silabs.pti;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -10,7 +11,10 @@ import org.junit.jupiter.api.Test;
 
 import com.silabs.pti.debugchannel.DebugMessage;
 import com.silabs.pti.debugchannel.DebugMessageType;
+import com.silabs.pti.debugchannel.DebugMessageView;
+import com.silabs.pti.debugchannel.OriginatorRegistry;
 import com.silabs.pti.filter.CliDebugMessageFilter;
+import com.silabs.pti.filter.IDebugMessageFilter;
 
 /**
  * Test for the debug message filters.
@@ -79,6 +83,22 @@ public class DebugMessageFilterTest {
     dm = DebugMessage.make("d", "very long debug message".getBytes(), 0);
     assertFalse(f.isMessageKept(dm));
   }
+
+  @Test
+  public void originatorIds() throws ParseException {
+    CliDebugMessageFilter f = new CliDebugMessageFilter("originatorIn(10.4.1.17)");
+    int id = OriginatorRegistry.id("10.4.1.17");
+    assertEquals(id, OriginatorRegistry.id("10.4.1.17"));
+    assertEquals("10.4.1.17", OriginatorRegistry.name(id));
+    assertEquals(OriginatorRegistry.NONE, OriginatorRegistry.find("never.seen"));
+
+    byte[] frame = "very long debug message".getBytes();
+    DebugMessage dm = DebugMessage.make(id, frame, 0);
+    assertEquals("10.4.1.17", dm.originatorId());
+    assertTrue(f.isMessageKept(dm));
+    assertTrue(f.isFrameKept(new DebugMessageView().wrap(frame), id, 0));
+    assertFalse(f.isFrameKept(new DebugMessageView().wrap(frame), OriginatorRegistry.id("localhost:4905"), 0));
+  }
   
   @Test
   public void timeWithinFilter() throws ParseException {
@@ -124,4 +144,49 @@ public class DebugMessageFilterTest {
     f.orFilter("sizeWithin(10,100)");
     assertTrue(f.isMessageKept(dm));
   }
+
+  // Version 3 frame with the given time, type and payload size.
+  private static byte[] v3Frame(final long timeUs, final int type, final int size) {
+    byte[] b = new byte[18 + size];
+    b[0] = 3;
+    long ns = timeUs * 1000;
+    for (int i = 0; i < 8; i++)
+      b[2 + i] = (byte) (ns >> (8 * i));
+    b[10] = (byte) type;
+    b[11] = (byte) (type >> 8);
+    return b;
+  }
+
+  @Test
+  public void frameFiltersMatchMessageFilters() throws ParseException {
+    String[] expressions = { "true", "false", "typeIn(" + DebugMessageType.API_RX + ",latency)",
+        "!typeIn(" + DebugMessageType.API_RX.value() + ")", "timeWithin(12,16)", "sizeWithin(1,3)",
+        "originatorIn(a,b)", "contains(x)" };
+    int[] types = { DebugMessageType.API_RX.value(), DebugMessageType.LATENCY.value(),
+        DebugMessageType.AEM_COUNTER.value() };
+    DebugMessageView view = new DebugMessageView();
+    for (String e : expressions) {
+      CliDebugMessageFilter f = new CliDebugMessageFilter(e);
+      for (int type : types) {
+        for (long time = 10; time < 18; time++) {
+          for (int size = 0; size < 5; size++) {
+            for (String originator : new String[] { "a", "c" }) {
+              byte[] frame = v3Frame(time, type, size);
+              DebugMessage dm = DebugMessage.make(originator, frame, 0);
+              assertEquals(f.isMessageKept(dm), f.isFrameKept(view.wrap(frame), originator, 0), e);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void shortFramesAreDropped() throws ParseException {
+    CliDebugMessageFilter f = new CliDebugMessageFilter("sizeWithin(0,100)");
+    assertFalse(f.isFrameKept(new DebugMessageView().wrap(new byte[] { 3, 0, 0 }), "a", 0));
+    CliDebugMessageFilter negated = new CliDebugMessageFilter("!sizeWithin(0,100)");
+    assertFalse(negated.isFrameKept(new DebugMessageView().wrap(new byte[] { 3, 0, 0 }), "a", 0));
+    assertTrue(IDebugMessageFilter.ALL_PASS_FILTER.isFrameKept(new DebugMessageView().wrap(new byte[0]), "a", 0));
+  }
 }
@@ -1,5 +1,7 @@
 package com.silabs.pti;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
@@ -11,6 +13,7 @@ import java.util.Set;
 import org.junit.jupiter.api.Test;
 
 import com.silabs.pti.debugchannel.DebugMessageType;
+import com.silabs.pti.debugchannel.EventType;
 
 /**
  * Tests for debug message type.
@@ -46,6 +49,22 @@ public class DebugMessageTypeTest {
     }
   }
 
+  @Test
+  public void testDebugMessageTypeLookup() {
+    int known = 0;
+    for (int code = -2; code <= 0x10001; code++) {
+      final DebugMessageType t = DebugMessageType.get(code);
+      if (t != DebugMessageType.INVALID) {
+        assertEquals(code, t.value());
+        assertSame(t, EventType.fromDebugMessageCode(code).debugMessageType());
+        known++;
+      } else {
+        assertSame(EventType.UNKNOWN_DEBUG_MESSAGE, EventType.fromDebugMessageCode(code));
+      }
+    }
+    assertEquals(DebugMessageType.values().length - 1, known);
+  }
+
   public void createJsonOutOfEnum() throws IOException {
     try (PrintWriter pw = new PrintWriter(new File("debug-message-type.json"))) {
       int i = 0;
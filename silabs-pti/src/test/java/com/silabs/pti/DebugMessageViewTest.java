@@ -0,0 +1,85 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import com.silabs.pti.debugchannel.DebugMessage;
+import com.silabs.pti.debugchannel.DebugMessageView;
+
+class DebugMessageViewTest {
+
+  private static final byte[] V3 = { 3, 0, // version
+      (byte) 0xE8, 3, 0, 0, 0, 0, 0, 0, // 1000 ns
+      0x29, 0, // type
+      4, 3, 2, 1, // flags
+      0x34, 0x12, // sequence
+      10, 11, 12 };
+
+  private static final byte[] V2 = { 2, 0, // version
+      7, 0, 0, 0, 0, 0, // 7 us
+      0x2A, 0, // type
+      0x55, // sequence
+      20, 21 };
+
+  // Puts the frame in the middle of a larger array.
+  private static byte[] embed(final byte[] frame, final int pad) {
+    byte[] b = new byte[frame.length + 2 * pad];
+    System.arraycopy(frame, 0, b, pad, frame.length);
+    return b;
+  }
+
+  private static void assertMatches(final DebugMessage dm, final DebugMessageView v) {
+    assertEquals(dm.version(), v.version());
+    assertEquals(dm.networkTime(), v.networkTime());
+    assertEquals(dm.debugType(), v.debugType());
+    assertEquals(dm.flags(), v.flags());
+    assertEquals(dm.seqNumber(), v.seqNumber());
+    assertEquals(dm.contentLength(), v.payloadLength());
+    assertEquals(dm.payloadOffset(), v.payloadOffset());
+    assertEquals(dm.payload(), v.payload());
+  }
+
+  @Test void viewMatchesParsedMessage() {
+    for (byte[] frame : new byte[][] { V3, V2 }) {
+      byte[] b = embed(frame, 5);
+      DebugMessageView v = new DebugMessageView().wrap(b, 5, frame.length);
+      DebugMessage dm = DebugMessage.make("x", b, 5, frame.length, 0);
+      assertMatches(dm, v);
+      assertMatches(DebugMessage.make("x", frame, 0), new DebugMessageView().wrap(frame));
+    }
+  }
+
+  @Test void payloadIsNotCopied() {
+    byte[] b = embed(V3, 3);
+    DebugMessage dm = DebugMessage.make("x", b, 3, V3.length, 0);
+    assertSame(b, dm.payloadArray());
+    assertEquals(3 + DebugMessageView.V3_HEADER_LENGTH, dm.payloadOffset());
+    assertEquals(12, dm.contents(2));
+    assertArrayEquals(new byte[] { 10, 11, 12 }, dm.contents());
+    ByteBuffer p = dm.payload();
+    assertEquals(3, p.remaining());
+    assertEquals(10, p.get(0));
+  }
+
+  @Test void shortFrames() {
+    byte[] shortV3 = new byte[10];
+    shortV3[0] = 3;
+    assertFalse(new DebugMessageView().wrap(shortV3).isValid());
+    assertNull(DebugMessage.make("x", shortV3, 0));
+    assertFalse(new DebugMessageView().wrap(new byte[1]).isValid());
+  }
+
+  @Test void eventContentsOfUnknownType() {
+    DebugMessage dm = DebugMessage.make("x", new byte[] { 2, 0, 0, 0, 0, 0, 0, 0, (byte) 0xFE, 0x7F, 0, 9 }, 0);
+    assertArrayEquals(new byte[] { 0x7F, (byte) 0xFE, 9 }, dm.eventContents());
+  }
+}
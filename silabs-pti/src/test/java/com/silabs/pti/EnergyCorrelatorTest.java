@@ -0,0 +1,127 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.jupiter.api.Test;
+
+import com.silabs.pti.debugchannel.DebugMessage;
+import com.silabs.pti.debugchannel.DebugMessageType;
+import com.silabs.pti.debugchannel.EnergyCorrelator;
+import com.silabs.pti.debugchannel.EventType;
+import com.silabs.pti.debugchannel.RadioConfiguration;
+import com.silabs.pti.protocol.Protocol;
+
+class EnergyCorrelatorTest {
+
+  // Version 2 debug message of the given type, time and payload.
+  private static DebugMessage message(final DebugMessageType type, final long time, final byte[] payload) {
+    ByteBuffer bb = ByteBuffer.allocate(11 + payload.length).order(ByteOrder.LITTLE_ENDIAN);
+    bb.putShort((short) 2);
+    for (int i = 0; i < 6; i++)
+      bb.put((byte) (time >>> (8 * i)));
+    bb.putShort((short) type.value());
+    bb.put((byte) 0);
+    bb.put(payload);
+    return DebugMessage.make("", bb.array(), 0);
+  }
+
+  // AEM samples of 2 mA at 3 V, every 10 us.
+  private static byte[] aem(final int samples) {
+    return aem(samples, 100_000);
+  }
+
+  private static byte[] aem(final int samples, final int rate) {
+    ByteBuffer bb = ByteBuffer.allocate(34 + 4 * samples).order(ByteOrder.LITTLE_ENDIAN);
+    bb.putShort((short) 1);
+    bb.putInt(rate);
+    bb.put(new byte[12]);
+    bb.putFloat(3f);
+    bb.put(new byte[12]);
+    for (int i = 0; i < samples; i++)
+      bb.putFloat(2f);
+    return bb.array();
+  }
+
+  // EFR packet payload of the given length, ending in a radio info with the
+  // protocol.
+  private static byte[] efr(final int length, final Protocol protocol) {
+    byte[] payload = new byte[length];
+    payload[length - 2] = (byte) protocol.id();
+    return payload;
+  }
+
+  private static void send(final EnergyCorrelator c, final String originator, final DebugMessage dm) {
+    c.messageReceived(originator, dm, EventType.fromDebugMessageCode(dm.debugType()));
+  }
+
+  @Test void integratesCurrentOverPackets() {
+    ByteArrayOutputStream csv = new ByteArrayOutputStream();
+    EnergyCorrelator c = new EnergyCorrelator(new PrintStream(csv), 1_000_000);
+
+    // The packet comes before the samples that cover it, and waits for them.
+    send(c, "a", message(DebugMessageType.PACKET_TRACE_EFR_TX, 1000, efr(20, Protocol.ZIGBEE_ON_RAIL)));
+    send(c, "b", message(DebugMessageType.PACKET_TRACE_EFR_TX, 1000, efr(20, Protocol.ZIGBEE_ON_RAIL)));
+    assertEquals(1, csv.toString().lines().count());
+    send(c, "a", message(DebugMessageType.AEM_CURRENT_PACKET, 0, aem(500)));
+    assertEquals(2, csv.toString().lines().count());
+    // No samples ever arrive for b.
+    c.close();
+
+    long duration = RadioConfiguration.FIFTEENFOUR.microsecondDuration(20);
+    String[] lines = csv.toString().split("\\R");
+    assertEquals("originator,type,start_us,end_us,length,samples,charge_nC,energy_nJ", lines[0]);
+    String[] a = lines[1].split(",", -1);
+    assertEquals("a", a[0]);
+    assertEquals("1000", a[2]);
+    assertEquals(String.valueOf(1000 + duration), a[3]);
+    assertEquals(2.0 * duration, Double.parseDouble(a[6]), 1e-6);
+    assertEquals(6.0 * duration, Double.parseDouble(a[7]), 1e-6);
+    String[] b = lines[2].split(",", -1);
+    assertEquals("b", b[0]);
+    assertEquals("0", b[5]);
+    assertEquals("", b[6]);
+  }
+
+  @Test void packetWithinOneSample() {
+    ByteArrayOutputStream csv = new ByteArrayOutputStream();
+    EnergyCorrelator c = new EnergyCorrelator(new PrintStream(csv), 1_000_000);
+    long duration = RadioConfiguration.FIFTEENFOUR.microsecondDuration(5);
+    assertTrue(duration < 900, "duration " + duration);
+
+    // Samples every 1 ms, the packet falls between the second and the third.
+    send(c, "a", message(DebugMessageType.AEM_CURRENT_PACKET, 0, aem(10, 1000)));
+    send(c, "a", message(DebugMessageType.PACKET_TRACE_EFR_TX, 1100, efr(5, Protocol.ZIGBEE_ON_RAIL)));
+    c.close();
+
+    String[] a = csv.toString().split("\\R")[1].split(",", -1);
+    assertEquals("1100", a[2]);
+    assertEquals("1", a[5]);
+    assertEquals(2.0 * duration, Double.parseDouble(a[6]), 1e-6);
+    assertEquals(6.0 * duration, Double.parseDouble(a[7]), 1e-6);
+  }
+
+  @Test void onAirTimeFollowsThePhy() {
+    ByteArrayOutputStream csv = new ByteArrayOutputStream();
+    EnergyCorrelator c = new EnergyCorrelator(new PrintStream(csv), 1_000_000);
+    send(c, "a", message(DebugMessageType.PACKET_TRACE_EFR_TX, 1000, efr(20, Protocol.BLE)));
+    send(c, "a", message(DebugMessageType.PACKET_TRACE_EFR_TX, 2000, efr(20, Protocol.ZIGBEE_ON_RAIL)));
+    // Connect runs on a PHY of the application's choosing.
+    send(c, "a", message(DebugMessageType.PACKET_TRACE_EFR_TX, 3000, efr(20, Protocol.CONNECT_ON_RAIL)));
+    c.close();
+
+    String[] lines = csv.toString().split("\\R");
+    assertEquals(3, lines.length);
+    assertEquals(String.valueOf(1000 + RadioConfiguration.BLE1.microsecondDuration(20)), lines[1].split(",")[3]);
+    assertEquals(String.valueOf(2000 + RadioConfiguration.FIFTEENFOUR.microsecondDuration(20)),
+                 lines[2].split(",")[3]);
+    assertEquals(1, c.unknownPhyPackets());
+  }
+}
@@ -0,0 +1,91 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.silabs.pti.adapter.AsciiFramer;
+import com.silabs.pti.adapter.DebugChannelFramer;
+import com.silabs.pti.adapter.IFramer;
+
+class FramerTest {
+
+  private static byte[] debugChannelStream(final Random r, final int frames) {
+    DebugChannelFramer framer = new DebugChannelFramer(true);
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    for (int i = 0; i < frames; i++) {
+      // Some garbage between frames, which must be skipped.
+      if (r.nextInt(10) == 0)
+        bos.write(r.nextInt(90));
+      byte[] payload = new byte[r.nextInt(300)];
+      r.nextBytes(payload);
+      bos.writeBytes(framer.frame(payload));
+    }
+    return bos.toByteArray();
+  }
+
+  private static List<byte[]> perByte(final IFramer f, final byte[] data) {
+    List<byte[]> out = new ArrayList<>();
+    for (byte b : data) {
+      byte[] m = f.assembleMessage(b);
+      if (m != null)
+        out.add(m);
+    }
+    return out;
+  }
+
+  private static List<byte[]> bulk(final IFramer f, final byte[] data, final Random r) {
+    List<byte[]> out = new ArrayList<>();
+    int off = 0;
+    while (off < data.length) {
+      int len = Math.min(data.length - off, 1 + r.nextInt(700));
+      f.assembleMessages(data, off, len, out::add);
+      off += len;
+    }
+    return out;
+  }
+
+  private static void assertSame(final List<byte[]> expected, final List<byte[]> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++)
+      assertArrayEquals(expected.get(i), actual.get(i));
+  }
+
+  @Test void debugChannelBulkMatchesPerByte() {
+    Random r = new Random(42);
+    byte[] data = debugChannelStream(r, 2000);
+    List<byte[]> expected = perByte(new DebugChannelFramer(true), data);
+    assertSame(expected, bulk(new DebugChannelFramer(true), data, r));
+  }
+
+  @Test void debugChannelEmptyFrame() {
+    DebugChannelFramer f = new DebugChannelFramer(true);
+    byte[] data = f.frame(new byte[0]);
+    List<byte[]> out = perByte(f, data);
+    assertEquals(1, out.size());
+    assertEquals(0, out.get(0).length);
+  }
+
+  @Test void asciiBulkMatchesPerByte() {
+    Random r = new Random(7);
+    StringBuilder sb = new StringBuilder();
+    String[] terminators = { "\r\n", "\n", "\r", "\n\n", "\r\n\r\n" };
+    for (int i = 0; i < 3000; i++) {
+      sb.append("line ").append(i).append(" ".repeat(r.nextInt(400)));
+      sb.append(terminators[r.nextInt(terminators.length)]);
+    }
+    byte[] data = sb.toString().getBytes();
+    AsciiFramer a = new AsciiFramer();
+    AsciiFramer b = new AsciiFramer();
+    assertSame(perByte(a, data), bulk(b, data, r));
+    assertArrayEquals(a.flushMessage(), b.flushMessage());
+  }
+}
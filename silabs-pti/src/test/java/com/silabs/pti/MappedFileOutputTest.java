@@ -0,0 +1,119 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.silabs.na.pcap.LinkType;
+import com.silabs.na.pcap.Pcap;
+import com.silabs.pti.format.MappedFileOutputStream;
+import com.silabs.pti.format.OutputOptions;
+import com.silabs.pti.format.PcapngWriter;
+
+class MappedFileOutputTest {
+
+  @TempDir
+  File dir;
+
+  @Test void streamGrowsAndTruncates() throws IOException {
+    File f = new File(dir, "a.dump");
+    Random r = new Random(5);
+    byte[] expected = new byte[100000];
+    r.nextBytes(expected);
+    OutputOptions o = OutputOptions.defaults().mmapChunk(4096);
+    try (MappedFileOutputStream s = new MappedFileOutputStream(f, false, o)) {
+      int off = 0;
+      while (off < 60000) {
+        // Single bytes, small writes and writes spanning several chunks.
+        int len = Math.min(60000 - off, r.nextInt(3) == 0 ? 1 : r.nextInt(10000));
+        if (len == 1)
+          s.write(expected[off]);
+        else
+          s.write(expected, off, len);
+        off += len;
+      }
+      assertEquals(60000, s.bytesWritten());
+      assertEquals(0, f.length() % 4096);
+    }
+    assertEquals(60000, f.length());
+    try (MappedFileOutputStream s = new MappedFileOutputStream(f, true, o)) {
+      s.write(expected, 60000, 40000);
+    }
+    assertArrayEquals(expected, Files.readAllBytes(f.toPath()));
+  }
+
+  @Test void closeUnmapsAndTruncates() throws IOException {
+    File f = new File(dir, "b.dump");
+    byte[] data = new byte[10 * 4096 + 123];
+    new Random(3).nextBytes(data);
+    MappedFileOutputStream s = new MappedFileOutputStream(f, false, OutputOptions.defaults().mmapChunk(4096));
+    s.write(data);
+    s.close();
+    assertEquals(data.length, f.length());
+    assertEquals(data.length, s.bytesWritten());
+    assertArrayEquals(data, Files.readAllBytes(f.toPath()));
+    // Nothing is mapped any more, so the file can go.
+    Files.delete(f.toPath());
+  }
+
+  @Test void pcapngSameAsBuffered() throws IOException {
+    File buffered = new File(dir, "buffered.pcapng");
+    File mapped = new File(dir, "mapped.pcapng");
+    try (PcapngWriter b = new PcapngWriter(buffered, OutputOptions.defaults());
+        PcapngWriter m = new PcapngWriter(mapped, OutputOptions.defaults().mmapChunk(1024))) {
+      writePackets(b);
+      writePackets(m);
+    }
+    assertArrayEquals(Files.readAllBytes(buffered.toPath()), Files.readAllBytes(mapped.toPath()));
+  }
+
+  @Test void openPcapngIsValid() throws IOException {
+    File f = new File(dir, "open.pcapng");
+    try (PcapngWriter m = new PcapngWriter(f, OutputOptions.defaults().mmapChunk(1024))) {
+      writePackets(m);
+      m.flush();
+      // As a reader would see it, if the process died now.
+      byte[] content = Files.readAllBytes(f.toPath());
+      ByteBuffer bb = ByteBuffer.wrap(content).order(ByteOrder.nativeOrder());
+      int blocks = 0;
+      int lastType = 0;
+      while (bb.position() < content.length) {
+        int start = bb.position();
+        lastType = bb.getInt(start);
+        int length = bb.getInt(start + 4);
+        assertTrue(length >= 12 && start + length <= content.length);
+        assertEquals(length, bb.getInt(start + length - 4));
+        bb.position(start + length);
+        blocks++;
+      }
+      // Section header, interface, packets and the block covering the rest.
+      assertEquals(1 + 1 + 100 + 1, blocks);
+      assertTrue(lastType < 0);
+    }
+  }
+
+  private static void writePackets(final PcapngWriter w) throws IOException {
+    Random r = new Random(8);
+    byte[] frame = new byte[3000];
+    r.nextBytes(frame);
+    w.writeInterfaceDescriptionBlock(LinkType.IEEE802_15_4_NOFCS, Pcap.RESOLUTION_MICROSECONDS);
+    for (int i = 0; i < 100; i++) {
+      int len = i % 25 == 0 ? 1500 + r.nextInt(1500) : r.nextInt(130);
+      int off = r.nextInt(frame.length - len + 1);
+      w.writeEnhancedPacketBlock(0, i * 1000L, Arrays.copyOfRange(frame, off, off + len));
+    }
+  }
+}
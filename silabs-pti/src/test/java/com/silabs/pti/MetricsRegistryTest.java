@@ -0,0 +1,83 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+
+import com.silabs.pti.adapter.Histogram;
+import com.silabs.pti.adapter.MetricsRegistry;
+
+class MetricsRegistryTest {
+
+  @Test void bucketsAreWithinAnEighth() {
+    Random r = new Random(7);
+    for (int i = 0; i < 100_000; i++) {
+      long v = (r.nextLong() >>> 1) >>> r.nextInt(63);
+      long high = Histogram.highestValue(Histogram.bucket(v));
+      assertTrue(high >= v, v + " above " + high);
+      assertTrue(high - v <= v / 8, v + " too far from " + high);
+    }
+    assertEquals(Histogram.BUCKETS - 1, Histogram.bucket(Long.MAX_VALUE));
+    assertEquals(5, Histogram.highestValue(Histogram.bucket(5)));
+  }
+
+  @Test void percentilesAndIntervals() {
+    // Not the shared registry, which holds the metrics of other tests.
+    MetricsRegistry m = new MetricsRegistry();
+    Histogram h = m.histogram("test.stage");
+    for (int i = 1; i <= 1000; i++)
+      h.record(i * 1000L);
+    m.counter("test.frames").add(1000);
+    assertEquals(1000, h.count());
+    assertEquals(1_000_000, h.max());
+
+    long[] counts = new long[Histogram.BUCKETS];
+    h.snapshot(counts);
+    long p50 = Histogram.valueAt(counts, 0.5);
+    assertTrue(p50 >= 500_000 && p50 <= 500_000 * 9 / 8, "p50 " + p50);
+
+    List<String> first = m.summary();
+    assertTrue(first.get(0).startsWith("test.frames: 1000 ("), first.toString());
+    assertTrue(first.get(1).startsWith("test.stage: 1000, p50 "), first.toString());
+    // Nothing recorded since, so the histogram has no line.
+    List<String> second = m.summary();
+    assertEquals(1, second.size(), second.toString());
+  }
+
+  @Test void removedMetricsStartOver() {
+    MetricsRegistry m = new MetricsRegistry();
+    LongAdder c = m.counter("test.bytes");
+    Histogram h = m.histogram("test.write");
+    c.add(10);
+    h.record(1000);
+    h.record(2000);
+    assertEquals(2, m.summary().size());
+
+    // Only the registered instance is removed.
+    m.removeCounter("test.bytes", new LongAdder());
+    assertSame(c, m.counter("test.bytes"));
+
+    m.removeCounter("test.bytes", c);
+    m.removeHistogram("test.write", h);
+    assertTrue(m.summary().isEmpty());
+
+    LongAdder c2 = m.counter("test.bytes");
+    Histogram h2 = m.histogram("test.write");
+    assertNotSame(c, c2);
+    assertNotSame(h, h2);
+    c2.add(3);
+    h2.record(500);
+    List<String> lines = m.summary();
+    assertTrue(lines.get(0).startsWith("test.bytes: 3 ("), lines.toString());
+    assertTrue(lines.get(1).startsWith("test.write: 1, p50 "), lines.toString());
+  }
+}
@@ -0,0 +1,166 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.silabs.pti.adapter.Adapter;
+import com.silabs.pti.adapter.ConnectionType;
+import com.silabs.pti.adapter.IConnection;
+import com.silabs.pti.adapter.IConnectionListener;
+import com.silabs.pti.adapter.IConnectivityLogger;
+import com.silabs.pti.adapter.MetricsRegistry;
+import com.silabs.pti.log.PtiSeverity;
+
+class MultiplexedNioConnectionTest {
+
+  private static final IConnectivityLogger QUIET = new IConnectivityLogger() {
+    @Override
+    public void log(PtiSeverity severity, String message, Throwable throwable) {
+    }
+
+    @Override
+    public int bpsRecordPeriodMs() {
+      return 0;
+    }
+
+    @Override
+    public boolean isEnabled() {
+      return false;
+    }
+  };
+
+  @Test void receivesSendsAndCloses() throws Exception {
+    try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      IConnection c = Adapter.createConnection(ConnectionType.MULTIPLEXED_NIO, "127.0.0.1", server.getLocalPort(),
+          QUIET);
+      BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+      BlockingQueue<Boolean> states = new LinkedBlockingQueue<>();
+      c.addConnectionListener(new IConnectionListener() {
+        @Override
+        public void messageReceived(byte[] message, long pcTime) {
+          messages.add(new String(message, StandardCharsets.US_ASCII));
+        }
+
+        @Override
+        public void connectionStateChanged(boolean isConnected) {
+          states.add(isConnected);
+        }
+      });
+      c.connect();
+      assertTrue(states.poll(5, TimeUnit.SECONDS));
+
+      try (Socket peer = server.accept()) {
+        OutputStream out = peer.getOutputStream();
+        out.write("first\r\nsecond\r\nthi".getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        assertEquals("first", messages.poll(5, TimeUnit.SECONDS));
+        assertEquals("second", messages.poll(5, TimeUnit.SECONDS));
+        out.write("rd\r\n".getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        assertEquals("third", messages.poll(5, TimeUnit.SECONDS));
+
+        // More than the socket buffers take, so the loop has to finish it
+        // once the peer reads.
+        byte[] big = new byte[8 * 1024 * 1024];
+        for (int i = 0; i < big.length; i++)
+          big[i] = (byte) (i * 31);
+        c.setOutgoingFramingEnabled(false);
+        c.send(big);
+        c.send(new byte[] { 1, 2, 3 });
+        InputStream in = peer.getInputStream();
+        byte[] received = new byte[big.length];
+        new DataInputStream(in).readFully(received);
+        assertArrayEquals(big, received);
+        byte[] tail = new byte[3];
+        new DataInputStream(in).readFully(tail);
+        assertArrayEquals(new byte[] { 1, 2, 3 }, tail);
+
+        c.close();
+        assertFalse(states.poll(5, TimeUnit.SECONDS));
+        assertFalse(c.isConnected());
+        assertEquals(-1, in.read());
+      }
+    }
+  }
+
+  @Test void sendsFromConnectListener() throws Exception {
+    try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      IConnection c = Adapter.createConnection(ConnectionType.MULTIPLEXED_NIO, "127.0.0.1", server.getLocalPort(),
+          QUIET);
+      c.addConnectionListener(new IConnectionListener() {
+        @Override
+        public void messageReceived(byte[] message, long pcTime) {
+        }
+
+        @Override
+        public void connectionStateChanged(boolean isConnected) {
+          if (!isConnected)
+            return;
+          try {
+            c.send("setup");
+          } catch (Exception e) {
+            throw new IllegalStateException(e);
+          }
+        }
+      });
+      c.connect();
+      try (Socket peer = server.accept()) {
+        peer.setSoTimeout(5000);
+        byte[] expected = "setup\r\n".getBytes(StandardCharsets.US_ASCII);
+        byte[] received = new byte[expected.length];
+        new DataInputStream(peer.getInputStream()).readFully(received);
+        assertArrayEquals(expected, received);
+      } finally {
+        c.close();
+      }
+    }
+  }
+
+  @Test void metricsSurviveReconnect() throws Exception {
+    try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      IConnection c = Adapter.createConnection(ConnectionType.MULTIPLEXED_NIO, "127.0.0.1", server.getLocalPort(),
+          QUIET);
+      BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+      c.addConnectionListener(new IConnectionListener() {
+        @Override
+        public void messageReceived(byte[] message, long pcTime) {
+          messages.add(new String(message, StandardCharsets.US_ASCII));
+        }
+
+        @Override
+        public void connectionStateChanged(boolean isConnected) {
+        }
+      });
+      String bytes = "127.0.0.1:" + server.getLocalPort() + ".bytes: ";
+      for (int i = 0; i < 2; i++) {
+        c.connect();
+        try (Socket peer = server.accept()) {
+          peer.getOutputStream().write("ping\r\n".getBytes(StandardCharsets.US_ASCII));
+          assertEquals("ping", messages.poll(5, TimeUnit.SECONDS));
+        }
+        c.close();
+      }
+      // Both sessions count towards the same total.
+      assertTrue(MetricsRegistry.get().summary().stream().anyMatch(l -> l.startsWith(bytes + "12 (")));
+      c.dispose();
+      assertTrue(MetricsRegistry.get().summary().stream().noneMatch(l -> l.startsWith(bytes)));
+    }
+  }
+}
@@ -0,0 +1,121 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.silabs.na.pcap.LinkType;
+import com.silabs.na.pcap.Pcap;
+import com.silabs.pti.format.FileOutputs;
+import com.silabs.pti.format.OutputOptions;
+import com.silabs.pti.format.ParallelGzipOutputStream;
+import com.silabs.pti.format.PcapngWriter;
+
+class ParallelGzipOutputStreamTest {
+
+  @TempDir
+  File dir;
+
+  @Test void multipleMembersRoundTrip() throws IOException {
+    Random r = new Random(4);
+    StringBuilder sb = new StringBuilder();
+    while (sb.length() < 1_000_000)
+      sb.append("[").append(r.nextInt(100000)).append(" ").append(r.nextInt(1000)).append("] 01 AB 7F 3C\n");
+    byte[] text = sb.toString().getBytes(StandardCharsets.US_ASCII);
+
+    ByteArrayOutputStream gz = new ByteArrayOutputStream();
+    try (ParallelGzipOutputStream s = new ParallelGzipOutputStream(gz, 0)) {
+      int off = 0;
+      while (off < text.length) {
+        int len = Math.min(text.length - off, r.nextInt(3) == 0 ? 1 : r.nextInt(300000));
+        if (len == 1)
+          s.write(text[off]);
+        else
+          s.write(text, off, len);
+        off += len;
+      }
+    }
+    assertTrue(gz.size() < text.length / 2);
+    assertArrayEquals(text, gunzip(gz.toByteArray()));
+  }
+
+  @Test void emptyAndFlushed() throws IOException {
+    ByteArrayOutputStream gz = new ByteArrayOutputStream();
+    new ParallelGzipOutputStream(gz, 0).close();
+    assertEquals(0, gunzip(gz.toByteArray()).length);
+
+    gz.reset();
+    try (ParallelGzipOutputStream s = new ParallelGzipOutputStream(gz, 0)) {
+      s.write(new byte[] { 1, 2, 3 });
+      s.flush();
+      assertArrayEquals(new byte[] { 1, 2, 3 }, gunzip(gz.toByteArray()));
+    }
+  }
+
+  @Test void intervalSkipsYoungPartialBlocks() throws Exception {
+    ByteArrayOutputStream gz = new ByteArrayOutputStream();
+    try (ParallelGzipOutputStream s = new ParallelGzipOutputStream(gz, 10)) {
+      s.write(new byte[] { 1, 2, 3 });
+      Thread.sleep(200);
+      // Younger than the age limit, so no member of three bytes.
+      assertEquals(0, gz.size());
+
+      // A full block goes out on the interval, without a flush.
+      s.write(new byte[ParallelGzipOutputStream.BLOCK_SIZE]);
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (gz.size() == 0 && System.nanoTime() < deadline)
+        Thread.sleep(10);
+      assertTrue(gz.size() > 0);
+    }
+  }
+
+  @Test void compressedFilesEndInGz() throws IOException {
+    OutputOptions gzip = OutputOptions.defaults().compression(OutputOptions.Compression.GZIP);
+    File text = new File(dir, "capture.txt");
+    try (OutputStream out = FileOutputs.open(text, false, gzip)) {
+      out.write(new byte[] { 'a' });
+    }
+    assertFalse(text.exists());
+    assertArrayEquals(new byte[] { 'a' }, gunzip(Files.readAllBytes(new File(dir, "capture.txt.gz").toPath())));
+    assertEquals(new File(dir, "capture.pcapng.gz"), FileOutputs.file(new File(dir, "capture.pcapng.gz"), gzip));
+  }
+
+  @Test void compressedPcapng() throws IOException {
+    File plain = new File(dir, "plain.pcapng");
+    File compressed = new File(dir, "compressed.pcapng.gz");
+    OutputOptions gzip = OutputOptions.defaults().compression(OutputOptions.Compression.GZIP);
+    try (PcapngWriter p = new PcapngWriter(plain, OutputOptions.defaults());
+        PcapngWriter c = new PcapngWriter(compressed, gzip)) {
+      for (PcapngWriter w : new PcapngWriter[] { p, c }) {
+        w.writeInterfaceDescriptionBlock(LinkType.USER12, Pcap.RESOLUTION_MICROSECONDS);
+        for (int i = 0; i < 5000; i++)
+          w.writeEnhancedPacketBlock(0, i, new byte[i % 200]);
+      }
+    }
+    assertArrayEquals(Files.readAllBytes(plain.toPath()), gunzip(Files.readAllBytes(compressed.toPath())));
+  }
+
+  private static byte[] gunzip(final byte[] gz) throws IOException {
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gz))) {
+      return in.readAllBytes();
+    }
+  }
+}
@@ -0,0 +1,75 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.silabs.na.pcap.IPcapOutput;
+import com.silabs.na.pcap.LinkType;
+import com.silabs.na.pcap.Pcap;
+import com.silabs.pti.format.OutputOptions;
+import com.silabs.pti.format.PcapngWriter;
+
+class PcapngWriterTest {
+
+  @TempDir
+  File dir;
+
+  @Test void sameBytesAsJavaPcap() throws IOException {
+    File expected = new File(dir, "expected.pcapng");
+    File actual = new File(dir, "actual.pcapng");
+    Random r = new Random(12);
+    byte[] frame = new byte[5000];
+    r.nextBytes(frame);
+
+    // Small buffer, so that blocks span drains and some don't fit at all.
+    try (IPcapOutput ref = Pcap.openForWriting(expected);
+        PcapngWriter w = new PcapngWriter(actual, OutputOptions.defaults().bufferSize(1024))) {
+      assertEquals(0, ref.writeInterfaceDescriptionBlock(LinkType.IEEE802_15_4_NOFCS, Pcap.RESOLUTION_MICROSECONDS));
+      assertEquals(0, w.writeInterfaceDescriptionBlock(LinkType.IEEE802_15_4_NOFCS, Pcap.RESOLUTION_MICROSECONDS));
+      assertEquals(1, ref.writeInterfaceDescriptionBlock(LinkType.USER12, 9));
+      assertEquals(1, w.writeInterfaceDescriptionBlock(LinkType.USER12, 9));
+      for (int i = 0; i < 500; i++) {
+        int len = i % 50 == 0 ? 2000 + r.nextInt(3000) : r.nextInt(130);
+        int off = r.nextInt(frame.length - len + 1);
+        long time = r.nextLong();
+        ref.writeEnhancedPacketBlock(i & 1, time, Arrays.copyOfRange(frame, off, off + len));
+        w.writeEnhancedPacketBlock(i & 1, time, frame, off, len);
+      }
+    }
+    assertArrayEquals(Files.readAllBytes(expected.toPath()), Files.readAllBytes(actual.toPath()));
+  }
+
+  @Test void bufferedUntilFlush() throws IOException {
+    File f = new File(dir, "flush.pcapng");
+    try (PcapngWriter w = new PcapngWriter(f, OutputOptions.defaults().flushMs(60000))) {
+      w.writeInterfaceDescriptionBlock(LinkType.USER12, Pcap.RESOLUTION_MICROSECONDS);
+      w.writeEnhancedPacketBlock(0, 1, new byte[] { 1, 2, 3 });
+      assertEquals(0, f.length());
+      w.flush();
+      long flushed = f.length();
+      assertEquals(flushed, Files.readAllBytes(f.toPath()).length);
+      // 3 bytes of data padded to 4, plus 32 bytes of block.
+      w.writeEnhancedPacketBlock(0, 2, new byte[] { 4, 5, 6 });
+      w.flush();
+      assertEquals(flushed + 36, f.length());
+    }
+  }
+
+  @Test void unknownInterface() throws IOException {
+    try (PcapngWriter w = new PcapngWriter(new File(dir, "bad.pcapng"), OutputOptions.defaults())) {
+      assertThrows(IOException.class, () -> w.writeEnhancedPacketBlock(0, 0, new byte[1]));
+    }
+  }
+}
@@ -0,0 +1,94 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.silabs.pti.decode.AemCurrentRingWindow;
+import com.silabs.pti.decode.LogicAnalyzerRunWindow;
+
+class SampleWindowTest {
+
+  @Test void currentStatisticsMatchRecomputation() {
+    Random r = new Random(19);
+    int n = 5000;
+    long[] t = new long[n];
+    float[] v = new float[n];
+    float[] c = new float[n];
+    for (int i = 0; i < n; i++) {
+      t[i] = (i == 0 ? 0 : t[i - 1]) + 50 + r.nextInt(200);
+      v[i] = 3 + r.nextFloat();
+      c[i] = r.nextFloat() * 10;
+    }
+
+    AemCurrentRingWindow byCount = AemCurrentRingWindow.ofCount(100);
+    AemCurrentRingWindow byTime = AemCurrentRingWindow.ofDuration(20_000);
+    double total = 0;
+    for (int i = 0; i < n; i++) {
+      byCount.add(t[i], v[i], c[i]);
+      byTime.add(t[i], v[i], c[i]);
+      if (i > 0)
+        total += (double) c[i] * v[i] * (t[i] - t[i - 1]);
+
+      int from = Math.max(0, i - 99);
+      assertWindow(byCount, t, v, c, from, i);
+      from = i;
+      while (from > 0 && t[from - 1] >= t[i] - 20_000)
+        from--;
+      assertWindow(byTime, t, v, c, from, i);
+    }
+    assertEquals(total, byCount.totalEnergy(), total * 1e-9);
+  }
+
+  private static void assertWindow(AemCurrentRingWindow w, long[] t, float[] v, float[] c, int from, int to) {
+    assertEquals(to - from + 1, w.size());
+    assertEquals(t[from], w.timestamp(0));
+    float min = Float.MAX_VALUE, max = -Float.MAX_VALUE;
+    double sum = 0, charge = 0, energy = 0;
+    for (int i = from; i <= to; i++) {
+      min = Math.min(min, c[i]);
+      max = Math.max(max, c[i]);
+      sum += c[i];
+      if (i > from) {
+        charge += (double) c[i] * (t[i] - t[i - 1]);
+        energy += (double) c[i] * v[i] * (t[i] - t[i - 1]);
+      }
+    }
+    assertEquals(min, w.minCurrent());
+    assertEquals(max, w.maxCurrent());
+    assertEquals(sum / (to - from + 1), w.meanCurrent(), 1e-6);
+    assertEquals(charge, w.charge(), 1e-6 * Math.max(1, charge));
+    assertEquals(energy, w.energy(), 1e-6 * Math.max(1, energy));
+  }
+
+  @Test void logicAnalyzerRuns() {
+    LogicAnalyzerRunWindow w = LogicAnalyzerRunWindow.ofDuration(1000);
+    // Channel 0 toggles every 100 us, channel 1 is high throughout. Sampled
+    // every 10 us.
+    for (long time = 0; time <= 5000; time += 10)
+      w.add(time, 0b10 | (int) ((time / 100) & 1));
+
+    assertEquals(4000, w.startTime());
+    assertEquals(5000, w.endTime());
+    assertEquals(11, w.size());
+    assertEquals(0b11, w.stateAt(4150));
+    assertEquals(0b10, w.stateAt(4250));
+    assertEquals(-1, w.stateAt(3999));
+    assertEquals(1000, w.highTime(1));
+    // High from 4100 to 4200, ... 4900 to 5000.
+    assertEquals(500, w.highTime(0));
+    assertEquals(0.5, w.dutyCycle(0));
+
+    LogicAnalyzerRunWindow last = LogicAnalyzerRunWindow.ofRuns(1);
+    last.add(0, 1);
+    last.add(10, 1);
+    last.add(20, 0);
+    assertEquals(1, last.size());
+    assertEquals(20, last.startTime());
+    assertEquals(0, last.highTime(0));
+  }
+}
@@ -0,0 +1,103 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.silabs.pti.adapter.TimeSynchronizer;
+import com.silabs.pti.debugchannel.DebugMessageConnectionListener;
+import com.silabs.pti.debugchannel.SequenceMonitor;
+import com.silabs.pti.format.IDebugChannelExportOutput;
+import com.silabs.pti.format.IDebugChannelExportFormat;
+import com.silabs.pti.format.LogFileFormat;
+import com.silabs.pti.format.TextFileFormat;
+
+class SequenceMonitorTest {
+
+  @Test void countsGapsAcrossWraps() {
+    SequenceMonitor v2 = new SequenceMonitor();
+    for (int s : new int[] { 250, 251, 255, 0, 1, 5 })
+      v2.newSequence(s, 0xFF);
+    assertEquals(2, v2.gaps());
+    assertEquals(3 + 3, v2.lostMessages());
+
+    SequenceMonitor v3 = new SequenceMonitor();
+    for (int s : new int[] { 0xFFFE, 0xFFFF, 0, 2 })
+      v3.newSequence(s, 0xFFFF);
+    assertEquals(1, v3.gaps());
+    assertEquals(1, v3.lostMessages());
+  }
+
+  @Test void reorderIsNotLoss() {
+    SequenceMonitor m = new SequenceMonitor();
+    // A duplicate, a late one, and the sequence going on where it was.
+    for (int s : new int[] { 10, 11, 12, 12, 13, 11, 14, 15 })
+      assertTrue(m.newSequence(s, 0xFF) < 0, "sequence " + s);
+    assertEquals(0, m.gaps());
+    assertEquals(0, m.lostMessages());
+    assertEquals(2, m.reordered());
+
+    // Same across the wrap, and a real gap still counts.
+    SequenceMonitor wrap = new SequenceMonitor();
+    for (int s : new int[] { 254, 255, 255, 0, 254, 1, 40 })
+      wrap.newSequence(s, 0xFF);
+    assertEquals(1, wrap.gaps());
+    assertEquals(38, wrap.lostMessages());
+    assertEquals(2, wrap.reordered());
+  }
+
+  // Version 2 frame with the given sequence number.
+  private static byte[] frame(final int seq) {
+    return new byte[] { 2, 0, (byte) seq, 0, 0, 0, 0, 0, 0x29, 0, (byte) seq, 1, 2, 3 };
+  }
+
+  // Feeds the frames to a listener with sequence markers, and returns it.
+  private static DebugMessageConnectionListener<PrintStream> listen(final IDebugChannelExportFormat<PrintStream> format,
+                                                                    final ByteArrayOutputStream text,
+                                                                    final int... sequence) {
+    PrintStream ps = new PrintStream(text);
+    OutputMap<PrintStream> output = new OutputMap<>();
+    output.put("seq.test", new IDebugChannelExportOutput<PrintStream>() {
+      @Override public PrintStream writer() { return ps; }
+      @Override public void close() { }
+    });
+    TimeSynchronizer ts = new TimeSynchronizer(() -> 0, false, 1, 1);
+    DebugMessageConnectionListener<PrintStream> l = new DebugMessageConnectionListener<>(format, "seq.test", output, ts);
+    l.setSequenceMarkers(true);
+    for (int s : sequence)
+      l.messageReceived(frame(s), 0);
+    return l;
+  }
+
+  @Test void listenerMarksGaps() {
+    ByteArrayOutputStream text = new ByteArrayOutputStream();
+    DebugMessageConnectionListener<PrintStream> l = listen(new LogFileFormat(), text, 1, 2, 5, 6);
+
+    assertEquals(1, l.sequenceGaps());
+    assertEquals(2, l.lostMessages());
+    List<String> lines = text.toString().lines().collect(Collectors.toList());
+    // Header, two messages, the marker with the expected and received sequence
+    // numbers, and the rest.
+    assertEquals(6, lines.size(), text.toString());
+    // No air time.
+    assertTrue(lines.get(3).matches("\\[\\d+ 0 \\d+ OutOfSeq\\] .*"), lines.get(3));
+    // The expected and received numbers, with no unknown type in front.
+    assertTrue(lines.get(3).endsWith("] [00 03 00 05]"), lines.get(3));
+  }
+
+  @Test void textMarksGapsAsComments() {
+    ByteArrayOutputStream text = new ByteArrayOutputStream();
+    listen(new TextFileFormat(), text, 1, 2, 5, 6);
+    List<String> lines = text.toString().lines().collect(Collectors.toList());
+    assertEquals(1, lines.stream().filter(s -> s.startsWith("#")).count(), text.toString());
+    assertTrue(lines.contains("# Sequence gap on seq.test: expected 3, received 5"), text.toString());
+  }
+}
@@ -0,0 +1,84 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.silabs.pti.util.SpscRingBuffer;
+
+class SpscRingBufferTest {
+
+  @Test void capacityIsPowerOfTwo() {
+    assertEquals(8, new SpscRingBuffer<Integer>(5).capacity());
+    assertEquals(16, new SpscRingBuffer<Integer>(16).capacity());
+    assertEquals(1, new SpscRingBuffer<Integer>(1).capacity());
+  }
+
+  @Test void fullAndEmpty() {
+    SpscRingBuffer<Integer> rb = new SpscRingBuffer<>(4);
+    assertTrue(rb.isEmpty());
+    assertNull(rb.poll());
+    for (int i = 0; i < 4; i++)
+      assertTrue(rb.offer(i));
+    assertFalse(rb.offer(99));
+    assertEquals(4, rb.size());
+    assertEquals(0, rb.poll());
+    assertTrue(rb.offer(4));
+    List<Integer> out = new ArrayList<>();
+    assertEquals(2, rb.drain(out::add, 2));
+    assertEquals(2, rb.drain(out::add, 10));
+    assertEquals(List.of(1, 2, 3, 4), out);
+    assertTrue(rb.isEmpty());
+  }
+
+  @Test void failingConsumerLeavesRest() {
+    SpscRingBuffer<Integer> rb = new SpscRingBuffer<>(4);
+    for (int i = 0; i < 4; i++)
+      assertTrue(rb.offer(i));
+    List<Integer> out = new ArrayList<>();
+    assertThrows(IllegalStateException.class, () -> rb.drain(e -> {
+      out.add(e);
+      if (e == 1)
+        throw new IllegalStateException();
+    }, 10));
+    assertEquals(List.of(0, 1), out);
+    assertEquals(2, rb.size());
+    // The freed slots can be reused, and the rest comes in order.
+    assertTrue(rb.offer(4));
+    assertTrue(rb.offer(5));
+    assertFalse(rb.offer(6));
+    assertEquals(4, rb.drain(out::add, 10));
+    assertEquals(List.of(0, 1, 2, 3, 4, 5), out);
+    assertTrue(rb.isEmpty());
+  }
+
+  @Test void producerConsumerKeepsOrder() throws InterruptedException {
+    final int count = 1_000_000;
+    SpscRingBuffer<Integer> rb = new SpscRingBuffer<>(64);
+    Thread producer = new Thread(() -> {
+      for (int i = 0; i < count; i++) {
+        while (!rb.offer(i))
+          Thread.onSpinWait();
+      }
+    });
+    producer.start();
+    int[] expected = { 0 };
+    while (expected[0] < count) {
+      rb.drain(v -> {
+        assertEquals(expected[0], v);
+        expected[0]++;
+      }, 16);
+    }
+    producer.join();
+    assertTrue(rb.isEmpty());
+  }
+}
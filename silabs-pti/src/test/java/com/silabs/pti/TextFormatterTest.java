@@ -0,0 +1,109 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.silabs.na.pcap.util.ByteArrayUtil;
+import com.silabs.pti.debugchannel.DebugMessage;
+import com.silabs.pti.debugchannel.DebugMessageType;
+import com.silabs.pti.debugchannel.EventType;
+import com.silabs.pti.debugchannel.RadioConfiguration;
+import com.silabs.pti.format.IDebugChannelExportFormat;
+import com.silabs.pti.format.LogFileFormat;
+import com.silabs.pti.format.RawFileFormat;
+import com.silabs.pti.format.TextFileFormat;
+import com.silabs.pti.format.TextFormatter;
+import com.silabs.pti.util.WiresharkUtil;
+
+class TextFormatterTest {
+
+  private static final int[] TYPES = { DebugMessageType.PACKET_TRACE_EFR_RX.value(),
+      DebugMessageType.PACKET_TRACE_EFR_TX.value(), DebugMessageType.PACKET_TRACE_EM2XX_RX.value(),
+      DebugMessageType.PRINTF.value(), 0x7777 };
+
+  @Test void numbersMatchStringFormat() {
+    long[] values = { 0, 1, -1, 9, 10, 59, 60, 99, 100, 123456, -123456, 999999, 1000000, Integer.MAX_VALUE,
+        Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1 };
+    for (long v : values) {
+      assertEquals(Long.toString(v), text(TextFormatter.get().decimal(v)));
+      assertEquals(String.format("%06d", v), text(TextFormatter.get().decimal(v, 6)));
+      String expected = WiresharkUtil.printText2Pcap(v, new byte[0]);
+      assertEquals(expected.substring(0, expected.indexOf(' ')), text(TextFormatter.get().time(v)));
+    }
+  }
+
+  @Test void formatsMatchStringFormatting() throws Exception {
+    Random r = new Random(16);
+    for (int i = 0; i < 500; i++) {
+      byte[] frame = new byte[11 + r.nextInt(40)];
+      r.nextBytes(frame);
+      frame[0] = 2;
+      frame[1] = 0;
+      int t = TYPES[r.nextInt(TYPES.length)];
+      frame[8] = (byte) t;
+      frame[9] = (byte) (t >> 8);
+      DebugMessage dm = DebugMessage.make("", frame, 0);
+      EventType type = EventType.fromDebugMessageCode(dm.debugType());
+      String originator = "10.0.0." + i;
+
+      assertEquals(legacyRaw(frame) + System.lineSeparator(), format(new RawFileFormat(), frame, null, null, null));
+      assertEquals(legacyLog(originator, dm, type) + System.lineSeparator(),
+                   format(new LogFileFormat(), null, originator, dm, type));
+      if (type.isPacket()) {
+        String text = format(new TextFileFormat(), null, originator, dm, type);
+        int[] drops = WiresharkUtil.dropBytesFromBeginningEnd(type);
+        int length = dm.contentLength() - drops[0] - drops[1];
+        assertEquals(length > 0
+            ? WiresharkUtil.printText2Pcap(dm.networkTime(), dm.payloadArray(), dm.payloadOffset() + drops[0], length)
+                + System.lineSeparator()
+            : "", text);
+      }
+    }
+  }
+
+  private static String legacyRaw(final byte[] frame) {
+    return RawFileFormat.RAW_PREFIX + ByteArrayUtil.formatByteArray(frame, 0, frame.length, true, true)
+        + RawFileFormat.RAW_SUFFIX;
+  }
+
+  private static String legacyLog(final String originator, final DebugMessage dm, final EventType type) {
+    int length;
+    String hex;
+    if (DebugMessageType.get(dm.debugType()) == DebugMessageType.INVALID) {
+      byte[] contents = dm.eventContents();
+      length = contents.length;
+      hex = ByteArrayUtil.formatByteArray(contents);
+    } else {
+      length = dm.contentLength();
+      hex = ByteArrayUtil.formatByteArray(dm.payloadArray(), dm.payloadOffset(), length, true, true);
+    }
+    return "[" + dm.networkTime() + " " + RadioConfiguration.FIFTEENFOUR.microsecondDuration(length) + " "
+        + type.value() + " " + type.name() + "] [" + originator + "] [" + hex + "]";
+  }
+
+  private static String format(final IDebugChannelExportFormat<PrintStream> format,
+                               final byte[] raw,
+                               final String originator,
+                               final DebugMessage dm,
+                               final EventType type) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (PrintStream out = new PrintStream(bytes)) {
+      if (raw != null)
+        format.formatRawBytes(out, 0, raw, 0, raw.length);
+      else
+        format.formatDebugMessage(out, originator, dm, type);
+    }
+    return bytes.toString();
+  }
+
+  private static String text(final TextFormatter f) {
+    return new String(f.toByteArray());
+  }
+}
@@ -0,0 +1,92 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.silabs.pti.debugchannel.DebugMessage;
+import com.silabs.pti.debugchannel.EventType;
+import com.silabs.pti.debugchannel.TimeOrderedMerger;
+import com.silabs.pti.format.IDebugChannelExportFormat;
+import com.silabs.pti.format.IDebugChannelExportOutput;
+import com.silabs.pti.format.OutputOptions;
+
+class TimeOrderedMergerTest {
+
+  // Format that records the times of the messages it writes.
+  private static final class Recorder implements IDebugChannelExportFormat<List<Long>> {
+    @Override public IDebugChannelExportOutput<List<Long>> createStdoutOutput() { return null; }
+    @Override public IDebugChannelExportOutput<List<Long>> createOutput(File f, boolean a, OutputOptions o) { return null; }
+    @Override public String description() { return ""; }
+    @Override public void writeHeader(List<Long> out) { }
+    @Override public boolean isUsingRawBytes() { return false; }
+    @Override public boolean isUsingDebugMessages() { return true; }
+    @Override public boolean formatRawBytes(List<Long> out, long t, byte[] b, int off, int len) { return false; }
+    @Override public void writeRawUnframedData(List<Long> out, byte[] b, int off, int len) { }
+
+    @Override
+    public boolean formatDebugMessage(List<Long> out, String originator, DebugMessage dm, EventType type) {
+      out.add(dm.networkTime());
+      return true;
+    }
+  }
+
+  private final List<Long> written = new ArrayList<>();
+  private final IDebugChannelExportOutput<List<Long>> output = new IDebugChannelExportOutput<>() {
+    @Override public List<Long> writer() { return written; }
+    @Override public void close() { }
+  };
+
+  private void submit(TimeOrderedMerger<List<Long>> m, String originator, long time) {
+    byte[] frame = new byte[11];
+    frame[0] = 2;
+    for (int i = 0; i < 6; i++)
+      frame[2 + i] = (byte) (time >>> (8 * i));
+    DebugMessage dm = DebugMessage.make(originator, frame, 0);
+    m.submit(output, dm, EventType.fromDebugMessageCode(dm.debugType()), frame, 0);
+  }
+
+  @Test void mergesIntoTimeOrder() {
+    TimeOrderedMerger<List<Long>> m = new TimeOrderedMerger<>(new Recorder(), 1_000_000);
+    m.register("a");
+    m.register("b");
+    // b lags a.
+    for (long t = 0; t < 1000; t += 10) {
+      submit(m, "a", t);
+      if (t >= 200)
+        submit(m, "b", t - 195);
+    }
+    for (long u = 805; u < 1000; u += 10)
+      submit(m, "b", u);
+    m.close();
+
+    assertEquals(200, written.size());
+    for (int i = 1; i < written.size(); i++)
+      assertEquals(true, written.get(i - 1) <= written.get(i), "at " + i);
+    assertEquals(0, m.lateMessages());
+  }
+
+  @Test void quietOriginatorHoldsUpToMaxLateness() {
+    TimeOrderedMerger<List<Long>> m = new TimeOrderedMerger<>(new Recorder(), 1000);
+    m.register("a");
+    m.register("quiet");
+    for (long t = 0; t <= 5000; t += 100)
+      submit(m, "a", t);
+    // Everything more than 1000 behind the latest is out.
+    assertEquals(41, written.size());
+    assertEquals(10, m.pendingMessages());
+
+    // The quiet one wakes up with a stale message.
+    submit(m, "quiet", 50);
+    assertEquals(1, m.lateMessages());
+    assertEquals(50L, written.get(written.size() - 1));
+    m.close();
+    assertEquals(52, written.size());
+  }
+}
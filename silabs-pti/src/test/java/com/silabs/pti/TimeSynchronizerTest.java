@@ -0,0 +1,103 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.silabs.pti.adapter.TimeSynchronizer;
+import com.silabs.pti.adapter.TimeSynchronizer.Op;
+
+class TimeSynchronizerTest {
+
+  @Test void zeroesAndCorrects() {
+    AtomicLong ms = new AtomicLong(1000);
+    TimeSynchronizer ts = new TimeSynchronizer(ms::get, true, 50_000, 20_000);
+
+    assertEquals(0, ts.synchronizedTime("a", 5_000_000));
+    assertEquals(Op.GLOBAL_ZERO, ts.lastOp());
+
+    ms.set(1100);
+    // In step with a, so it shares its time zero.
+    assertEquals(100_000, ts.synchronizedTime("b", 5_100_000));
+    assertEquals(Op.ORIGINATOR_ZERO, ts.lastOp());
+    assertEquals(ts.timeZero("a"), ts.timeZero("b"));
+
+    // A clock of its own gets a time zero of its own.
+    assertEquals(100_000, ts.synchronizedTime("c", 90_000_000));
+    assertEquals(Op.ORIGINATOR_ZERO_WITH_CORRECTION, ts.lastOp());
+
+    ms.set(1200);
+    assertEquals(200_000, ts.synchronizedTime("a", 5_200_000));
+    assertEquals(Op.ZERO_OFFSET, ts.lastOp());
+    // b drifted by 100 ms.
+    assertEquals(200_000, ts.synchronizedTime("b", 5_300_000));
+    assertEquals(Op.ZERO_OFFSET_WITH_CORRECTION, ts.lastOp());
+    assertEquals(100_000L, ts.lastCorrection());
+    assertNull(ts.timeZero("d"));
+  }
+
+  // 256 originators on 32 threads. Half of them run on the PC clock, the
+  // others on clocks of their own. In the end, all must map onto one timeline.
+  @Test void concurrentOriginators() throws Exception {
+    final int originators = 256;
+    final int threads = 32;
+    final int rounds = 200;
+    AtomicLong ticks = new AtomicLong(16_000);
+    // Each call sees the clock as it was when its time was taken, so that a
+    // thread preempted in between doesn't look like a drifting originator.
+    ThreadLocal<Long> now = ThreadLocal.withInitial(ticks::get);
+    TimeSynchronizer ts = new TimeSynchronizer(() -> now.get() / 16, true, 50_000, 20_000);
+    long[] base = new long[originators];
+    for (int o = 1; o < originators; o += 2)
+      base[o] = o * 1_000_000_000L;
+
+    CyclicBarrier start = new CyclicBarrier(threads);
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    List<Future<?>> done = new ArrayList<>();
+    for (int k = 0; k < threads; k++) {
+      final int first = k;
+      done.add(pool.submit(() -> {
+        start.await();
+        for (int r = 0; r < rounds; r++) {
+          for (int i = 0; i < originators; i++) {
+            int o = (first + i) % originators;
+            now.set(ticks.incrementAndGet());
+            long micros = base[o] + now.get() / 16 * 1000;
+            long t = (i % 2 == 0)
+                ? ts.synchronizedTime("o" + o, micros)
+                : ts.originator("o" + o).synchronizedTime(micros);
+            assertTrue(t >= 0, "time " + t);
+          }
+        }
+        return null;
+      }));
+    }
+    for (Future<?> f : done)
+      f.get(60, TimeUnit.SECONDS);
+    pool.shutdown();
+
+    Set<Integer> ids = new HashSet<>();
+    long offset = ts.timeZero("o0") - base[0];
+    for (int o = 0; o < originators; o++) {
+      ids.add(ts.originator("o" + o).id());
+      long d = ts.timeZero("o" + o) - base[o] - offset;
+      assertTrue(Math.abs(d) < 50_000, "originator " + o + " is off by " + d);
+    }
+    assertEquals(originators, ids.size());
+  }
+}
@@ -0,0 +1,60 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class DataBufferTest {
+
+  @Test void deliversInOrder() {
+    List<Integer> received = new ArrayList<>();
+    DataBuffer<Integer> buffer = new DataBuffer<>(null, "consumer", 4, received::add);
+    buffer.startThread();
+    for (int i = 0; i < 10_000; i++)
+      assertTrue(buffer.addObject(i));
+    buffer.stopThread();
+    assertEquals(10_000, received.size());
+    for (int i = 0; i < received.size(); i++)
+      assertEquals(i, received.get(i));
+    assertEquals(0, buffer.dropped());
+  }
+
+  @Test void fullBufferWithoutConsumerDrops() {
+    DataBuffer<Integer> buffer = new DataBuffer<>(null, "consumer", 4, i -> {
+    });
+    for (int i = 0; i < 4; i++)
+      assertTrue(buffer.addObject(i));
+    assertFalse(buffer.addObject(4));
+    assertFalse(buffer.addObject(5));
+    assertEquals(2, buffer.dropped());
+  }
+
+  @Test void deadConsumerDoesNotHangProducer() throws Exception {
+    CountDownLatch failed = new CountDownLatch(1);
+    ThreadGroup quiet = new ThreadGroup("quiet") {
+      @Override
+      public void uncaughtException(Thread t, Throwable e) {
+        failed.countDown();
+      }
+    };
+    DataBuffer<Integer> buffer = new DataBuffer<>(quiet, "consumer", 4, i -> {
+      throw new IllegalStateException("consumer failure");
+    });
+    buffer.startThread();
+    assertTrue(buffer.addObject(0));
+    assertTrue(failed.await(5, TimeUnit.SECONDS));
+    int queued = 0;
+    while (buffer.addObject(queued))
+      queued++;
+    assertEquals(1, buffer.dropped());
+  }
+}
@@ -0,0 +1,104 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.mina.core.service.IoConnector;
+import org.junit.jupiter.api.Test;
+
+import com.silabs.pti.log.PtiSeverity;
+
+class MinaConnectorRegistryTest {
+
+  private static final IConnectivityLogger QUIET = new IConnectivityLogger() {
+    @Override
+    public void log(PtiSeverity severity, String message, Throwable throwable) {
+    }
+
+    @Override
+    public int bpsRecordPeriodMs() {
+      return 0;
+    }
+
+    @Override
+    public boolean isEnabled() {
+      return false;
+    }
+  };
+
+  @Test void connectionsShareOneConnector() throws Exception {
+    assertEquals(0, MinaConnectorRegistry.users());
+    List<IConnection> connections = new ArrayList<>();
+    List<Socket> peers = new ArrayList<>();
+    IoConnector shared = MinaConnectorRegistry.acquire();
+    try (ServerSocket server = new ServerSocket(0, 10, InetAddress.getLoopbackAddress())) {
+      for (int i = 0; i < 4; i++) {
+        IConnection c = Adapter.createConnection(ConnectionType.CLASSIC, "127.0.0.1", server.getLocalPort(), QUIET);
+        c.connect();
+        connections.add(c);
+        peers.add(server.accept());
+      }
+      assertEquals(5, MinaConnectorRegistry.users());
+      assertSame(shared, MinaConnectorRegistry.acquire());
+      MinaConnectorRegistry.release();
+
+      // Busy processors, not every thread the pool has started.
+      int busy = MinaConnectorRegistry.liveIoThreads();
+      assertTrue(busy >= 1 && busy <= MinaConnectorRegistry.processorCount() + 1, "busy " + busy);
+
+      for (IConnection c : connections)
+        c.close();
+      assertEquals(1, MinaConnectorRegistry.users());
+      assertFalse(shared.isDisposing());
+    } finally {
+      for (Socket s : peers)
+        s.close();
+    }
+    // The last user disposes the connector and its threads.
+    MinaConnectorRegistry.release();
+    assertEquals(0, MinaConnectorRegistry.users());
+    assertTrue(shared.isDisposing());
+    assertEquals(0, MinaConnectorRegistry.liveIoThreads());
+  }
+
+  @Test void failedConnectReleasesReservations() throws Exception {
+    int port;
+    try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      port = server.getLocalPort();
+    }
+    AtomicInteger reserved = new AtomicInteger();
+    IConnection c = Adapter.createConnection(ConnectionType.CLASSIC, "127.0.0.1", port, QUIET);
+    c.setConnectionEnabler(new IConnectionEnabler() {
+      @Override
+      public void prepareConnection(String connectionName) {
+        reserved.incrementAndGet();
+      }
+
+      @Override
+      public void releaseConnection(String connectionName) {
+        reserved.decrementAndGet();
+      }
+
+      @Override
+      public void repairConnection(String connectionName) {
+      }
+    });
+    assertThrows(IOException.class, c::connect);
+    assertEquals(0, reserved.get());
+    assertEquals(0, MinaConnectorRegistry.users());
+    assertFalse(c.isConnected());
+  }
+}
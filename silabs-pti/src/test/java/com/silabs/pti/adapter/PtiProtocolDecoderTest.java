@@ -0,0 +1,101 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.core.filterchain.IoFilter.NextFilter;
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.filter.codec.ProtocolDecoderOutput;
+import org.junit.jupiter.api.Test;
+
+import com.silabs.pti.log.PtiSeverity;
+import com.silabs.pti.util.ICharacterListener;
+
+class PtiProtocolDecoderTest {
+
+  private static final IConnectivityLogger QUIET = new IConnectivityLogger() {
+    @Override
+    public void log(PtiSeverity severity, String message, Throwable throwable) {
+    }
+
+    @Override
+    public int bpsRecordPeriodMs() {
+      return 0;
+    }
+
+    @Override
+    public boolean isEnabled() {
+      return false;
+    }
+  };
+
+  @Test void copiesAreStableAcrossReads() throws Exception {
+    Connection c = new Connection("decoder", 1, QUIET);
+    List<byte[]> copies = new ArrayList<>();
+    List<byte[]> views = new ArrayList<>();
+    List<byte[]> seenInViews = new ArrayList<>();
+    c.addCharacterListener(new ICharacterListener() {
+      @Override
+      public void received(byte[] ch, int offset, int len) {
+        assertEquals(0, offset);
+        assertEquals(ch.length, len);
+        copies.add(ch);
+      }
+
+      @Override
+      public boolean requiresCopy() {
+        return true;
+      }
+    });
+    c.addCharacterListener((ch, offset, len) -> {
+      views.add(ch);
+      seenInViews.add(Arrays.copyOfRange(ch, offset, offset + len));
+    });
+    ProtocolDecoderOutput out = new ProtocolDecoderOutput() {
+      @Override
+      public void write(Object message) {
+        c.processIncomingData(0, (ByteBuffer) message);
+      }
+
+      @Override
+      public void flush(NextFilter nextFilter, IoSession session) {
+      }
+    };
+
+    byte[][] frames = { { '[', 1, 2, 3, ']' }, { '[', 4, 5, 6, 7, 8, ']' }, { '[', 9, ']' } };
+    PtiProtocolDecoder decoder = new PtiProtocolDecoder();
+    PtiMessageDecoder messageDecoder = new PtiMessageDecoder();
+    // One read buffer, reused for every read, as the I/O processor does.
+    IoBuffer in = IoBuffer.allocate(64);
+    for (int i = 0; i < frames.length; i++) {
+      in.clear();
+      in.put(frames[i]);
+      in.flip();
+      if (i % 2 == 0)
+        decoder.decode(null, in, out);
+      else
+        messageDecoder.decode(null, in, out);
+      assertEquals(0, in.remaining());
+    }
+
+    assertEquals(frames.length, copies.size());
+    for (int i = 0; i < frames.length; i++) {
+      assertArrayEquals(frames[i], copies.get(i));
+      assertArrayEquals(frames[i], seenInViews.get(i));
+    }
+    assertNotSame(copies.get(0), copies.get(1));
+    // The others get the read buffer itself, no copy.
+    assertSame(in.array(), views.get(0));
+    assertSame(views.get(0), views.get(2));
+  }
+}
@@ -0,0 +1,82 @@
+// Copyright (c) 2026 Silicon Labs. All rights reserved.
+
+package com.silabs.pti.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class ReadBufferPoolTest {
+
+  private static ReadBufferPool.Slab acquire(final ReadBufferPool pool) {
+    return pool.acquire(0, TimeUnit.MILLISECONDS);
+  }
+
+  @Test void releasedSlabsAreReused() {
+    ReadBufferPool pool = new ReadBufferPool(1024, 4);
+    ReadBufferPool.Slab s = acquire(pool);
+    assertEquals(1024, s.data().length);
+    assertEquals(0, pool.hits());
+    assertEquals(1, pool.misses());
+
+    s.filled(42, 10);
+    assertEquals(1, pool.inFlight());
+    pool.release(s);
+    assertEquals(0, pool.inFlight());
+    assertEquals(0, s.count());
+
+    assertSame(s, acquire(pool));
+    assertEquals(1, pool.hits());
+    assertEquals(1, pool.misses());
+  }
+
+  @Test void backlogDoesNotAllocate() {
+    ReadBufferPool pool = new ReadBufferPool(1024, 4);
+    Deque<ReadBufferPool.Slab> queued = new ArrayDeque<>();
+    for (int i = 0; i < 4; i++)
+      queued.add(acquire(pool));
+    assertEquals(4, pool.misses());
+
+    // Reads of any size, with the consumer lagging a full pool behind: every
+    // slab comes from the pool, nothing is copied or allocated.
+    for (int i = 0; i < 1000; i++) {
+      pool.release(queued.poll());
+      ReadBufferPool.Slab s = acquire(pool);
+      assertNotNull(s);
+      s.filled(i, 1 + i % 1024);
+      queued.add(s);
+    }
+    assertEquals(4, pool.misses());
+    assertEquals(1000, pool.hits());
+    assertEquals(0, pool.waits());
+  }
+
+  @Test void fullPoolWaits() {
+    ReadBufferPool pool = new ReadBufferPool(1024, 2);
+    acquire(pool);
+    acquire(pool);
+    assertNull(pool.acquire(10, TimeUnit.MILLISECONDS));
+    assertEquals(1, pool.waits());
+    assertEquals(2, pool.misses());
+    assertEquals(2, pool.inFlight());
+  }
+
+  @Test void releaseWakesWaitingReader() throws Exception {
+    ReadBufferPool pool = new ReadBufferPool(1024, 1);
+    ReadBufferPool.Slab s = acquire(pool);
+    CompletableFuture<ReadBufferPool.Slab> waiting = CompletableFuture
+        .supplyAsync(() -> pool.acquire(10, TimeUnit.SECONDS));
+    Thread.sleep(50);
+    pool.release(s);
+    assertSame(s, waiting.get(5, TimeUnit.SECONDS));
+    assertEquals(1, pool.misses());
+  }
+}